@@ -43,6 +43,14 @@ public abstract class AbstractGeometryNormalizer<T extends datawave.data.type.ut
     
     abstract protected T createDatawaveGeometry(G geometry);
     
+    /**
+     * Index a point, which loads the geometry parsers and builds the index strategy of the calling thread along with the static state of GeoWave behind it
+     */
+    @Override
+    public void warmUp() {
+        normalize("POINT (0 0)");
+    }
+    
     /**
      * Expects to receive a parseable geometry string. The default geometry parser accepts Open Geospatial Consortium compliant Well-Known test strings An
      * example for points is of the form:
@@ -0,0 +1,75 @@
+package datawave.data.normalizer;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * The loop behind {@link Normalizer#normalizeAll(String[], String[])}. A value equal to the one before it reuses that value's result, which catches the runs
+ * of a sorted or repetitive column for the cost of an equals, and a batch may also be deduplicated as a whole for normalizers where a hash lookup costs much
+ * less than normalizing. Deduplication stops if too few of the first values of a batch are repeats, so a column of unique values pays for no more than the
+ * sample.
+ */
+final class BatchNormalization {
+    
+    // the number of values after which deduplication stops unless at least one in MIN_REPEAT_RATIO was a repeat
+    private static final int SAMPLE_SIZE = 256;
+    private static final int MIN_REPEAT_RATIO = 8;
+    
+    private BatchNormalization() {}
+    
+    /**
+     * Normalize a batch of values
+     *
+     * @param in
+     *            the values
+     * @param out
+     *            receives the normalized values, or null for each value which cannot be normalized
+     * @param normalizer
+     *            normalizes one value
+     * @param deduplicate
+     *            whether to normalize each distinct value of the batch only once
+     * @return the number of values which could not be normalized
+     */
+    static int normalizeAll(String[] in, String[] out, Function<String,NormalizationResult> normalizer, boolean deduplicate) {
+        checkLengths(in, out);
+        Map<String,NormalizationResult> seen = (deduplicate && in.length > 2 ? new HashMap<>() : null);
+        int failures = 0;
+        int repeats = 0;
+        NormalizationResult result = null;
+        for (int i = 0; i < in.length; i++) {
+            String value = in[i];
+            if (i == SAMPLE_SIZE && repeats < SAMPLE_SIZE / MIN_REPEAT_RATIO) {
+                seen = null;
+            }
+            if (i == 0 || !equals(value, in[i - 1])) {
+                result = (seen == null || value == null ? null : seen.get(value));
+                if (result != null) {
+                    repeats++;
+                } else {
+                    result = normalizer.apply(value);
+                    if (seen != null && value != null) {
+                        seen.put(value, result);
+                    }
+                }
+            }
+            if (result.isSuccess()) {
+                out[i] = result.getValue();
+            } else {
+                out[i] = null;
+                failures++;
+            }
+        }
+        return failures;
+    }
+    
+    static void checkLengths(String[] in, String[] out) {
+        if (out.length < in.length) {
+            throw new IllegalArgumentException("Output array of length " + out.length + " cannot hold " + in.length + " values");
+        }
+    }
+    
+    private static boolean equals(String value, String previous) {
+        return value == null ? previous == null : value.equals(previous);
+    }
+}
@@ -0,0 +1,295 @@
+package datawave.data.normalizer;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+
+/**
+ * A Normalizer decorator that memoizes the normalized form of string values. This is intended for low cardinality fields (country codes, status codes,
+ * protocol names, ...) where the same values are normalized over and over again.
+ * <p>
+ * The cache is bounded by weight, where the weight of an entry is the number of chars in its key and value. Values longer than the maximum key length are never
+ * cached. When the admission filter is enabled, a value is only cached the second time it is seen, which keeps one-off values of high cardinality fields from
+ * evicting the frequent ones. Failed normalizations are never cached.
+ * <p>
+ * Only {@link #normalize(String)}, {@link #tryNormalize(String)}, {@link #normalizeAll(String[], String[])} and {@link #normalizeDelegateType(Object)} for
+ * string delegates are cached, all other calls go straight to the delegate.
+ *
+ * @param <T>
+ *            the delegate type of the underlying normalizer
+ */
+public class CachingNormalizer<T> implements Normalizer<T> {
+    
+    private static final long serialVersionUID = 4829160377012946631L;
+    
+    public static final long DEFAULT_MAXIMUM_WEIGHT = 1024 * 1024;
+    public static final int DEFAULT_MAXIMUM_KEY_LENGTH = 64;
+    
+    private static final int DOORKEEPER_SIZE = 4096;
+    
+    private final Normalizer<T> delegate;
+    private final long maximumWeight;
+    private final int maximumKeyLength;
+    private final boolean admissionFilter;
+    
+    private final transient Cache<String,String> valueCache;
+    private final transient Cache<String,String> delegateCache;
+    private final transient int[] doorkeeper;
+    private final transient LongAdder rejected = new LongAdder();
+    private final transient LongAdder bypassed = new LongAdder();
+    
+    /**
+     * Constructor that uses the default weight, key length and admission filter
+     *
+     * @param delegate
+     *            the normalizer to cache
+     */
+    public CachingNormalizer(Normalizer<T> delegate) {
+        this(delegate, DEFAULT_MAXIMUM_WEIGHT, DEFAULT_MAXIMUM_KEY_LENGTH, true);
+    }
+    
+    /**
+     * Constructor that uses custom cache limits
+     *
+     * @param delegate
+     *            the normalizer to cache
+     * @param maximumWeight
+     *            the maximum number of chars held by each cache, counting both keys and values
+     * @param maximumKeyLength
+     *            values longer than this are never cached
+     * @param admissionFilter
+     *            if true, values are only cached once they have been seen twice
+     */
+    public CachingNormalizer(Normalizer<T> delegate, long maximumWeight, int maximumKeyLength, boolean admissionFilter) {
+        if (delegate instanceof CachingNormalizer) {
+            throw new IllegalArgumentException("Normalizer is already cached");
+        }
+        this.delegate = delegate;
+        this.maximumWeight = maximumWeight;
+        this.maximumKeyLength = maximumKeyLength;
+        this.admissionFilter = admissionFilter;
+        this.valueCache = createCache(maximumWeight);
+        this.delegateCache = createCache(maximumWeight);
+        this.doorkeeper = admissionFilter ? new int[DOORKEEPER_SIZE] : null;
+    }
+    
+    private static Cache<String,String> createCache(long maximumWeight) {
+        //  @formatter:off
+        return CacheBuilder.newBuilder()
+                        .maximumWeight(maximumWeight)
+                        .<String,String>weigher((key, value) -> key.length() + value.length())
+                        .recordStats()
+                        .build();
+        //  @formatter:on
+    }
+    
+    /**
+     * Get the underlying normalizer
+     *
+     * @return the normalizer being cached
+     */
+    public Normalizer<T> getDelegate() {
+        return delegate;
+    }
+    
+    @Override
+    public void warmUp() {
+        delegate.warmUp();
+    }
+    
+    @Override
+    public String normalize(String in) {
+        if (!cacheable(in)) {
+            return delegate.normalize(in);
+        }
+        String normalized = valueCache.getIfPresent(in);
+        if (normalized == null) {
+            normalized = delegate.normalize(in);
+            if (normalized != null && admit(in)) {
+                valueCache.put(in, normalized);
+            }
+        }
+        return normalized;
+    }
+    
+    /**
+     * Normalize a value with the delegate's {@link Normalizer#tryNormalize(String)}, caching the normalized values just as {@link #normalize(String)} does
+     */
+    @Override
+    public NormalizationResult tryNormalize(String in) {
+        if (!cacheable(in)) {
+            return delegate.tryNormalize(in);
+        }
+        String normalized = valueCache.getIfPresent(in);
+        if (normalized != null) {
+            return NormalizationResult.of(normalized);
+        }
+        NormalizationResult result = delegate.tryNormalize(in);
+        if (result.isSuccess() && result.getValue() != null && admit(in)) {
+            valueCache.put(in, result.getValue());
+        }
+        return result;
+    }
+    
+    /**
+     * Normalize a batch of values, filling in the cached ones and passing the rest to the delegate's {@link Normalizer#normalizeAll(String[], String[])} as one
+     * smaller batch
+     */
+    @Override
+    public int normalizeAll(String[] in, String[] out) {
+        BatchNormalization.checkLengths(in, out);
+        int[] misses = new int[in.length];
+        int missCount = 0;
+        for (int i = 0; i < in.length; i++) {
+            String normalized = cacheable(in[i]) ? valueCache.getIfPresent(in[i]) : null;
+            if (normalized != null) {
+                out[i] = normalized;
+            } else {
+                misses[missCount++] = i;
+            }
+        }
+        if (missCount == 0) {
+            return 0;
+        }
+        String[] missIn = new String[missCount];
+        String[] missOut = new String[missCount];
+        for (int i = 0; i < missCount; i++) {
+            missIn[i] = in[misses[i]];
+        }
+        int failures = delegate.normalizeAll(missIn, missOut);
+        for (int i = 0; i < missCount; i++) {
+            out[misses[i]] = missOut[i];
+            // a value too long to cache was already counted as bypassed above
+            if (missOut[i] != null && missIn[i] != null && missIn[i].length() <= maximumKeyLength && admit(missIn[i])) {
+                valueCache.put(missIn[i], missOut[i]);
+            }
+        }
+        return failures;
+    }
+    
+    @Override
+    public String normalizeDelegateType(T delegateIn) {
+        if (!(delegateIn instanceof String) || !cacheable((String) delegateIn)) {
+            return delegate.normalizeDelegateType(delegateIn);
+        }
+        String in = (String) delegateIn;
+        String normalized = delegateCache.getIfPresent(in);
+        if (normalized == null) {
+            normalized = delegate.normalizeDelegateType(delegateIn);
+            if (normalized != null && admit(in)) {
+                delegateCache.put(in, normalized);
+            }
+        }
+        return normalized;
+    }
+    
+    private boolean cacheable(String in) {
+        if (in == null) {
+            return false;
+        } else if (in.length() > maximumKeyLength) {
+            bypassed.increment();
+            return false;
+        }
+        return true;
+    }
+    
+    /**
+     * Admit a value the second time its hash lands in the same doorkeeper slot. Concurrent updates of a slot may drop an admission, which is harmless.
+     */
+    private boolean admit(String in) {
+        if (doorkeeper == null) {
+            return true;
+        }
+        int hash = in.hashCode();
+        int slot = (hash ^ (hash >>> 16)) & (DOORKEEPER_SIZE - 1);
+        if (doorkeeper[slot] == hash) {
+            return true;
+        }
+        doorkeeper[slot] = hash;
+        rejected.increment();
+        return false;
+    }
+    
+    @Override
+    public T denormalize(String in) {
+        return delegate.denormalize(in);
+    }
+    
+    @Override
+    public String normalizeRegex(String in) {
+        return delegate.normalizeRegex(in);
+    }
+    
+    @Override
+    public boolean normalizedRegexIsLossy(String in) {
+        return delegate.normalizedRegexIsLossy(in);
+    }
+    
+    @Override
+    public Collection<String> expand(String in) {
+        return delegate.expand(in);
+    }
+    
+    /**
+     * Get the combined hit and miss statistics of the value and delegate caches
+     *
+     * @return the cache statistics
+     */
+    public CacheStats getStats() {
+        return valueCache.stats().plus(delegateCache.stats());
+    }
+    
+    /**
+     * Get the fraction of cacheable lookups which were served from the cache
+     *
+     * @return the hit rate
+     */
+    public double getHitRate() {
+        return getStats().hitRate();
+    }
+    
+    /**
+     * Get the number of normalized values which the admission filter kept out of the cache
+     *
+     * @return the number of rejected values
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+    
+    /**
+     * Get the number of values which were too long to be cached
+     *
+     * @return the number of bypassed values
+     */
+    public long getBypassedCount() {
+        return bypassed.sum();
+    }
+    
+    /**
+     * Get the number of cached entries
+     *
+     * @return the current cache size
+     */
+    public long getCacheSize() {
+        return valueCache.size() + delegateCache.size();
+    }
+    
+    /**
+     * Drop all cached entries
+     */
+    public void invalidateAll() {
+        valueCache.invalidateAll();
+        delegateCache.invalidateAll();
+    }
+    
+    /**
+     * The caches are not serialized, so start over with empty caches after deserialization
+     */
+    private Object readResolve() {
+        return new CachingNormalizer<>(delegate, maximumWeight, maximumKeyLength, admissionFilter);
+    }
+}
@@ -0,0 +1,153 @@
+package datawave.data.normalizer;
+
+import java.text.SimpleDateFormat;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.RandomAccess;
+import java.util.TimeZone;
+
+/**
+ * The expansion of a date into each of a list of patterns. The date is only formatted into a pattern when that element is first requested, and then kept, so an
+ * expansion can be cached and shared by any number of threads.
+ * <p>
+ * The expansion is made in the default time zone and locale at the time it is created. {@link #isCurrent()} tells whether they have changed since.
+ * <p>
+ * An expansion itself is unmodifiable. Callers are handed a {@link View}, which reads through to the shared expansion and copies it on the first write.
+ */
+final class DateExpansion extends AbstractList<String> implements RandomAccess {
+    
+    private final long epochMillis;
+    private final String[] patterns;
+    private final TimeZone zone;
+    private final Locale locale;
+    // a String is immutable, so a racy publication of a formatted value is safe
+    private final String[] formatted;
+    
+    DateExpansion(long epochMillis, String[] patterns) {
+        this.epochMillis = epochMillis;
+        this.patterns = patterns.clone();
+        this.zone = TimeZone.getDefault();
+        this.locale = Locale.getDefault(Locale.Category.FORMAT);
+        this.formatted = new String[this.patterns.length];
+    }
+    
+    /**
+     * Determine whether this expansion was made in the current default time zone and locale
+     *
+     * @return true if the expansion can be reused
+     */
+    boolean isCurrent() {
+        return zone.equals(TimeZone.getDefault()) && locale.equals(Locale.getDefault(Locale.Category.FORMAT));
+    }
+    
+    @Override
+    public String get(int index) {
+        String value = formatted[index];
+        if (value == null) {
+            LenientDateFormat format = DateNormalizer.getFormat(patterns[index]);
+            if (format != null) {
+                value = format.format(epochMillis, zone);
+            } else {
+                SimpleDateFormat parser = DateNormalizer.newParser(patterns[index]);
+                parser.setTimeZone(zone);
+                value = parser.format(new Date(epochMillis));
+            }
+            formatted[index] = value;
+        }
+        return value;
+    }
+    
+    @Override
+    public int size() {
+        return patterns.length;
+    }
+    
+    /**
+     * Get a new view of this expansion for a caller
+     *
+     * @return the view
+     */
+    View view() {
+        return new View(this);
+    }
+    
+    /**
+     * Count the patterns into which the date has been formatted so far
+     *
+     * @return the count
+     */
+    int formattedCount() {
+        int count = 0;
+        for (String value : formatted) {
+            if (value != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+    
+    /**
+     * A mutable list of the values of an expansion. Reads go to the shared expansion, so a value is only formatted when it is requested, until the first
+     * write copies all the values into a list of its own. A view is not thread safe.
+     */
+    static final class View extends AbstractList<String> implements RandomAccess {
+        
+        private final DateExpansion expansion;
+        private List<String> copy;
+        
+        private View(DateExpansion expansion) {
+            this.expansion = expansion;
+        }
+        
+        private List<String> values() {
+            return copy != null ? copy : expansion;
+        }
+        
+        private List<String> copy() {
+            if (copy == null) {
+                copy = new ArrayList<>(expansion);
+            }
+            return copy;
+        }
+        
+        /**
+         * Count the values which have been formatted so far
+         *
+         * @return the count
+         */
+        int formattedCount() {
+            return copy != null ? copy.size() : expansion.formattedCount();
+        }
+        
+        @Override
+        public String get(int index) {
+            return values().get(index);
+        }
+        
+        @Override
+        public int size() {
+            return values().size();
+        }
+        
+        @Override
+        public String set(int index, String element) {
+            return copy().set(index, element);
+        }
+        
+        @Override
+        public void add(int index, String element) {
+            copy().add(index, element);
+            modCount++;
+        }
+        
+        @Override
+        public String remove(int index) {
+            String removed = copy().remove(index);
+            modCount++;
+            return removed;
+        }
+    }
+}
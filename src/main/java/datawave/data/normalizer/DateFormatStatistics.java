@@ -0,0 +1,166 @@
+package datawave.data.normalizer;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hit counts and the learned format order of an adaptive {@link DateNormalizer}. The format which most recently parsed a value is tried first, so a feed which
+ * sends its dates in one consistent format usually parses each value with a single attempt.
+ * <p>
+ * Trying a format out of order never changes the result. A value is always parsed by the first of the patterns that matches it, so before the preferred
+ * format is tried, the earlier patterns which may accept some of the same values (see {@link LenientDateFormat#mayOverlap(LenientDateFormat)}) are tried in
+ * their usual order. Every other earlier pattern is skipped, since it cannot match a value that the preferred format matches.
+ * <p>
+ * All updates are lock-free. Concurrent updates of the preferred format may briefly leave it at any recently successful format, which only affects the order in
+ * which formats are tried.
+ */
+public class DateFormatStatistics {
+    
+    private static final int[] NONE = new int[0];
+    
+    private final String[] patterns;
+    private final LenientDateFormat[] formats;
+    // earlier[k] lists the patterns before k which may match a value that k matches
+    private final int[][] earlier;
+    private final LongAdder[] hits;
+    private final LongAdder epochMillis = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final int canonical;
+    private volatile int preferred = -1;
+    
+    DateFormatStatistics(String[] patterns) {
+        this.patterns = patterns.clone();
+        this.formats = new LenientDateFormat[this.patterns.length];
+        this.earlier = new int[this.patterns.length][];
+        this.hits = new LongAdder[this.patterns.length];
+        for (int k = 0; k < this.patterns.length; k++) {
+            formats[k] = DateNormalizer.getFormat(this.patterns[k]);
+            hits[k] = new LongAdder();
+            int[] overlapping = new int[k];
+            int count = 0;
+            for (int j = 0; j < k; j++) {
+                // patterns which only a SimpleDateFormat supports cannot be analyzed
+                if (formats[j] == null || formats[k] == null || formats[j].mayOverlap(formats[k])) {
+                    overlapping[count++] = j;
+                }
+            }
+            earlier[k] = Arrays.copyOf(overlapping, count);
+        }
+        this.canonical = Arrays.asList(this.patterns).indexOf(DateNormalizer.ISO_8601_FORMAT_STRING);
+    }
+    
+    /**
+     * Parse a value with the first of the patterns that matches, trying the preferred format as early as possible. A match that passes the sanity check is
+     * counted and becomes the preferred format.
+     *
+     * @param str
+     *            the value
+     * @return the epoch millis, or {@link LenientDateFormat#INVALID} if no pattern matches
+     */
+    long parse(String str) {
+        LenientDateFormat.Shape shape = new LenientDateFormat.Shape(str);
+        int first = preferred;
+        int[] tried = NONE;
+        if (first >= 0) {
+            tried = earlier[first];
+            for (int j : tried) {
+                long millis = parse(str, shape, j);
+                if (millis != LenientDateFormat.INVALID) {
+                    return millis;
+                }
+            }
+            long millis = parse(str, shape, first);
+            if (millis != LenientDateFormat.INVALID) {
+                return millis;
+            }
+        }
+        for (int i = 0, t = 0; i < patterns.length; i++) {
+            if (t < tried.length && tried[t] == i) {
+                t++;
+            } else if (i != first) {
+                long millis = parse(str, shape, i);
+                if (millis != LenientDateFormat.INVALID) {
+                    return millis;
+                }
+            }
+        }
+        return LenientDateFormat.INVALID;
+    }
+    
+    private long parse(String str, LenientDateFormat.Shape shape, int index) {
+        LenientDateFormat format = formats[index];
+        if (format != null && !format.mayMatch(shape)) {
+            return LenientDateFormat.INVALID;
+        }
+        long millis = DateNormalizer.parseMillis(str, patterns[index], format);
+        if (millis != LenientDateFormat.INVALID && DateNormalizer.sanityCheck(millis)) {
+            recordHit(index);
+        }
+        return millis;
+    }
+    
+    void recordCanonicalHit() {
+        if (canonical >= 0) {
+            hits[canonical].increment();
+        }
+    }
+    
+    private void recordHit(int index) {
+        hits[index].increment();
+        if (preferred != index) {
+            preferred = index;
+        }
+    }
+    
+    void recordEpochMillis() {
+        epochMillis.increment();
+    }
+    
+    void recordFailure() {
+        failures.increment();
+    }
+    
+    /**
+     * Get the number of values each pattern has parsed
+     *
+     * @return the counts by pattern, in the order the patterns are normally tried
+     */
+    public Map<String,Long> getFormatCounts() {
+        Map<String,Long> counts = new LinkedHashMap<>();
+        for (int i = 0; i < patterns.length; i++) {
+            counts.put(patterns[i], hits[i].sum());
+        }
+        return Collections.unmodifiableMap(counts);
+    }
+    
+    /**
+     * Get the number of values which were parsed as epoch millis after no pattern matched
+     *
+     * @return the epoch millis count
+     */
+    public long getEpochMillisCount() {
+        return epochMillis.sum();
+    }
+    
+    /**
+     * Get the number of values which could not be parsed at all
+     *
+     * @return the failure count
+     */
+    public long getFailureCount() {
+        return failures.sum();
+    }
+    
+    /**
+     * Get the pattern which is currently tried first
+     *
+     * @return the pattern, or null if no value has been parsed yet
+     */
+    public String getPreferredFormat() {
+        int index = preferred;
+        return index < 0 ? null : patterns[index];
+    }
+}
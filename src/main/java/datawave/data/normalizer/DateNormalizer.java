@@ -1,54 +1,184 @@
 package datawave.data.normalizer;
 
-import java.text.DateFormat;
 import java.text.ParseException;
 import java.text.ParsePosition;
 import java.text.SimpleDateFormat;
 import java.util.Collection;
-import java.util.Collections;
 import java.util.Date;
-import java.util.List;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import com.google.common.collect.Lists;
-import com.google.common.collect.Maps;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 
+/**
+ * Normalizes dates to {@link #ISO_8601_FORMAT_STRING} in the default time zone. Values are parsed with the first of the {@link #FORMAT_STRINGS} that matches,
+ * leniently as a {@link SimpleDateFormat} would, or else as epoch millis.
+ * <p>
+ * This class is thread safe. The patterns are compiled once into immutable formats which are shared by all threads, so no per thread {@link SimpleDateFormat}
+ * instances are kept for them. Only {@link #getParser(String)}, and a pattern which the shared formats do not support, still use a per thread instance.
+ * <p>
+ * An adaptive instance, meant to be created per feed or per field, learns which format its values usually come in and tries that one first. It parses every
+ * value exactly as a regular instance would, and its {@link DateFormatStatistics} show which formats were actually used.
+ */
 public class DateNormalizer extends AbstractNormalizer<Date> {
     
     private static final long serialVersionUID = -3268331784114135470L;
     private static final Logger log = LoggerFactory.getLogger(DateNormalizer.class);
     public static final String ISO_8601_FORMAT_STRING = "yyyy-MM-dd'T'HH:mm:ss.SSS'Z'";
     
+    private static final int EXPANSION_CACHE_SIZE = 256;
+    
     public static final String[] FORMAT_STRINGS = {"EEE MMM dd HH:mm:ss zzz yyyy", // at the top just because
             "EEE MMM dd HH:mm:ss XXX yyyy", // for ISO 8601
             ISO_8601_FORMAT_STRING, "yyyyMMddHHmmss", "yyyy-MM-dd HH:mm:ssz", "yyyy-MM-dd HH:mm:ss'Z'", "yyyy-MM-dd HH:mm:ss", "yyyy-MM-dd",
             "yyyy-MM-dd'T'HH'|'mm", "yyyy-MM-dd'T'HH:mm:ss'Z'", "yyyy-MM-dd't'HH:mm:ss'z'", "yyyy-MM-dd'T'HH:mm:ssXXX", "yyyy-MM-dd'T'HH:mm:ss.SSSSSSS"};
     
-    private static final ThreadLocal<Map<String,SimpleDateFormat>> formatList = new ThreadLocal<Map<String,SimpleDateFormat>>() {
-        protected Map<String,SimpleDateFormat> initialValue() {
-            return Maps.newHashMap();
-        }
-    };
+    private static final Map<String,LenientDateFormat> formats = new ConcurrentHashMap<>();
+    private static final ThreadLocal<Map<String,SimpleDateFormat>> parsers = ThreadLocal.withInitial(HashMap::new);
+    private static final Cache<Long,DateExpansion> expansions = CacheBuilder.newBuilder().maximumSize(EXPANSION_CACHE_SIZE).build();
+    
+    private final boolean adaptive;
+    private final transient DateFormatStatistics statistics;
+    
+    public DateNormalizer() {
+        this(false);
+    }
+    
+    /**
+     * Constructor
+     *
+     * @param adaptive
+     *            if true, keep statistics on the formats which match and try the most recently successful format first
+     */
+    public DateNormalizer(boolean adaptive) {
+        this.adaptive = adaptive;
+        this.statistics = adaptive ? new DateFormatStatistics(FORMAT_STRINGS) : null;
+    }
+    
+    /**
+     * Determine whether this instance learns the order in which to try its formats
+     *
+     * @return true if adaptive
+     */
+    public boolean isAdaptive() {
+        return adaptive;
+    }
+    
+    /**
+     * Get the format statistics of an adaptive instance
+     *
+     * @return the statistics, or null if this instance is not adaptive
+     */
+    public DateFormatStatistics getFormatStatistics() {
+        return statistics;
+    }
     
     public String normalize(String fieldValue) {
-        Date fieldDate = parseToDate(fieldValue);
-        return parseToString(fieldDate);
+        return Iso8601DateFormat.format(parseToMillis(fieldValue));
     }
     
+    /**
+     * Normalize a date without building an exception for a value which is not a date. The parsed epoch millis go through {@link #normalize(long)}, so a
+     * subclass which changes how dates are written is honored.
+     */
+    @Override
+    public NormalizationResult tryNormalize(String fieldValue) {
+        if (fieldValue == null) {
+            return NormalizationResult.FAILED;
+        }
+        long millis = tryParseToMillis(fieldValue);
+        return millis == LenientDateFormat.INVALID ? NormalizationResult.FAILED : NormalizationResult.of(normalize(millis));
+    }
+    
+    /**
+     * Normalize a batch of values, parsing each distinct value only once. Dates repeat heavily within a column, and a hash lookup costs far less than a parse.
+     */
+    @Override
+    public int normalizeAll(String[] in, String[] out) {
+        return BatchNormalization.normalizeAll(in, out, this::tryNormalize, true);
+    }
+    
+    /**
+     * Compile the shared format of every pattern. Nothing is parsed, so the statistics of an adaptive instance are left alone.
+     */
+    @Override
+    public void warmUp() {
+        for (String pattern : FORMAT_STRINGS) {
+            getFormat(pattern);
+        }
+        Iso8601DateFormat.format(0L);
+    }
+    
+    /**
+     * Normalize epoch millis without creating a {@link Date}
+     *
+     * @param epochMillis
+     *            the epoch millis
+     * @return the normalized date
+     */
+    public String normalize(long epochMillis) {
+        return Iso8601DateFormat.format(epochMillis);
+    }
+    
+    /**
+     * Get a lenient SimpleDateFormat for a pattern in the default time zone. The DateNormalizer itself no longer parses or formats with SimpleDateFormat,
+     * except for patterns the shared formats do not support, but the instances are still cached per thread for the callers of this method. A thread only
+     * holds the instances it has asked for.
+     *
+     * @param pattern
+     *            the pattern
+     * @return a lenient SimpleDateFormat owned by the calling thread
+     */
     public static SimpleDateFormat getParser(String pattern) {
-        SimpleDateFormat parser = formatList.get().get(pattern);
+        Map<String,SimpleDateFormat> threadParsers = parsers.get();
+        SimpleDateFormat parser = threadParsers.get(pattern);
         if (parser == null) {
-            parser = new SimpleDateFormat();
-            parser.setLenient(true);
-            parser.applyPattern(pattern);
-            formatList.get().put(pattern, parser);
+            parser = newParser(pattern);
+            threadParsers.put(pattern, parser);
+        } else {
+            parser.setTimeZone(TimeZone.getDefault());
         }
         return parser;
     }
     
+    /**
+     * Create a lenient SimpleDateFormat for a pattern
+     *
+     * @param pattern
+     *            the pattern
+     * @return a new lenient SimpleDateFormat
+     */
+    static SimpleDateFormat newParser(String pattern) {
+        SimpleDateFormat parser = new SimpleDateFormat();
+        parser.setLenient(true);
+        parser.applyPattern(pattern);
+        return parser;
+    }
+    
+    /**
+     * Get the shared format for a pattern
+     *
+     * @param pattern
+     *            the pattern
+     * @return the format, or null if the pattern uses letters which only a SimpleDateFormat supports
+     */
+    static LenientDateFormat getFormat(String pattern) {
+        LenientDateFormat format = formats.get(pattern);
+        if (format == null) {
+            format = LenientDateFormat.compile(pattern);
+            if (format != null) {
+                formats.putIfAbsent(pattern, format);
+            }
+        }
+        return format;
+    }
+    
     public static String convertMicroseconds(String str, String pattern) {
         // check for a special case where the incoming string is specifying microseconds instead of milliseconds
         if (pattern.lastIndexOf('S') >= 0) {
@@ -74,23 +204,45 @@ public class DateNormalizer extends AbstractNormalizer<Date> {
     }
     
     public static Date parseDate(String str, String pattern) {
+        return parseDate(str, pattern, getFormat(pattern));
+    }
+    
+    private static Date parseDate(String str, String pattern, LenientDateFormat format) {
+        long millis = parseMillis(str, pattern, format);
+        return millis == LenientDateFormat.INVALID ? null : new Date(millis);
+    }
+    
+    static long parseMillis(String str, String pattern, LenientDateFormat format) {
+        str = convertMicroseconds(str, pattern);
+        if (format != null) {
+            return format.parse(str);
+        }
         SimpleDateFormat parser = getParser(pattern);
         ParsePosition pos = new ParsePosition(0);
-        str = convertMicroseconds(str, pattern);
         Date date = parser.parse(str, pos);
         if (date != null && pos.getIndex() == str.length()) {
-            return date;
+            return date.getTime();
         }
-        return null;
+        return LenientDateFormat.INVALID;
     }
     
+    /**
+     * Parse a date with the first pattern that matches. Only the patterns which the shape of the value can possibly match are actually tried, e.g. an epoch
+     * millis value skips every pattern with a separator and a value in the canonical form only tries {@link #ISO_8601_FORMAT_STRING}.
+     *
+     * @param str
+     *            the value to parse
+     * @param parsePatterns
+     *            the patterns, in order of preference
+     * @return the date
+     * @throws ParseException
+     *             if no pattern matches
+     */
     public static Date parseDate(String str, String[] parsePatterns) throws ParseException {
         if (str != null && parsePatterns != null) {
-            for (int i = 0; i < parsePatterns.length; i++) {
-                Date date = parseDate(str, parsePatterns[i]);
-                if (date != null) {
-                    return date;
-                }
+            long millis = parseMillis(str, parsePatterns);
+            if (millis != LenientDateFormat.INVALID) {
+                return new Date(millis);
             }
             
             throw new ParseException("Unable to parse the date: " + str, -1);
@@ -99,63 +251,94 @@ public class DateNormalizer extends AbstractNormalizer<Date> {
         }
     }
     
+    private static long parseMillis(String str, String[] parsePatterns) {
+        LenientDateFormat.Shape shape = new LenientDateFormat.Shape(str);
+        for (int i = 0; i < parsePatterns.length; i++) {
+            LenientDateFormat format = getFormat(parsePatterns[i]);
+            if (format != null && !format.mayMatch(shape)) {
+                continue;
+            }
+            long millis = parseMillis(str, parsePatterns[i], format);
+            if (millis != LenientDateFormat.INVALID) {
+                return millis;
+            }
+        }
+        return LenientDateFormat.INVALID;
+    }
+    
     private Date parseToDate(String fieldValue) {
-        try {
-            Date date = parseDate(fieldValue, FORMAT_STRINGS);
-            if (sanityCheck(date.getTime())) {
-                return date;
+        return new Date(parseToMillis(fieldValue));
+    }
+    
+    private long parseToMillis(String fieldValue) {
+        if (fieldValue == null) {
+            throw new IllegalArgumentException("Date string nor patterns can be null");
+        }
+        long millis = tryParseToMillis(fieldValue);
+        if (millis == LenientDateFormat.INVALID) {
+            throw new IllegalArgumentException("Failed to normalize value as a Date: " + fieldValue);
+        }
+        return millis;
+    }
+    
+    /**
+     * Parse a value with the canonical form, the format strings and finally as epoch millis
+     *
+     * @return the epoch millis, or {@link LenientDateFormat#INVALID} if the value is not a date
+     */
+    private long tryParseToMillis(String fieldValue) {
+        // values already in the canonical form are the most common, and no earlier pattern can match them
+        long millis = Iso8601DateFormat.parse(fieldValue);
+        if (millis != Iso8601DateFormat.INVALID && sanityCheck(millis)) {
+            if (statistics != null) {
+                statistics.recordCanonicalHit();
             }
-        } catch (ParseException e) {
+            return millis;
+        }
+        
+        millis = statistics != null ? statistics.parse(fieldValue) : parseMillis(fieldValue, FORMAT_STRINGS);
+        if (millis == LenientDateFormat.INVALID) {
             if (log.isTraceEnabled()) {
                 log.trace("Failed to normalize value using DateUtils: " + fieldValue);
             }
+        } else if (sanityCheck(millis)) {
+            return millis;
         }
         
         // see if fieldValue looks like a Long value
-        try {
-            boolean valid = true;
-            int size = fieldValue.length();
-            long dateLong = 0;
-            for (int i = 0; i < size; i++) {
-                char c = fieldValue.charAt(i);
-                if (c >= '0' && c <= '9') {
-                    dateLong *= 10;
-                    dateLong += (c - '0');
-                } else {
-                    valid = false;
-                    break;
-                }
+        boolean valid = true;
+        int size = fieldValue.length();
+        long dateLong = 0;
+        for (int i = 0; i < size; i++) {
+            char c = fieldValue.charAt(i);
+            if (c >= '0' && c <= '9') {
+                dateLong *= 10;
+                dateLong += (c - '0');
+            } else {
+                valid = false;
+                break;
             }
-            if (valid && sanityCheck(dateLong)) {
-                return new Date(dateLong);
+        }
+        if (valid && sanityCheck(dateLong)) {
+            if (statistics != null) {
+                statistics.recordEpochMillis();
             }
-        } catch (NumberFormatException e) {
-            // well, it's not a long
+            return dateLong;
         }
         
-        throw new IllegalArgumentException("Failed to normalize value as a Date: " + fieldValue);
-        
+        if (statistics != null) {
+            statistics.recordFailure();
+        }
+        return LenientDateFormat.INVALID;
     }
     
-    private boolean sanityCheck(Long dateLong) {
+    static boolean sanityCheck(long dateLong) {
         // between 1900/01/01 and 2100/12/31
         return -2208970800000L <= dateLong && dateLong < 4133894400000L;
     }
     
-    private Collection<String> formatAll(Date date) {
-        List<String> list = Lists.newArrayList();
-        for (String format : FORMAT_STRINGS) {
-            DateFormat fs = getParser(format);
-            String formatted = fs.format(date);
-            if (formatted != null && !formatted.isEmpty()) {
-                list.add(formatted);
-            }
-        }
-        return list;
-    }
-    
     public String parseToString(Date date) {
-        return getParser(ISO_8601_FORMAT_STRING).format(date);
+        return Iso8601DateFormat.format(date.getTime());
     }
     
     /**
@@ -175,13 +358,47 @@ public class DateNormalizer extends AbstractNormalizer<Date> {
         return parseToDate(in);
     }
     
+    /**
+     * Parse a value just as {@link #denormalize(String)} does, without creating a {@link Date}
+     *
+     * @param in
+     *            the value
+     * @return the epoch millis
+     * @throws IllegalArgumentException
+     *             if the value is not a date
+     */
+    public long denormalizeToMillis(String in) {
+        return parseToMillis(in);
+    }
+    
+    /**
+     * The statistics are not serialized, so an adaptive instance starts over with empty statistics after deserialization
+     */
+    private Object readResolve() {
+        return adaptive && statistics == null ? new DateNormalizer(true) : this;
+    }
+    
+    /**
+     * Expand a date into each of the {@link #FORMAT_STRINGS}. The date is only formatted into a pattern as the result is iterated, and recent expansions are
+     * cached by their epoch millis, since the same boundary dates tend to be expanded over and over again. Each call returns a new mutable view of the cached
+     * values, which copies them on its first write.
+     *
+     * @param dateString
+     *            the date
+     * @return the date in each of the formats
+     */
     @Override
     public Collection<String> expand(String dateString) {
-        Date date = parseToDate(dateString);
-        if (date != null && this.sanityCheck(date.getTime())) {
-            return formatAll(date);
+        return expand(parseToMillis(dateString)).view();
+    }
+    
+    private static DateExpansion expand(long epochMillis) {
+        DateExpansion expansion = expansions.getIfPresent(epochMillis);
+        if (expansion == null || !expansion.isCurrent()) {
+            expansion = new DateExpansion(epochMillis, FORMAT_STRINGS);
+            expansions.put(epochMillis, expansion);
         }
-        return Collections.emptyList();
+        return expansion;
     }
     
 }
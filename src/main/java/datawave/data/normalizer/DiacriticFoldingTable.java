@@ -0,0 +1,168 @@
+package datawave.data.normalizer;
+
+import java.text.Normalizer;
+import java.text.Normalizer.Form;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * A precomputed folding table for the Basic Multilingual Plane which maps each char to its lower cased, diacritic free, composed form as produced by the
+ * {@link LcNoDiacriticsNormalizer}. The table is generated once per JVM from the running JDK's own {@link Normalizer}, so the folded output matches the
+ * decompose/strip/recompose/lower case sequence exactly.
+ * <p>
+ * Chars whose result depends on their neighbors (combining marks that may compose with a preceding char, Hangul jamo, the context sensitive capital sigma,
+ * surrogates) or whose folded form is longer than one char are marked as complex. Values containing a complex char must be folded with
+ * {@link #foldWithNormalizer(String)}.
+ */
+final class DiacriticFoldingTable {
+    
+    /**
+     * Marker for chars which cannot be folded on their own. A lone high surrogate is never the folded form of a simple char, so it is safe to use as a marker.
+     */
+    static final char COMPLEX = '\uD800';
+    
+    /**
+     * Marker for chars which fold to nothing, i.e. the combining diacritical marks themselves
+     */
+    static final char REMOVED = '\uD801';
+    
+    private static final Pattern diacriticals = Pattern.compile("\\p{InCombiningDiacriticalMarks}");
+    
+    private static final char[] table = buildTable();
+    
+    private DiacriticFoldingTable() {
+        // static access only
+    }
+    
+    /**
+     * Get the folded form of a single char
+     *
+     * @param c
+     *            the char to fold
+     * @return the folded char, {@link #REMOVED} if the char folds to nothing, or {@link #COMPLEX} if the char cannot be folded on its own
+     */
+    static char fold(char c) {
+        return table[c];
+    }
+    
+    /**
+     * Fold a value in a single pass over the table. If no char changes then the original value is returned without copying.
+     *
+     * @param value
+     *            the value to fold
+     * @return the folded value, or null if the value contains a complex char
+     */
+    static String fold(String value) {
+        int length = value.length();
+        int i = 0;
+        // skip over the prefix which is already in its folded form
+        for (; i < length; i++) {
+            char c = value.charAt(i);
+            char folded = table[c];
+            if (folded == COMPLEX) {
+                return null;
+            } else if (folded != c) {
+                break;
+            }
+        }
+        if (i == length) {
+            return value;
+        }
+        
+        char[] buffer = new char[length];
+        value.getChars(0, i, buffer, 0);
+        int pos = i;
+        for (; i < length; i++) {
+            char folded = table[value.charAt(i)];
+            if (folded == COMPLEX) {
+                return null;
+            } else if (folded != REMOVED) {
+                buffer[pos++] = folded;
+            }
+        }
+        return new String(buffer, 0, pos);
+    }
+    
+    /**
+     * Fold a value using the full {@link Normalizer} decompose/strip/recompose/lower case sequence
+     *
+     * @param value
+     *            the value to fold
+     * @return the folded value
+     */
+    static String foldWithNormalizer(String value) {
+        return removeDiacriticalMarksAndRecompose(value).toLowerCase(Locale.ENGLISH);
+    }
+    
+    /**
+     * Perform the {@link Form#NFD} decomposition, diacritical mark removal, and {@link Form#NFC} recomposition steps
+     *
+     * @param value
+     *            the value
+     * @return the value without diacritical marks
+     */
+    static String removeDiacriticalMarksAndRecompose(String value) {
+        String decomposed = Normalizer.normalize(value, Form.NFD);
+        String noDiacriticals = diacriticals.matcher(decomposed).replaceAll("");
+        return Normalizer.normalize(noDiacriticals, Form.NFC);
+    }
+    
+    private static char[] buildTable() {
+        char[] table = new char[Character.MAX_VALUE + 1];
+        for (int i = 0; i <= Character.MAX_VALUE; i++) {
+            char c = (char) i;
+            if (isContextSensitive(c)) {
+                table[i] = COMPLEX;
+                continue;
+            }
+            if (c >= '\u0300' && c <= '\u036F') {
+                table[i] = REMOVED;
+                continue;
+            }
+            // precomposed Hangul syllables decompose into jamo and recompose to themselves
+            if (c >= '\uAC00' && c <= '\uD7A3') {
+                table[i] = c;
+                continue;
+            }
+            String value = String.valueOf(c);
+            if (Normalizer.isNormalized(value, Form.NFD)) {
+                // nothing to decompose, strip or recompose, and the only single char with a multi char lower case form (U+0130) has a decomposition
+                table[i] = Character.toLowerCase(c);
+                continue;
+            }
+            String folded = foldWithNormalizer(value);
+            if (folded.isEmpty()) {
+                table[i] = REMOVED;
+            } else if (folded.length() == 1) {
+                table[i] = folded.charAt(0);
+            } else {
+                table[i] = COMPLEX;
+            }
+        }
+        return table;
+    }
+    
+    /**
+     * Determine whether the folded form of a char may depend on the chars around it. The combining diacritical marks are removed regardless of context and are
+     * therefore not context sensitive.
+     */
+    private static boolean isContextSensitive(char c) {
+        if (Character.isSurrogate(c)) {
+            return true;
+        }
+        // the lower case form of a capital sigma depends on whether it ends a word
+        if (c == '\u03A3') {
+            return true;
+        }
+        // Hangul leading, vowel and trailing jamo compose with each other
+        if (c >= '\u1100' && c <= '\u11FF') {
+            return true;
+        }
+        if (c >= '\u0300' && c <= '\u036F') {
+            return false;
+        }
+        // any other mark may compose with the char before it
+        int type = Character.getType(c);
+        return type == Character.NON_SPACING_MARK || type == Character.COMBINING_SPACING_MARK || type == Character.ENCLOSING_MARK;
+    }
+}
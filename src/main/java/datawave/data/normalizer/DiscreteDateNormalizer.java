@@ -0,0 +1,178 @@
+package datawave.data.normalizer;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.TimeZone;
+
+/**
+ * A {@link DateNormalizer} which truncates dates to a fixed granularity, so that the normalized values are discrete buckets of the fixed length
+ * {@link #ISO_8601_FORMAT_STRING} form. The buckets are aligned to the wall clock of the default time zone, just like the normalized form itself, so a day
+ * bucket always starts at local midnight.
+ * <p>
+ * Incrementing, decrementing and discretizing work on the wall clock time written in the index, without reference to any time zone. Around a daylight saving
+ * change this may produce a bucket which no value is ever normalized to, which is harmless in a range.
+ */
+public class DiscreteDateNormalizer extends DateNormalizer implements DiscreteIndexNormalizer<Date> {
+    
+    private static final long serialVersionUID = 7370398718473902215L;
+    
+    // the index holds wall clock time, so buckets are computed without a time zone offset
+    private static final TimeZone WALL_CLOCK = TimeZone.getTimeZone("GMT");
+    
+    /**
+     * The size of the buckets dates are truncated to
+     */
+    public enum Granularity {
+        SECOND(1000L), MINUTE(LenientDateFormat.MILLIS_PER_MINUTE), HOUR(LenientDateFormat.MILLIS_PER_HOUR), DAY(LenientDateFormat.MILLIS_PER_DAY);
+        
+        private final long millis;
+        
+        Granularity(long millis) {
+            this.millis = millis;
+        }
+        
+        /**
+         * Get the length of a bucket
+         *
+         * @return the length in millis
+         */
+        public long getMillis() {
+            return millis;
+        }
+    }
+    
+    private final Granularity granularity;
+    
+    public DiscreteDateNormalizer() {
+        this(Granularity.DAY);
+    }
+    
+    public DiscreteDateNormalizer(Granularity granularity) {
+        if (granularity == null) {
+            throw new IllegalArgumentException("Granularity can not be null");
+        }
+        this.granularity = granularity;
+    }
+    
+    public Granularity getGranularity() {
+        return granularity;
+    }
+    
+    @Override
+    public String normalize(String fieldValue) {
+        return normalize(denormalizeToMillis(fieldValue));
+    }
+    
+    @Override
+    public String normalize(long epochMillis) {
+        long local = epochMillis + TimeZone.getDefault().getOffset(epochMillis);
+        long start = Math.floorDiv(local, granularity.millis) * granularity.millis;
+        String bucket = format(start);
+        return bucket != null ? bucket : super.normalize(epochMillis - (local - start));
+    }
+    
+    @Override
+    public String normalizeDelegateType(Date delegateIn) {
+        return normalize(delegateIn.getTime());
+    }
+    
+    @Override
+    public String parseToString(Date date) {
+        return normalize(date.getTime());
+    }
+    
+    /**
+     * Get the index after the given one, which is the start of the next bucket
+     *
+     * @param index
+     *            an index in the {@link #ISO_8601_FORMAT_STRING} form
+     * @return the next index, or the given one if it is not in that form or the next index would fall outside the years the fixed length form covers
+     */
+    @Override
+    public String incrementIndex(String index) {
+        long local = parseIndex(index);
+        if (local == Iso8601DateFormat.INVALID) {
+            return index;
+        }
+        long bucket = Math.floorDiv(local, granularity.millis) + 1;
+        String next = format(bucket * granularity.millis);
+        return next != null ? next : index;
+    }
+    
+    /**
+     * Get the index before the given one, which is the start of the previous bucket
+     *
+     * @param index
+     *            an index in the {@link #ISO_8601_FORMAT_STRING} form
+     * @return the previous index, or the given one if it is not in that form or the previous index would fall outside the years the fixed length form covers
+     */
+    @Override
+    public String decrementIndex(String index) {
+        long local = parseIndex(index);
+        if (local == Iso8601DateFormat.INVALID) {
+            return index;
+        }
+        long bucket = -Math.floorDiv(-local, granularity.millis) - 1;
+        String previous = format(bucket * granularity.millis);
+        return previous != null ? previous : index;
+    }
+    
+    /**
+     * Get the start of every bucket which overlaps the range. Note that this is one index per bucket, so a wide range at a fine granularity produces a long
+     * list.
+     *
+     * @param beginIndex
+     *            the start of the range in the {@link #ISO_8601_FORMAT_STRING} form
+     * @param endIndex
+     *            the end of the range in the {@link #ISO_8601_FORMAT_STRING} form
+     * @return the buckets from the one containing beginIndex up to and including the one containing endIndex, or the range as is if either end is not in
+     *         that form
+     */
+    @Override
+    public List<String> discretizeRange(String beginIndex, String endIndex) {
+        List<String> discreteIndices = new ArrayList<>();
+        if (beginIndex.compareTo(endIndex) <= 0) {
+            long beginLocal = (beginIndex.length() == endIndex.length() ? parseIndex(beginIndex) : Iso8601DateFormat.INVALID);
+            long endLocal = (beginLocal != Iso8601DateFormat.INVALID ? parseIndex(endIndex) : Iso8601DateFormat.INVALID);
+            if (endLocal != Iso8601DateFormat.INVALID) {
+                long begin = Math.floorDiv(beginLocal, granularity.millis);
+                long end = Math.floorDiv(endLocal, granularity.millis);
+                for (long bucket = begin; bucket <= end; bucket++) {
+                    String index = format(bucket * granularity.millis);
+                    if (index != null) {
+                        discreteIndices.add(index);
+                    }
+                }
+            } else {
+                discreteIndices.add(beginIndex);
+                discreteIndices.add(endIndex);
+            }
+        }
+        return discreteIndices;
+    }
+    
+    @Override
+    public boolean producesFixedLengthRanges() {
+        return true;
+    }
+    
+    /**
+     * Parse an index as wall clock millis
+     *
+     * @return the millis, or {@link Iso8601DateFormat#INVALID} if the index is not in the {@link #ISO_8601_FORMAT_STRING} form
+     */
+    private static long parseIndex(String index) {
+        return Iso8601DateFormat.parse(index, WALL_CLOCK);
+    }
+    
+    /**
+     * Format wall clock millis
+     *
+     * @return the index, or null if the date is outside the years the fixed length form covers
+     */
+    private static String format(long local) {
+        StringBuilder builder = new StringBuilder(Iso8601DateFormat.LENGTH);
+        return Iso8601DateFormat.append(local, WALL_CLOCK, builder) ? builder.toString() : null;
+    }
+}
@@ -70,20 +70,72 @@ public class GeoNormalizer extends AbstractNormalizer<String> {
      */
     @Override
     public String normalize(String fieldValue) throws IllegalArgumentException {
-        String normalized = fieldValue;
-        if (!isNormalized(fieldValue)) {
-            int split = findSplit(fieldValue);
-            if (split > 0) {
-                try {
-                    normalized = combineLatLon(fieldValue.substring(0, split), fieldValue.substring(split + 1));
-                } catch (Exception e) {
-                    throw new IllegalArgumentException("Failed to normalize value as a Geo: " + fieldValue);
-                }
-            } else {
-                throw new IllegalArgumentException("Failed to normalize value as a Geo: " + fieldValue);
+        NormalizationResult result = tryNormalize(fieldValue);
+        if (!result.isSuccess()) {
+            throw new IllegalArgumentException("Failed to normalize value as a Geo: " + fieldValue);
+        }
+        return result.getValue();
+    }
+    
+    /**
+     * Normalize a value without building an exception for the usual invalid values: those without a delimiter, those with a side which no number can be
+     * written with, and those out of range. Only a value which looks like a point but still fails to parse costs an exception along the way. This is the one
+     * parsing path, which {@link #normalize(String)} throws on the failures of.
+     */
+    @Override
+    public NormalizationResult tryNormalize(String fieldValue) {
+        if (fieldValue == null) {
+            return NormalizationResult.FAILED;
+        }
+        if (isNormalized(fieldValue)) {
+            return NormalizationResult.of(fieldValue);
+        }
+        int split = findSplit(fieldValue);
+        if (split <= 0 || !mayBeLatOrLon(fieldValue.substring(0, split)) || !mayBeLatOrLon(fieldValue.substring(split + 1))) {
+            return NormalizationResult.FAILED;
+        }
+        double lat;
+        double lon;
+        try {
+            lat = parseLatOrLon(fieldValue.substring(0, split));
+            lon = parseLatOrLon(fieldValue.substring(split + 1));
+        } catch (Exception e) {
+            return NormalizationResult.FAILED;
+        }
+        if (lat < -90.0 || lat > 90.0 || lon < -180.0 || lon > 180.0) {
+            return NormalizationResult.FAILED;
+        }
+        try {
+            return NormalizationResult.of(combineLatLon(lat, lon));
+        } catch (Exception e) {
+            return NormalizationResult.FAILED;
+        }
+    }
+    
+    /**
+     * Normalize a batch of points, parsing each distinct point only once
+     */
+    @Override
+    public int normalizeAll(String[] in, String[] out) {
+        return BatchNormalization.normalizeAll(in, out, this::tryNormalize, true);
+    }
+    
+    /**
+     * Determine whether {@link #parseLatOrLon(String)} could possibly parse a value. Other than an encoded number, a latitude or longitude only contains
+     * digits, signs, decimal points, exponents, ':' separated degrees, minutes and seconds, the n, s, e and w designators, and the letters of the other forms
+     * {@link Double#parseDouble(String)} accepts, such as hex floats and "Infinity".
+     */
+    private static boolean mayBeLatOrLon(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c <= ' ' || (c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F')) {
+                continue;
+            }
+            if (DOUBLE_CHARS.indexOf(c) < 0) {
+                return NumericalEncoder.isPossiblyEncoded(value.trim());
             }
         }
-        return normalized;
+        return true;
     }
     
     /**
@@ -131,6 +183,9 @@ public class GeoNormalizer extends AbstractNormalizer<String> {
     
     private static final List<Character> DMS_DESIGNATORS = Arrays.asList('n', 's', 'e', 'w');
     
+    // the characters other than digits, hex digits and whitespace which a latitude or longitude may contain
+    private static final String DOUBLE_CHARS = ".+-:nNsSwWiItTyYxXpP";
+    
     public static double parseLatOrLon(String value) throws ParseException {
         value = value.trim();
         
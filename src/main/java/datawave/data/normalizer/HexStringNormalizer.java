@@ -45,9 +45,46 @@ public class HexStringNormalizer extends AbstractNormalizer<String> {
     
     @Override
     public String normalize(String fieldValue) {
-        Matcher matcher = validate(fieldValue);
-        
-        return getNormalizedHex(matcher.group(2));
+        if (StringUtils.isEmpty(fieldValue)) {
+            logAndThrow("Field may not be null or empty.");
+        }
+        NormalizationResult result = tryNormalize(fieldValue);
+        if (!result.isSuccess()) {
+            // already logged
+            throw new IllegalArgumentException(String.format("Failed to normalize hex value : %s.", fieldValue));
+        }
+        return result.getValue();
+    }
+    
+    @Override
+    public NormalizationResult tryNormalize(String fieldValue) {
+        return tryNormalize(fieldValue, pattern.matcher(""));
+    }
+    
+    /**
+     * Normalize a batch of values with one {@link Matcher}, reset for each value
+     */
+    @Override
+    public int normalizeAll(String[] in, String[] out) {
+        Matcher matcher = pattern.matcher("");
+        return BatchNormalization.normalizeAll(in, out, value -> tryNormalize(value, matcher), false);
+    }
+    
+    /**
+     * Normalize a value with a given matcher. This is the one parsing path, which {@link #normalize(String)} throws on the failures of.
+     */
+    private NormalizationResult tryNormalize(String fieldValue, Matcher matcher) {
+        if (StringUtils.isEmpty(fieldValue)) {
+            return NormalizationResult.FAILED;
+        }
+        matcher.reset(fieldValue);
+        if (!matcher.matches()) {
+            if (log.isDebugEnabled()) {
+                log.debug(String.format("Failed to normalize hex value : %s.", fieldValue));
+            }
+            return NormalizationResult.FAILED;
+        }
+        return NormalizationResult.of(getNormalizedHex(matcher.group(2)));
     }
     
     private void logAndThrow(String msg) {
@@ -1,22 +1,72 @@
 package datawave.data.normalizer;
 
-import org.apache.commons.net.util.SubnetUtils;
+import java.util.ArrayList;
+import java.util.List;
 
+import datawave.data.type.util.Cidr;
 import datawave.data.type.util.IpAddress;
+import datawave.data.type.util.IpAddressRange;
 import datawave.query.parser.JavaRegexAnalyzer;
 import datawave.query.parser.JavaRegexAnalyzer.JavaRegexParseException;
 
-public class IpAddressNormalizer extends AbstractNormalizer<IpAddress> {
+/**
+ * Normalizes IpV4 and IpV6 addresses to their zero padded forms. Those forms are of a fixed length for each family, which makes the addresses discrete index
+ * values that can be combined into composite ranges.
+ */
+public class IpAddressNormalizer extends AbstractNormalizer<IpAddress> implements DiscreteIndexNormalizer<IpAddress> {
     
     private static final long serialVersionUID = 8604032745289485764L;
     
+    /**
+     * The most addresses {@link #discretizeRange(String, String)} lists, above which a range is returned as is
+     */
+    public static final int MAX_DISCRETE_INDICES = 1 << 16;
+    
     public String normalize(String fieldValue) {
-        try {
-            fieldValue = fieldValue.replaceAll(" ", "");
-            return IpAddress.parse(fieldValue).toZeroPaddedString();
-        } catch (IllegalArgumentException iae) {
-            throw new IpAddressNormalizer.Exception("Failed to normalize " + fieldValue + " as an IP");
+        String normalized = normalizeOrNull(fieldValue);
+        if (normalized == null) {
+            throw new IpAddressNormalizer.Exception("Failed to normalize " + removeSpaces(fieldValue) + " as an IP");
         }
+        return normalized;
+    }
+    
+    @Override
+    public NormalizationResult tryNormalize(String fieldValue) {
+        return fieldValue == null ? NormalizationResult.FAILED : NormalizationResult.ofNullable(normalizeOrNull(fieldValue));
+    }
+    
+    /**
+     * Normalize a batch of addresses, parsing each distinct address only once
+     */
+    @Override
+    public int normalizeAll(String[] in, String[] out) {
+        return BatchNormalization.normalizeAll(in, out, this::tryNormalize, true);
+    }
+    
+    /**
+     * Normalize an address, ignoring any spaces, without throwing an exception for a value which is not an address
+     * 
+     * @param fieldValue
+     *            the value
+     * @return the normalized address, or null if the value is not an address
+     */
+    static String normalizeOrNull(String fieldValue) {
+        IpAddress address = IpAddress.tryParse(removeSpaces(fieldValue));
+        return (address == null ? null : address.toZeroPaddedString());
+    }
+    
+    private static String removeSpaces(String value) {
+        if (value.indexOf(' ') < 0) {
+            return value;
+        }
+        StringBuilder builder = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c != ' ') {
+                builder.append(c);
+            }
+        }
+        return builder.toString();
     }
     
     /**
@@ -30,11 +80,37 @@ public class IpAddressNormalizer extends AbstractNormalizer<IpAddress> {
         }
     }
     
+    /**
+     * Get the normalized first and last addresses of an IpV4 or IpV6 CIDR block
+     * 
+     * @param cidr
+     *            the block, such as 10.1.0.0/16
+     * @return the normalized first and last addresses
+     */
     public String[] normalizeCidrToRange(String cidr) {
-        SubnetUtils subnetUtils = new SubnetUtils(cidr);
-        subnetUtils.setInclusiveHostCount(true);
-        SubnetUtils.SubnetInfo info = subnetUtils.getInfo();
-        return new String[] {normalize(info.getLowAddress()), normalize(info.getHighAddress())};
+        Cidr block = Cidr.parse(cidr);
+        return new String[] {block.getStartIp().toZeroPaddedString(), block.getEndIp().toZeroPaddedString()};
+    }
+    
+    /**
+     * Get the fewest normalized ranges which cover a set of IpV4 and IpV6 CIDR blocks, merging the blocks which overlap or are adjacent
+     * 
+     * @param cidrs
+     *            the blocks, in any order
+     * @return the normalized first and last addresses of each range, sorted by first address
+     */
+    public List<String[]> normalizeCidrsToRanges(Iterable<String> cidrs) {
+        List<Cidr> blocks = new ArrayList<>();
+        for (String cidr : cidrs) {
+            blocks.add(Cidr.parse(cidr));
+        }
+        List<String[]> ranges = new ArrayList<>();
+        for (IpAddressRange range : IpAddressRange.merge(blocks)) {
+            ranges.add(new String[] {range.getStartIp().toZeroPaddedString(), range.getEndIp().toZeroPaddedString()});
+        }
+        // keep the ranges in key order, as the normalized forms of the two families interleave
+        ranges.sort((left, right) -> left[0].compareTo(right[0]));
+        return ranges;
     }
     
     @Override
@@ -47,6 +123,88 @@ public class IpAddressNormalizer extends AbstractNormalizer<IpAddress> {
         return IpAddress.parse(in);
     }
     
+    /**
+     * Increments a normalized address to the next address of the same family. The last address of a family is returned unchanged.
+     * 
+     * @param index
+     *            the normalized address
+     * @return the normalized next address, or the given index if it is not an address or contains a wildcard
+     */
+    @Override
+    public String incrementIndex(String index) {
+        IpAddress address = parseIndex(index);
+        return address == null ? index : adjacentIndex(index, address.getNextIp());
+    }
+    
+    /**
+     * Decrements a normalized address to the previous address of the same family. The first address of a family is returned unchanged.
+     * 
+     * @param index
+     *            the normalized address
+     * @return the normalized previous address, or the given index if it is not an address or contains a wildcard
+     */
+    @Override
+    public String decrementIndex(String index) {
+        IpAddress address = parseIndex(index);
+        return address == null ? index : adjacentIndex(index, address.getPreviousIp());
+    }
+    
+    /**
+     * Parse an index which is a single address
+     *
+     * @return the address, or null if the index is not an address or contains a wildcard
+     */
+    private static IpAddress parseIndex(String index) {
+        return (index.indexOf('*') < 0 ? IpAddress.tryParse(index) : null);
+    }
+    
+    private static String adjacentIndex(String index, IpAddress adjacent) {
+        if (adjacent == null) {
+            return index;
+        }
+        String adjacentIndex = adjacent.toZeroPaddedString();
+        return (adjacentIndex.length() != index.length()) ? index : adjacentIndex;
+    }
+    
+    /**
+     * Get every normalized address from the beginning to the end of a range, inclusive. The addresses are stepped through in their primitive form, so a
+     * range is only parsed once however many addresses it holds. A range which spans both families, has an end which is not an address, or holds more than
+     * {@link #MAX_DISCRETE_INDICES} addresses is returned as is, so a wide range never explodes into a list of every address in it.
+     * 
+     * @param beginIndex
+     *            the normalized first address
+     * @param endIndex
+     *            the normalized last address
+     * @return the normalized addresses of the range
+     */
+    @Override
+    public List<String> discretizeRange(String beginIndex, String endIndex) {
+        List<String> discreteIndices = new ArrayList<>();
+        if (beginIndex.compareTo(endIndex) <= 0) {
+            IpAddress begin = (beginIndex.length() == endIndex.length() ? parseIndex(beginIndex) : null);
+            IpAddress end = (begin != null ? parseIndex(endIndex) : null);
+            if (end != null && begin.getClass() == end.getClass()) {
+                for (IpAddress next = begin; next != null && next.compareTo(end) <= 0; next = next.getNextIp()) {
+                    if (discreteIndices.size() == MAX_DISCRETE_INDICES) {
+                        discreteIndices.clear();
+                        break;
+                    }
+                    discreteIndices.add(next.toZeroPaddedString());
+                }
+            }
+            if (discreteIndices.isEmpty()) {
+                discreteIndices.add(beginIndex);
+                discreteIndices.add(endIndex);
+            }
+        }
+        return discreteIndices;
+    }
+    
+    @Override
+    public boolean producesFixedLengthRanges() {
+        return true;
+    }
+    
     public static class Exception extends IllegalArgumentException {
         public Exception(String message) {
             super(message);
@@ -0,0 +1,194 @@
+package datawave.data.normalizer;
+
+import java.util.TimeZone;
+
+/**
+ * A parser and formatter for exactly the canonical date form {@link DateNormalizer#ISO_8601_FORMAT_STRING}, working directly on epoch millis. Formatting writes
+ * the digits straight into the builder or the string being built, and parsing reads them straight from the value, so neither creates any intermediate strings.
+ * The methods without a time zone look the default time zone up on every call, so that {@link TimeZone#setDefault(TimeZone)} takes effect at once, and
+ * {@link TimeZone#getDefault()} returns a copy of the default zone each time; callers formatting or parsing many values can pass the zone instead.
+ * <p>
+ * Just as the canonical form always has been, values are formatted in the default time zone even though they end with a literal 'Z'. The output is identical to
+ * that of a {@link java.text.SimpleDateFormat} with the same pattern; dates before the Gregorian cutover or after the year 9999 are rare enough that they are
+ * handed to the general {@link LenientDateFormat}.
+ */
+public final class Iso8601DateFormat {
+    
+    /**
+     * The length of a date in the canonical form
+     */
+    public static final int LENGTH = 24;
+    
+    /**
+     * Returned by {@link #parse(CharSequence)} when a value is not in the canonical form
+     */
+    public static final long INVALID = Long.MIN_VALUE;
+    
+    private static final LenientDateFormat general = LenientDateFormat.compile(DateNormalizer.ISO_8601_FORMAT_STRING);
+    
+    // 10000-01-01
+    private static final long MAXIMUM_EPOCH_DAY = 2932897L;
+    
+    private Iso8601DateFormat() {
+        // static access only
+    }
+    
+    /**
+     * Format epoch millis in the default time zone
+     *
+     * @param epochMillis
+     *            the epoch millis
+     * @return the canonical form
+     */
+    public static String format(long epochMillis) {
+        return format(epochMillis, TimeZone.getDefault(), new StringBuilder(LENGTH)).toString();
+    }
+    
+    /**
+     * Append the canonical form of epoch millis in the default time zone
+     *
+     * @param epochMillis
+     *            the epoch millis
+     * @param builder
+     *            the builder to append to
+     * @return the builder
+     */
+    public static StringBuilder format(long epochMillis, StringBuilder builder) {
+        return format(epochMillis, TimeZone.getDefault(), builder);
+    }
+    
+    /**
+     * Append the canonical form of epoch millis in a time zone
+     *
+     * @param epochMillis
+     *            the epoch millis
+     * @param zone
+     *            the time zone to format in
+     * @param builder
+     *            the builder to append to
+     * @return the builder
+     */
+    public static StringBuilder format(long epochMillis, TimeZone zone, StringBuilder builder) {
+        if (!append(epochMillis, zone, builder)) {
+            builder.append(general.format(epochMillis, zone));
+        }
+        return builder;
+    }
+    
+    /**
+     * Append the canonical form of epoch millis, writing the digits straight into the builder
+     *
+     * @param epochMillis
+     *            the epoch millis
+     * @param zone
+     *            the time zone to format in
+     * @param builder
+     *            the builder to append to
+     * @return false if the date is before the Gregorian cutover or after the year 9999, in which case nothing is appended
+     */
+    static boolean append(long epochMillis, TimeZone zone, StringBuilder builder) {
+        long local = epochMillis + zone.getOffset(epochMillis);
+        long epochDay = Math.floorDiv(local, LenientDateFormat.MILLIS_PER_DAY);
+        if (epochDay < LenientDateFormat.GREGORIAN_CUTOVER_DAY || epochDay >= MAXIMUM_EPOCH_DAY) {
+            return false;
+        }
+        int date = toDate(epochDay);
+        int millisOfDay = (int) (local - epochDay * LenientDateFormat.MILLIS_PER_DAY);
+        builder.ensureCapacity(builder.length() + LENGTH);
+        append(builder, date / 10000, 1000).append('-');
+        append(builder, (date / 100) % 100, 10).append('-');
+        append(builder, date % 100, 10).append('T');
+        append(builder, millisOfDay / 3600000, 10).append(':');
+        append(builder, (millisOfDay / 60000) % 60, 10).append(':');
+        append(builder, (millisOfDay / 1000) % 60, 10).append('.');
+        append(builder, millisOfDay % 1000, 100).append('Z');
+        return true;
+    }
+    
+    /**
+     * Get the Gregorian date of an epoch day
+     *
+     * @return the date as year * 10000 + month * 100 + day
+     */
+    private static int toDate(long epochDay) {
+        // the year starts in March so the leap day is last
+        long z = epochDay + 719468;
+        long era = Math.floorDiv(z, 146097L);
+        int dayOfEra = (int) (z - era * 146097);
+        int yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        int dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        int mp = (5 * dayOfYear + 2) / 153;
+        int day = dayOfYear - (153 * mp + 2) / 5 + 1;
+        int month = mp < 10 ? mp + 3 : mp - 9;
+        int year = (int) (yearOfEra + era * 400) + (month <= 2 ? 1 : 0);
+        return year * 10000 + month * 100 + day;
+    }
+    
+    /**
+     * Append the digits of a value, zero padded to the number of digits of the divisor
+     */
+    private static StringBuilder append(StringBuilder builder, int value, int divisor) {
+        for (; divisor > 0; divisor /= 10) {
+            builder.append((char) ('0' + (value / divisor) % 10));
+        }
+        return builder;
+    }
+    
+    /**
+     * Parse a value in the canonical form in the default time zone
+     *
+     * @param text
+     *            the value
+     * @return the epoch millis, or {@link #INVALID} if the value is not exactly in the canonical form
+     */
+    public static long parse(CharSequence text) {
+        return parse(text, TimeZone.getDefault());
+    }
+    
+    /**
+     * Parse a value in the canonical form. Out of range fields roll over just as they do with the lenient {@link DateNormalizer} formats, so the result is
+     * always the same as parsing with the {@link DateNormalizer#ISO_8601_FORMAT_STRING} pattern.
+     *
+     * @param text
+     *            the value
+     * @param zone
+     *            the time zone to parse in
+     * @return the epoch millis, or {@link #INVALID} if the value is not exactly in the canonical form
+     */
+    public static long parse(CharSequence text, TimeZone zone) {
+        if (text.length() != LENGTH || text.charAt(4) != '-' || text.charAt(7) != '-' || text.charAt(10) != 'T' || text.charAt(13) != ':'
+                        || text.charAt(16) != ':' || text.charAt(19) != '.' || text.charAt(23) != 'Z') {
+            return INVALID;
+        }
+        int year = read(text, 0, 4);
+        int month = read(text, 5, 2);
+        int day = read(text, 8, 2);
+        int hour = read(text, 11, 2);
+        int minute = read(text, 14, 2);
+        int second = read(text, 17, 2);
+        int millis = read(text, 20, 3);
+        if ((year | month | day | hour | minute | second | millis) < 0) {
+            return INVALID;
+        }
+        long local = LenientDateFormat.toEpochDay(year, month, day) * LenientDateFormat.MILLIS_PER_DAY + hour * LenientDateFormat.MILLIS_PER_HOUR
+                        + minute * LenientDateFormat.MILLIS_PER_MINUTE + second * 1000L + millis;
+        return local - LenientDateFormat.wallOffset(zone, local);
+    }
+    
+    /**
+     * Read a fixed number of digits
+     *
+     * @return the value, or -1 if a char is not a digit
+     */
+    private static int read(CharSequence text, int offset, int length) {
+        int value = 0;
+        for (int i = offset; i < offset + length; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+}
@@ -3,8 +3,6 @@ package datawave.data.normalizer;
 import java.text.Normalizer;
 import java.text.Normalizer.Form;
 import java.util.Locale;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import datawave.query.parser.JavaRegexAnalyzer;
 import datawave.query.parser.JavaRegexAnalyzer.JavaRegexParseException;
@@ -17,33 +15,29 @@ import datawave.query.parser.JavaRegexAnalyzer.JavaRegexParseException;
  * <li>Unicode canonical composition ({@link Form#NFC})</li>
  * <li>lower casing in the {@link Locale#ENGLISH English local}
  * </ol>
+ * Values are folded one char at a time using a {@link DiacriticFoldingTable} precomputed from the same steps. Only values containing chars which the table
+ * marks as complex go through the {@link Normalizer}.
  */
 public class LcNoDiacriticsNormalizer extends AbstractNormalizer<String> {
     private static final long serialVersionUID = -7922074256473963293L;
-    private static final Pattern diacriticals = Pattern.compile("\\p{InCombiningDiacriticalMarks}");
     
     public String normalize(String fieldValue) {
         if (null == fieldValue) {
             return null;
         }
-        String decomposed = Normalizer.normalize(fieldValue, Form.NFD);
-        String noDiacriticals = removeDiacriticalMarks(decomposed);
-        String recomposed = Normalizer.normalize(noDiacriticals, Form.NFC);
-        return recomposed.toLowerCase(Locale.ENGLISH);
-    }
-    
-    private String removeDiacriticalMarks(String str) {
-        Matcher matcher = diacriticals.matcher(str);
-        return matcher.replaceAll("");
+        // single pass over the precomputed folding table, falling back to the full normalizer for context sensitive chars
+        String folded = DiacriticFoldingTable.fold(fieldValue);
+        if (folded == null) {
+            folded = DiacriticFoldingTable.foldWithNormalizer(fieldValue);
+        }
+        return folded;
     }
     
     public String normalizeRegex(String fieldRegex) {
         if (null == fieldRegex) {
             return null;
         }
-        String decomposed = Normalizer.normalize(fieldRegex, Form.NFD);
-        String noDiacriticals = removeDiacriticalMarks(decomposed);
-        String recomposed = Normalizer.normalize(noDiacriticals, Form.NFC);
+        String recomposed = DiacriticFoldingTable.removeDiacriticalMarksAndRecompose(fieldRegex);
         try {
             JavaRegexAnalyzer regex = new JavaRegexAnalyzer(recomposed);
             regex.applyRegexCaseSensitivity(false);
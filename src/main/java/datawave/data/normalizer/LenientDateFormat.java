@@ -0,0 +1,875 @@
+package datawave.data.normalizer;
+
+import java.text.DateFormatSymbols;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.TimeZone;
+
+/**
+ * An immutable and thread safe replacement for a lenient {@link SimpleDateFormat}, limited to the pattern letters used by the {@link DateNormalizer}: y (three
+ * or more letters), M, d, H, m, s, S, E, z and X. A single instance can be shared by all threads.
+ * <p>
+ * Parsing follows the SimpleDateFormat rules: spaces and tabs before a numeric field are skipped, numeric fields take all available digits unless they are
+ * directly followed by another numeric field, month and day names are matched case insensitively in their long or short form, the day of the week is not
+ * checked against the date, and out of range or negative values roll over into the next field. Numeric fields take the decimal digits of any script, as a
+ * {@link java.text.DecimalFormat} does, while time zone offsets only take ASCII digits. Exponents are not accepted. Dates before the Gregorian cutover use the
+ * Julian calendar as {@link java.util.GregorianCalendar} does. Fields without a time zone are interpreted in the default
+ * time zone, and formatting is always done in the default time zone.
+ * <p>
+ * Each format also derives a few necessary conditions on the shape of a value from its pattern, such as the chars it may contain and the literals it must start
+ * and end with. {@link #mayMatch(Shape)} checks these without parsing, so a caller trying several formats in turn can skip the ones that cannot match.
+ */
+final class LenientDateFormat {
+    
+    /**
+     * Returned by {@link #parse(String)} when the value does not match the pattern
+     */
+    static final long INVALID = Long.MIN_VALUE;
+    
+    private static final String SUPPORTED_LETTERS = "yMdHmsSEzX";
+    private static final String GMT = "GMT";
+    
+    static final long MILLIS_PER_DAY = 86400000L;
+    static final long MILLIS_PER_HOUR = 3600000L;
+    static final long MILLIS_PER_MINUTE = 60000L;
+    
+    // 1582-10-15, the first day of the Gregorian calendar
+    static final long GREGORIAN_CUTOVER_DAY = -141427L;
+    
+    private static final int WALL_TIME = Integer.MIN_VALUE;
+    
+    private static volatile Symbols symbols = new Symbols(Locale.getDefault(Locale.Category.FORMAT));
+    
+    private final String pattern;
+    private final Field[] fields;
+    
+    // necessary conditions on the shape of a matching value
+    private final int minLength;
+    private final boolean anyChars;
+    private final long allowedLow;
+    private final long allowedHigh;
+    private final String prefix;
+    private final String suffix;
+    private final String literalChars;
+    private final boolean startsWithNumber;
+    private final boolean endsWithNumber;
+    
+    private LenientDateFormat(String pattern, Field[] fields) {
+        this.pattern = pattern;
+        this.fields = fields;
+        
+        int length = 0;
+        boolean any = false;
+        long low = 0;
+        long high = 0;
+        StringBuilder literals = new StringBuilder();
+        for (char c : " \t-0123456789".toCharArray()) {
+            low |= mask(c, true);
+            high |= mask(c, false);
+        }
+        for (Field field : fields) {
+            if (field.literal != null) {
+                length += field.literal.length();
+                literals.append(field.literal);
+                for (char c : field.literal.toCharArray()) {
+                    any |= c >= 128;
+                    low |= mask(c, true);
+                    high |= mask(c, false);
+                }
+            } else {
+                // every field takes at least one char
+                length++;
+                if (field.letter == 'X') {
+                    for (char c : "Z+:".toCharArray()) {
+                        low |= mask(c, true);
+                        high |= mask(c, false);
+                    }
+                } else if (!field.isNumeric()) {
+                    // names can contain any char
+                    any = true;
+                }
+            }
+        }
+        this.minLength = length;
+        this.anyChars = any;
+        this.allowedLow = low;
+        this.allowedHigh = high;
+        this.literalChars = literals.toString();
+        this.prefix = fields.length > 0 ? fields[0].literal : null;
+        this.suffix = fields.length > 0 ? fields[fields.length - 1].literal : null;
+        this.startsWithNumber = fields.length > 0 && fields[0].isNumeric();
+        this.endsWithNumber = fields.length > 0 && fields[fields.length - 1].isNumeric();
+    }
+    
+    private static long mask(char c, boolean low) {
+        if (c >= 128 || (c < 64) != low) {
+            return 0L;
+        }
+        return 1L << (c & 63);
+    }
+    
+    /**
+     * Compile a SimpleDateFormat pattern
+     *
+     * @param pattern
+     *            the pattern
+     * @return the compiled pattern, or null if the pattern uses letters which are not supported
+     */
+    static LenientDateFormat compile(String pattern) {
+        List<Field> fields = new ArrayList<>();
+        StringBuilder literal = new StringBuilder();
+        boolean inQuote = false;
+        int length = pattern.length();
+        for (int i = 0; i < length; i++) {
+            char c = pattern.charAt(i);
+            if (c == '\'') {
+                if (i + 1 < length && pattern.charAt(i + 1) == '\'') {
+                    literal.append(c);
+                    i++;
+                } else {
+                    inQuote = !inQuote;
+                }
+            } else if (inQuote || !((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z'))) {
+                literal.append(c);
+            } else {
+                int count = 1;
+                while (i + 1 < length && pattern.charAt(i + 1) == c) {
+                    count++;
+                    i++;
+                }
+                // two digit years need the century adjustment, and X allows at most three letters
+                if (SUPPORTED_LETTERS.indexOf(c) < 0 || (c == 'y' && count < 3) || (c == 'X' && count > 3)) {
+                    return null;
+                }
+                if (literal.length() > 0) {
+                    fields.add(new Field(literal.toString()));
+                    literal.setLength(0);
+                }
+                fields.add(new Field(c, count));
+            }
+        }
+        if (inQuote) {
+            return null;
+        }
+        if (literal.length() > 0) {
+            fields.add(new Field(literal.toString()));
+        }
+        // a field which is directly followed by a numeric field only takes as many chars as it has letters
+        for (int i = 0; i + 1 < fields.size(); i++) {
+            fields.get(i).abutting = fields.get(i + 1).isNumeric();
+        }
+        return new LenientDateFormat(pattern, fields.toArray(new Field[0]));
+    }
+    
+    /**
+     * Get the pattern this format was compiled from
+     *
+     * @return the pattern
+     */
+    String getPattern() {
+        return pattern;
+    }
+    
+    /**
+     * Determine whether a value may match this format. This never returns false for a value that {@link #parse(String)} would accept, but it may return true
+     * for a value that does not match.
+     *
+     * @param shape
+     *            the shape of the value
+     * @return false if the value cannot match
+     */
+    boolean mayMatch(Shape shape) {
+        String text = shape.text;
+        int length = text.length();
+        if (length < minLength || length == 0) {
+            return false;
+        }
+        if (!anyChars && (shape.nonAscii || (shape.low & ~allowedLow) != 0 || (shape.high & ~allowedHigh) != 0)) {
+            return false;
+        }
+        if (prefix != null && !text.startsWith(prefix)) {
+            return false;
+        }
+        if (suffix != null && !text.endsWith(suffix)) {
+            return false;
+        }
+        if (startsWithNumber) {
+            char c = text.charAt(0);
+            if (!isNumberDigit(c) && c != '-' && c != ' ' && c != '\t') {
+                return false;
+            }
+        }
+        if (endsWithNumber && !isNumberDigit(text.charAt(length - 1))) {
+            return false;
+        }
+        // the literals must appear in order
+        int pos = 0;
+        for (int i = 0; i < literalChars.length(); i++) {
+            pos = text.indexOf(literalChars.charAt(i), pos) + 1;
+            if (pos == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Determine whether a value may match both this format and another one. This is derived from the same necessary conditions as {@link #mayMatch(Shape)},
+     * so it never returns false for two formats which both accept some value.
+     *
+     * @param other
+     *            the other format
+     * @return false if no value can match both formats
+     */
+    boolean mayOverlap(LenientDateFormat other) {
+        if (!allowsLiterals(other) || !other.allowsLiterals(this)) {
+            return false;
+        }
+        if (prefix != null && other.prefix != null && !prefix.startsWith(other.prefix) && !other.prefix.startsWith(prefix)) {
+            return false;
+        }
+        if (suffix != null && other.suffix != null && !suffix.endsWith(other.suffix) && !other.suffix.endsWith(suffix)) {
+            return false;
+        }
+        return startMayBeNumber(other) && other.startMayBeNumber(this) && endMayBeNumber(other) && other.endMayBeNumber(this);
+    }
+    
+    private boolean allowsLiterals(LenientDateFormat other) {
+        if (anyChars) {
+            return true;
+        }
+        for (int i = 0; i < other.literalChars.length(); i++) {
+            char c = other.literalChars.charAt(i);
+            if (c >= 128 || (mask(c, true) & ~allowedLow) != 0 || (mask(c, false) & ~allowedHigh) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private boolean startMayBeNumber(LenientDateFormat other) {
+        if (!startsWithNumber || other.prefix == null) {
+            return true;
+        }
+        char c = other.prefix.charAt(0);
+        return isNumberDigit(c) || c == '-' || c == ' ' || c == '\t';
+    }
+    
+    private boolean endMayBeNumber(LenientDateFormat other) {
+        return !endsWithNumber || other.suffix == null || isNumberDigit(other.suffix.charAt(other.suffix.length() - 1));
+    }
+    
+    /**
+     * Parse a value which must match the pattern completely
+     *
+     * @param text
+     *            the value to parse
+     * @return the epoch millis, or {@link #INVALID} if the value does not match
+     */
+    long parse(String text) {
+        int length = text.length();
+        int pos = 0;
+        long year = 1970;
+        long month = 1;
+        long day = 1;
+        long hour = 0;
+        long minute = 0;
+        long second = 0;
+        long millis = 0;
+        boolean fixedOffset = false;
+        int offset = 0;
+        TimeZone zone = null;
+        int dstOffset = WALL_TIME;
+        Symbols symbols = getSymbols();
+        
+        for (Field field : fields) {
+            if (field.literal != null) {
+                if (!text.startsWith(field.literal, pos)) {
+                    return INVALID;
+                }
+                pos += field.literal.length();
+                continue;
+            }
+            
+            int start = pos;
+            while (pos < length && (text.charAt(pos) == ' ' || text.charAt(pos) == '\t')) {
+                pos++;
+            }
+            if (pos >= length) {
+                return INVALID;
+            }
+            
+            char letter = field.letter;
+            if (letter == 'E' || (letter == 'M' && field.count > 2)) {
+                // names are matched from before any skipped spaces
+                String[] names = letter == 'E' ? symbols.weekdays : symbols.months;
+                int index = matchName(text, start, names);
+                if (index < 0) {
+                    names = letter == 'E' ? symbols.shortWeekdays : symbols.shortMonths;
+                    index = matchName(text, start, names);
+                    if (index < 0) {
+                        return INVALID;
+                    }
+                }
+                pos = start + matchLength(text, start, names[index]);
+                // the day of the week is ignored in favor of the day of the month, just as the lenient Calendar does
+                if (letter == 'M') {
+                    month = index + 1;
+                }
+            } else if (letter == 'z') {
+                char c = text.charAt(pos);
+                if (c == '+' || c == '-') {
+                    // RFC 822 offset
+                    int end = parseNumericZone(text, pos + 1, 0, false);
+                    if (end < 0) {
+                        return INVALID;
+                    }
+                    fixedOffset = true;
+                    offset = numericZoneOffset(text, pos, end);
+                    pos = end;
+                } else if ((c == 'G' || c == 'g') && text.regionMatches(true, start, GMT, 0, GMT.length())) {
+                    pos = start + GMT.length();
+                    fixedOffset = true;
+                    offset = 0;
+                    if (pos < length && (text.charAt(pos) == '+' || text.charAt(pos) == '-')) {
+                        int end = parseNumericZone(text, pos + 1, 0, true);
+                        if (end < 0) {
+                            return INVALID;
+                        }
+                        offset = numericZoneOffset(text, pos, end);
+                        pos = end;
+                    }
+                } else {
+                    String[] names = matchZoneNames(text, pos, symbols);
+                    if (names == null) {
+                        return INVALID;
+                    }
+                    int nameIndex = matchZoneName(text, pos, names);
+                    zone = TimeZone.getTimeZone(names[0]);
+                    fixedOffset = false;
+                    // a name shared by standard and daylight time, or a daylight name of a zone without daylight savings, leaves it to the zone to decide
+                    int dstAmount = nameIndex >= 3 ? zone.getDSTSavings() : 0;
+                    boolean sameName = nameIndex <= 2 && names[nameIndex].equalsIgnoreCase(names[nameIndex + 2]);
+                    dstOffset = (sameName || (nameIndex >= 3 && dstAmount == 0)) ? WALL_TIME : dstAmount;
+                    pos += names[nameIndex].length();
+                }
+            } else if (letter == 'X') {
+                char c = text.charAt(pos);
+                if (c == 'Z') {
+                    fixedOffset = true;
+                    offset = 0;
+                    pos++;
+                } else if (c == '+' || c == '-') {
+                    int end = parseNumericZone(text, pos + 1, field.count, field.count == 3);
+                    if (end < 0) {
+                        return INVALID;
+                    }
+                    fixedOffset = true;
+                    offset = numericZoneOffset(text, pos, end);
+                    pos = end;
+                } else {
+                    return INVALID;
+                }
+            } else {
+                int limit = length;
+                if (field.abutting) {
+                    // the chars are counted from before any skipped spaces
+                    limit = start + field.count;
+                    if (limit > length) {
+                        return INVALID;
+                    }
+                }
+                boolean negative = pos < limit && text.charAt(pos) == '-';
+                int digits = negative ? pos + 1 : pos;
+                int end = digits;
+                while (end < limit && isNumberDigit(text.charAt(end))) {
+                    end++;
+                }
+                if (end == digits) {
+                    return INVALID;
+                }
+                long value = parseNumber(text, digits, end, negative);
+                pos = end;
+                switch (letter) {
+                    case 'y':
+                        year = value;
+                        break;
+                    case 'M':
+                        month = value;
+                        break;
+                    case 'd':
+                        day = value;
+                        break;
+                    case 'H':
+                        hour = value;
+                        break;
+                    case 'm':
+                        minute = value;
+                        break;
+                    case 's':
+                        second = value;
+                        break;
+                    default:
+                        millis = value;
+                        break;
+                }
+            }
+        }
+        if (pos != length) {
+            return INVALID;
+        }
+        
+        long local = toEpochDay(year, month, day) * MILLIS_PER_DAY + hour * MILLIS_PER_HOUR + minute * MILLIS_PER_MINUTE + second * 1000L + millis;
+        if (fixedOffset) {
+            return local - offset;
+        }
+        if (zone == null) {
+            zone = TimeZone.getDefault();
+        }
+        if (dstOffset == WALL_TIME) {
+            return local - wallOffset(zone, local);
+        }
+        return local - standardOffset(zone, local) - dstOffset;
+    }
+    
+    /**
+     * Format epoch millis in the default time zone
+     *
+     * @param epochMillis
+     *            the epoch millis
+     * @return the formatted value
+     */
+    String format(long epochMillis) {
+        return format(epochMillis, TimeZone.getDefault());
+    }
+    
+    /**
+     * Format epoch millis
+     *
+     * @param epochMillis
+     *            the epoch millis
+     * @param zone
+     *            the time zone to format in
+     * @return the formatted value
+     */
+    String format(long epochMillis, TimeZone zone) {
+        int offset = zone.getOffset(epochMillis);
+        long local = epochMillis + offset;
+        long epochDay = Math.floorDiv(local, MILLIS_PER_DAY);
+        int millisOfDay = (int) Math.floorMod(local, MILLIS_PER_DAY);
+        long[] date = toDate(epochDay);
+        Symbols symbols = getSymbols();
+        
+        StringBuilder builder = new StringBuilder(pattern.length() + 8);
+        for (Field field : fields) {
+            if (field.literal != null) {
+                builder.append(field.literal);
+                continue;
+            }
+            switch (field.letter) {
+                case 'y':
+                    // the year of the era, as there is no era field
+                    appendPadded(builder, date[0] > 0 ? date[0] : 1 - date[0], field.count);
+                    break;
+                case 'M':
+                    if (field.count > 3) {
+                        builder.append(symbols.months[(int) date[1] - 1]);
+                    } else if (field.count == 3) {
+                        builder.append(symbols.shortMonths[(int) date[1] - 1]);
+                    } else {
+                        appendPadded(builder, date[1], field.count);
+                    }
+                    break;
+                case 'd':
+                    appendPadded(builder, date[2], field.count);
+                    break;
+                case 'H':
+                    appendPadded(builder, millisOfDay / MILLIS_PER_HOUR, field.count);
+                    break;
+                case 'm':
+                    appendPadded(builder, (millisOfDay / MILLIS_PER_MINUTE) % 60, field.count);
+                    break;
+                case 's':
+                    appendPadded(builder, (millisOfDay / 1000) % 60, field.count);
+                    break;
+                case 'S':
+                    appendPadded(builder, millisOfDay % 1000, field.count);
+                    break;
+                case 'E':
+                    // Calendar.SUNDAY is 1, and the epoch day 0 was a Thursday
+                    int dayOfWeek = (int) Math.floorMod(epochDay + 4, 7L) + 1;
+                    builder.append(field.count > 3 ? symbols.weekdays[dayOfWeek] : symbols.shortWeekdays[dayOfWeek]);
+                    break;
+                case 'z':
+                    boolean daylight = zone.inDaylightTime(new Date(epochMillis));
+                    builder.append(zone.getDisplayName(daylight, field.count > 3 ? TimeZone.LONG : TimeZone.SHORT, symbols.locale));
+                    break;
+                default:
+                    appendIsoOffset(builder, offset, field.count);
+                    break;
+            }
+        }
+        return builder.toString();
+    }
+    
+    private static Symbols getSymbols() {
+        Symbols current = symbols;
+        Locale locale = Locale.getDefault(Locale.Category.FORMAT);
+        if (!current.locale.equals(locale)) {
+            current = new Symbols(locale);
+            symbols = current;
+        }
+        return current;
+    }
+    
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+    
+    /**
+     * Determine whether a char is a digit of a numeric field, which may be the decimal digit of any script
+     */
+    private static boolean isNumberDigit(char c) {
+        return (c >= '0' && c <= '9') || (c >= 128 && Character.digit(c, 10) >= 0);
+    }
+    
+    /**
+     * Parse the digits of a numeric field. The value is truncated to an int just like SimpleDateFormat does, which also means that a value too large for a
+     * long saturates to the int range instead.
+     *
+     * @return the value
+     */
+    private static long parseNumber(String text, int start, int end, boolean negative) {
+        // leading zeros do not count towards the 19 digits a long can hold
+        while (start < end - 1 && Character.digit(text.charAt(start), 10) == 0) {
+            start++;
+        }
+        long value = 0;
+        if (end - start <= 19) {
+            for (int i = start; i < end; i++) {
+                value = value * 10 + Character.digit(text.charAt(i), 10);
+            }
+        }
+        if (end - start > 19 || (value < 0 && !(negative && value == Long.MIN_VALUE))) {
+            // a 19 digit value may have wrapped around
+            return negative ? Integer.MIN_VALUE : Integer.MAX_VALUE;
+        }
+        return (int) (negative ? -value : value);
+    }
+    
+    /**
+     * Find the longest name matching at the position, ignoring case. A name ending with a period also matches without the period.
+     */
+    private static int matchName(String text, int pos, String[] names) {
+        int best = -1;
+        int bestLength = 0;
+        for (int i = 0; i < names.length; i++) {
+            String name = names[i];
+            int length = name.length();
+            if (length == 0) {
+                continue;
+            }
+            if (length > bestLength && text.regionMatches(true, pos, name, 0, length)) {
+                best = i;
+                bestLength = length;
+            }
+            if (name.charAt(length - 1) == '.' && length - 1 > bestLength && text.regionMatches(true, pos, name, 0, length - 1)) {
+                best = i;
+                bestLength = length - 1;
+            }
+        }
+        return best;
+    }
+    
+    private static int matchLength(String text, int pos, String name) {
+        return text.regionMatches(true, pos, name, 0, name.length()) ? name.length() : name.length() - 1;
+    }
+    
+    /**
+     * Parse the hours and minutes of a numeric time zone offset, starting after the sign
+     *
+     * @return the position after the offset, or -1 if it is malformed
+     */
+    private static int parseNumericZone(String text, int pos, int count, boolean colon) {
+        int length = text.length();
+        if (pos >= length || !isDigit(text.charAt(pos))) {
+            return -1;
+        }
+        int hours = text.charAt(pos++) - '0';
+        if (pos < length && isDigit(text.charAt(pos))) {
+            hours = hours * 10 + (text.charAt(pos++) - '0');
+        } else if (count > 0 || !colon) {
+            // two digits are required without a colon or with an ISO 8601 offset
+            return -1;
+        }
+        if (hours > 23) {
+            return -1;
+        }
+        if (count != 1) {
+            if (colon) {
+                if (pos >= length || text.charAt(pos) != ':') {
+                    return -1;
+                }
+                pos++;
+            }
+            if (pos + 1 >= length || !isDigit(text.charAt(pos)) || !isDigit(text.charAt(pos + 1))) {
+                return -1;
+            }
+            if ((text.charAt(pos) - '0') * 10 + (text.charAt(pos + 1) - '0') > 59) {
+                return -1;
+            }
+            pos += 2;
+        }
+        return pos;
+    }
+    
+    /**
+     * Get the offset in millis of a numeric time zone offset which has been validated by {@link #parseNumericZone(String, int, int, boolean)}
+     */
+    private static int numericZoneOffset(String text, int start, int end) {
+        int pos = start + 1;
+        int hours = text.charAt(pos++) - '0';
+        if (pos < end && isDigit(text.charAt(pos))) {
+            hours = hours * 10 + (text.charAt(pos++) - '0');
+        }
+        if (pos < end && text.charAt(pos) == ':') {
+            pos++;
+        }
+        int minutes = pos < end ? (text.charAt(pos) - '0') * 10 + (text.charAt(pos + 1) - '0') : 0;
+        int offset = (hours * 60 + minutes) * (int) MILLIS_PER_MINUTE;
+        return text.charAt(start) == '-' ? -offset : offset;
+    }
+    
+    /**
+     * Find the time zone names matching at the position, checking the default time zone before all others
+     *
+     * @return the time zone id followed by its long and short standard and daylight names, or null if no name matches
+     */
+    private static String[] matchZoneNames(String text, int pos, Symbols symbols) {
+        String[] names = symbols.getDefaultZoneNames();
+        if (matchZoneName(text, pos, names) > 0) {
+            return names;
+        }
+        for (String[] zoneNames : symbols.getZoneStrings()) {
+            if (matchZoneName(text, pos, zoneNames) > 0) {
+                return zoneNames;
+            }
+        }
+        return null;
+    }
+    
+    private static int matchZoneName(String text, int pos, String[] names) {
+        for (int i = 1; i <= 4; i++) {
+            String name = names[i];
+            if (!name.isEmpty() && text.regionMatches(true, pos, name, 0, name.length())) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * Get the offset of a time zone for a local time, which is the wall clock time in that zone. A local time which falls into a gap or an overlap at a
+     * transition uses the smaller of the two offsets, as the Calendar does.
+     */
+    static int wallOffset(TimeZone zone, long local) {
+        int offset = zone.getOffset(local - zone.getRawOffset());
+        int adjusted = zone.getOffset(local - offset);
+        return Math.min(offset, adjusted);
+    }
+    
+    private static int standardOffset(TimeZone zone, long local) {
+        long time = local - zone.getRawOffset();
+        int offset = zone.getOffset(time);
+        return zone.inDaylightTime(new Date(time)) ? offset - zone.getDSTSavings() : offset;
+    }
+    
+    /**
+     * Get the epoch day of a lenient year, month and day, using the Julian calendar for dates before the Gregorian cutover
+     */
+    static long toEpochDay(long year, long month, long day) {
+        long months = year * 12 + month - 1;
+        long y = Math.floorDiv(months, 12L);
+        long m = Math.floorMod(months, 12L) + 1;
+        
+        // days from the civil date, with the year starting in March so the leap day is last
+        long shifted = m <= 2 ? y - 1 : y;
+        long era = Math.floorDiv(shifted, 400L);
+        long yearOfEra = shifted - era * 400;
+        long dayOfYear = (153 * (m > 2 ? m - 3 : m + 9) + 2) / 5;
+        long epochDay = era * 146097 + yearOfEra * 365 + yearOfEra / 4 - yearOfEra / 100 + dayOfYear - 719468;
+        if (epochDay + day - 1 >= GREGORIAN_CUTOVER_DAY) {
+            return epochDay + day - 1;
+        }
+        
+        long a = (14 - m) / 12;
+        long julianYear = y + 4800 - a;
+        long julianMonth = m + 12 * a - 3;
+        long julianDay = (153 * julianMonth + 2) / 5 + 365 * julianYear + Math.floorDiv(julianYear, 4L) - 32083;
+        return julianDay - 2440588 + day;
+    }
+    
+    /**
+     * Get the year, month and day of an epoch day, using the Julian calendar for dates before the Gregorian cutover
+     */
+    private static long[] toDate(long epochDay) {
+        if (epochDay < GREGORIAN_CUTOVER_DAY) {
+            long c = epochDay + 2440588 + 32082;
+            long d = Math.floorDiv(4 * c + 3, 1461L);
+            long e = c - Math.floorDiv(1461 * d, 4L);
+            long m = (5 * e + 2) / 153;
+            return new long[] {d - 4800 + m / 10, m + 3 - 12 * (m / 10), e - (153 * m + 2) / 5 + 1};
+        }
+        long z = epochDay + 719468;
+        long era = Math.floorDiv(z, 146097L);
+        long dayOfEra = z - era * 146097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long mp = (5 * dayOfYear + 2) / 153;
+        long month = mp < 10 ? mp + 3 : mp - 9;
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        return new long[] {year, month, dayOfYear - (153 * mp + 2) / 5 + 1};
+    }
+    
+    private static void appendPadded(StringBuilder builder, long value, int width) {
+        String digits = Long.toString(value);
+        for (int i = digits.length(); i < width; i++) {
+            builder.append('0');
+        }
+        builder.append(digits);
+    }
+    
+    private static void appendIsoOffset(StringBuilder builder, int offset, int count) {
+        if (offset == 0) {
+            builder.append('Z');
+            return;
+        }
+        int minutes = offset / (int) MILLIS_PER_MINUTE;
+        builder.append(minutes < 0 ? '-' : '+');
+        minutes = Math.abs(minutes);
+        appendPadded(builder, minutes / 60, 2);
+        if (count == 1) {
+            return;
+        }
+        if (count == 3) {
+            builder.append(':');
+        }
+        appendPadded(builder, minutes % 60, 2);
+    }
+    
+    /**
+     * The chars used by a value. This is computed once and then checked against each candidate format with {@link #mayMatch(Shape)}.
+     */
+    static final class Shape {
+        private final String text;
+        private final long low;
+        private final long high;
+        private final boolean nonAscii;
+        
+        Shape(String text) {
+            long low = 0;
+            long high = 0;
+            boolean nonAscii = false;
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (c < 64) {
+                    low |= 1L << c;
+                } else if (c < 128) {
+                    high |= 1L << (c - 64);
+                } else if (isNumberDigit(c)) {
+                    // the digits of other scripts are allowed wherever ASCII digits are
+                    low |= 1L << '0';
+                } else {
+                    nonAscii = true;
+                }
+            }
+            this.text = text;
+            this.low = low;
+            this.high = high;
+            this.nonAscii = nonAscii;
+        }
+    }
+    
+    private static class Field {
+        private final char letter;
+        private final int count;
+        private final String literal;
+        private boolean abutting;
+        
+        private Field(char letter, int count) {
+            this.letter = letter;
+            this.count = count;
+            this.literal = null;
+        }
+        
+        private boolean isNumeric() {
+            return literal == null && "yMdHmsS".indexOf(letter) >= 0 && !(letter == 'M' && count > 2);
+        }
+        
+        private Field(String literal) {
+            this.letter = 0;
+            this.count = 0;
+            this.literal = literal;
+        }
+    }
+    
+    /**
+     * The month, day and time zone names of a locale
+     */
+    private static class Symbols {
+        private final Locale locale;
+        private final String[] months;
+        private final String[] shortMonths;
+        private final String[] weekdays;
+        private final String[] shortWeekdays;
+        private volatile String[] defaultZoneNames;
+        private volatile String[][] zoneStrings;
+        
+        private Symbols(Locale locale) {
+            DateFormatSymbols dfs = DateFormatSymbols.getInstance(locale);
+            this.locale = locale;
+            this.months = dfs.getMonths();
+            this.shortMonths = dfs.getShortMonths();
+            this.weekdays = dfs.getWeekdays();
+            this.shortWeekdays = dfs.getShortWeekdays();
+        }
+        
+        private String[] getDefaultZoneNames() {
+            TimeZone zone = TimeZone.getDefault();
+            String[] names = defaultZoneNames;
+            if (names == null || !names[0].equals(zone.getID())) {
+                names = zoneNames(zone);
+                defaultZoneNames = names;
+            }
+            return names;
+        }
+        
+        /**
+         * The names of all time zones are only loaded once a value is parsed with a time zone name other than GMT or one of the default time zone
+         */
+        private String[][] getZoneStrings() {
+            String[][] strings = zoneStrings;
+            if (strings == null) {
+                strings = DateFormatSymbols.getInstance(locale).getZoneStrings();
+                for (int i = 0; i < strings.length; i++) {
+                    for (int j = 1; j <= 4; j++) {
+                        if (strings[i][j] == null || strings[i][j].isEmpty()) {
+                            strings[i] = zoneNames(TimeZone.getTimeZone(strings[i][0]));
+                            break;
+                        }
+                    }
+                }
+                zoneStrings = strings;
+            }
+            return strings;
+        }
+        
+        private String[] zoneNames(TimeZone zone) {
+            return new String[] {zone.getID(), zone.getDisplayName(false, TimeZone.LONG, locale), zone.getDisplayName(false, TimeZone.SHORT, locale),
+                    zone.getDisplayName(true, TimeZone.LONG, locale), zone.getDisplayName(true, TimeZone.SHORT, locale)};
+        }
+    }
+}
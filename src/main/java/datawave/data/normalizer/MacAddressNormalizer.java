@@ -1,58 +1,79 @@
 package datawave.data.normalizer;
 
-import org.apache.commons.lang3.StringUtils;
-
-import com.google.common.base.Splitter;
-import com.google.common.collect.Iterables;
+import datawave.data.type.util.MACAddressParser;
 
 public class MacAddressNormalizer extends AbstractNormalizer<String> {
     
     private static final long serialVersionUID = -2606365671421121859L;
     
+    /**
+     * Normalize a MAC address to six groups divided by '-'. Six groups divided by ':' or '-' are kept as given, with a single digit padded by a zero,
+     * such as 00-1A-2B-3C-4D-5E for 0:1A:2B:3C:4D:5E. A single hex number of up to 48 bits is written as lower case pairs of digits, such as 00-1a-2b-3c-4d-5e.
+     * 
+     * @param fieldValue
+     *            the MAC address
+     * @return the normalized address
+     */
     public String normalize(String fieldValue) {
-        
-        String mac = "";
-        
-        String parts[] = Iterables.toArray(Splitter.on(':').split(fieldValue), String.class);
-        if (parts.length == 6) {
-            // Verify it is padded ie.e 11:01:00:11:11:11
-            // Return 11-01-00-11-11-11
-            return StringUtils.join(padWithZeros(parts), "-");
-        }
-        
-        parts = Iterables.toArray(Splitter.on('-').split(fieldValue), String.class);
-        if (parts.length == 6) {
-            
-            // Verify it is padded ie.e 11-01-00-11-11-11
-            // Return 11-01-00-11-11-11
-            return StringUtils.join(padWithZeros(parts), "-");
+        String normalized = normalizeOrNull(fieldValue);
+        if (normalized == null) {
+            throw new IllegalArgumentException("Failed to normalize " + fieldValue + " as a MAC");
         }
-        
-        // 6 bytes for a macaddr
-        
-        try {
-            long lData = Long.parseLong(fieldValue, 16);
-            
-            if (!isMac(lData)) {
-                throw new IllegalArgumentException("Failed to normalize " + fieldValue + " as a MAC");
+        return normalized;
+    }
+    
+    @Override
+    public NormalizationResult tryNormalize(String fieldValue) {
+        return NormalizationResult.ofNullable(normalizeOrNull(fieldValue));
+    }
+    
+    /**
+     * Normalize a MAC address without throwing an exception for a value which is not an address
+     * 
+     * @param fieldValue
+     *            the value
+     * @return the normalized address, or null if the value is not an address
+     */
+    static String normalizeOrNull(String fieldValue) {
+        int colons = 0;
+        int dashes = 0;
+        for (int i = 0; i < fieldValue.length(); i++) {
+            char c = fieldValue.charAt(i);
+            if (c == ':') {
+                colons++;
+            } else if (c == '-') {
+                dashes++;
             }
-            
-            for (int i = 0; i < 6; i++) {
-                final String twoChars = Long.toHexString(lData & 0x00000000000000FFl);
-                lData = lData >> 8;
-                if (twoChars.length() == 1) {
-                    mac = "0" + twoChars + mac;
-                    
-                } else {
-                    mac = twoChars + mac;
-                    
+        }
+        if (colons == 5) {
+            return joinPadded(fieldValue, ':');
+        }
+        if (dashes == 5) {
+            return joinPadded(fieldValue, '-');
+        }
+        long address = MACAddressParser.scanNumber(fieldValue);
+        return (address == MACAddressParser.FAILED ? null : MACAddressParser.toCanonicalString(address));
+    }
+    
+    /**
+     * Join the six groups of a value with '-', padding each single character group with a zero
+     */
+    private static String joinPadded(String value, char sep) {
+        StringBuilder mac = new StringBuilder(value.length() + 6);
+        int start = 0;
+        for (int i = 0; i <= value.length(); i++) {
+            if (i == value.length() || value.charAt(i) == sep) {
+                if (i - start == 1) {
+                    mac.append('0');
                 }
-                mac = "-" + mac;
+                mac.append(value, start, i);
+                if (i < value.length()) {
+                    mac.append('-');
+                }
+                start = i + 1;
             }
-            return (mac.substring(1));
-        } catch (NumberFormatException e) {
-            throw new IllegalArgumentException("Failed to normalize " + fieldValue + " as a MAC");
         }
+        return mac.toString();
     }
     
     /**
@@ -88,22 +109,6 @@ public class MacAddressNormalizer extends AbstractNormalizer<String> {
         
     }
     
-    private static String[] padWithZeros(String mac[]) {
-        String padded[] = new String[mac.length];
-        
-        for (int i = 0; i < mac.length; i++) {
-            if (mac[i].length() == 1) {
-                padded[i] = "0" + mac[i];
-            } else {
-                padded[i] = new String(mac[i]);
-                
-            }
-        }
-        
-        return padded;
-        
-    }
-    
     @Override
     public String normalizeDelegateType(String delegateIn) {
         return normalize(delegateIn);
@@ -1,29 +1,90 @@
 package datawave.data.normalizer;
 
+/**
+ * Normalizes a network value as an IP address, a MAC address or, failing both, a lower case string without diacritics.
+ * <p>
+ * A single pass over the characters of a value first works out which of the address forms it could have, and only those normalizers are called. Most values
+ * in a network field are host names, which contain letters outside of the hex digits and so go straight to the string normalizer, and no value costs an
+ * exception.
+ */
 public class NetworkNormalizer extends AbstractNormalizer<String> {
     
     private static final long serialVersionUID = 8279399353763569005L;
     
+    // the shapes a value may have, as bit flags
+    static final int IP_ADDRESS = 1;
+    static final int MAC_ADDRESS = 2;
+    
     public String normalize(String fieldValue) {
-        String normed = fieldValue;
-        
-        try {
-            normed = IP_ADDRESS_NORMALIZER.normalize(fieldValue);
-            
-        } catch (Exception iae) {
-            /**
-             * try as a mac address
-             */
-            try {
-                normed = MAC_ADDRESS_NORMALIZER.normalize(fieldValue);
-            } catch (Exception e) {
-                /**
-                 * ok, default to string normalization
-                 */
-                normed = LC_NO_DIACRITICS_NORMALIZER.normalize(fieldValue);
+        if (fieldValue == null) {
+            return LC_NO_DIACRITICS_NORMALIZER.normalize(fieldValue);
+        }
+        int shapes = classify(fieldValue);
+        if ((shapes & IP_ADDRESS) != 0) {
+            String normed = IpAddressNormalizer.normalizeOrNull(fieldValue);
+            if (normed != null) {
+                return normed;
+            }
+        }
+        if ((shapes & MAC_ADDRESS) != 0) {
+            String normed = MacAddressNormalizer.normalizeOrNull(fieldValue);
+            if (normed != null) {
+                return normed;
             }
         }
-        return normed;
+        return LC_NO_DIACRITICS_NORMALIZER.normalize(fieldValue);
+    }
+    
+    /**
+     * Work out which address forms a value could have from its characters alone. This is a superset of the values each normalizer accepts: an IP address
+     * only contains digits in up to radix 16, the '.', ':' and '*' separators, number signs and prefixes, and spaces, and a MAC address either has exactly
+     * five ':' or five '-' separators or is a signed hex number.
+     * 
+     * @param value
+     *            the value
+     * @return the {@link #IP_ADDRESS} and {@link #MAC_ADDRESS} flags of the forms the value could have
+     */
+    static int classify(String value) {
+        boolean ipAddress = true;
+        boolean hexNumber = true;
+        int colons = 0;
+        int dashes = 0;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if ((c >= '0' && c <= '9') || (c >= 'a' && c <= 'f') || (c >= 'A' && c <= 'F')) {
+                continue;
+            }
+            if (c == ':') {
+                colons++;
+            } else if (c == '-') {
+                dashes++;
+            }
+            ipAddress &= isIpAddressChar(c);
+            hexNumber &= (i == 0 && (c == '+' || c == '-')) || Character.digit(c, 16) >= 0;
+        }
+        int shapes = (ipAddress ? IP_ADDRESS : 0);
+        if (hexNumber || colons == 5 || dashes == 5) {
+            shapes |= MAC_ADDRESS;
+        }
+        return shapes;
+    }
+    
+    private static boolean isIpAddressChar(char c) {
+        switch (c) {
+            case '.':
+            case ':':
+            case '*':
+            case ' ':
+            case '+':
+            case '-':
+            case 'x':
+            case 'X':
+            case '#':
+                return true;
+            default:
+                // numbers are parsed with Character.digit, which also takes the digits of other scripts
+                return c >= 128 && Character.digit(c, 16) >= 0;
+        }
     }
     
     /**
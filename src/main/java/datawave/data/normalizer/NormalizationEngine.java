@@ -0,0 +1,288 @@
+package datawave.data.normalizer;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.ToIntBiFunction;
+
+import datawave.data.type.Type;
+
+/**
+ * Normalizes large batches of values across a fixed pool of threads. Values are split into chunks which are each normalized with
+ * {@link Normalizer#normalizeAll(String[], String[])}, so every chunk still gets the batch optimizations of its normalizer, and the results always come back in
+ * the order of the input.
+ * <p>
+ * A normalizer used with an engine must be safe for concurrent use. All of the built-in normalizers are: they hold no mutable state, share immutable state, or
+ * keep one copy per thread of the few structures which are not thread safe, such as the GeoWave index strategies of the geometry normalizers. Those per
+ * thread copies are why the pool is a fixed number of platform threads rather than a virtual thread per chunk.
+ * <p>
+ * An engine is safe for concurrent use, and should be closed to stop its threads.
+ */
+public class NormalizationEngine implements AutoCloseable {
+    
+    public static final int DEFAULT_CHUNK_SIZE = 4096;
+    
+    private static final AtomicInteger engineCount = new AtomicInteger();
+    
+    private final int parallelism;
+    private final int chunkSize;
+    private final int maxPendingChunks;
+    private final ExecutorService executor;
+    
+    /**
+     * Constructor that uses a thread for each available processor
+     */
+    public NormalizationEngine() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+    
+    /**
+     * Constructor that uses the default chunk size
+     *
+     * @param parallelism
+     *            the number of threads
+     */
+    public NormalizationEngine(int parallelism) {
+        this(parallelism, DEFAULT_CHUNK_SIZE);
+    }
+    
+    /**
+     * Constructor
+     *
+     * @param parallelism
+     *            the number of threads
+     * @param chunkSize
+     *            the number of values normalized as one task
+     */
+    public NormalizationEngine(int parallelism, int chunkSize) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1: " + parallelism);
+        }
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Chunk size must be at least 1: " + chunkSize);
+        }
+        this.parallelism = parallelism;
+        this.chunkSize = chunkSize;
+        // enough chunks to keep every thread busy while the caller collects the oldest one
+        this.maxPendingChunks = 2 * parallelism;
+        this.executor = Executors.newFixedThreadPool(parallelism, threadFactory("normalization-engine-" + engineCount.incrementAndGet() + "-"));
+    }
+    
+    private static ThreadFactory threadFactory(String prefix) {
+        AtomicInteger threadCount = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+    
+    public int getParallelism() {
+        return parallelism;
+    }
+    
+    public int getChunkSize() {
+        return chunkSize;
+    }
+    
+    /**
+     * Normalize a batch of values. A batch no larger than one chunk is normalized on the calling thread.
+     *
+     * @param normalizer
+     *            the normalizer, which must be safe for concurrent use
+     * @param in
+     *            the values
+     * @param out
+     *            receives the normalized form of each value at the same index, or null where a value cannot be normalized
+     * @return the number of values which could not be normalized
+     * @throws IllegalArgumentException
+     *             if out is shorter than in
+     */
+    public int normalizeAll(Normalizer<?> normalizer, String[] in, String[] out) {
+        BatchNormalization.checkLengths(in, out);
+        return normalizeAll(normalizer::normalizeAll, in, out);
+    }
+    
+    private int normalizeAll(ToIntBiFunction<String[],String[]> normalizeAll, String[] in, String[] out) {
+        if (in.length <= chunkSize) {
+            return normalizeAll.applyAsInt(in, out);
+        }
+        int[] failures = new int[1];
+        Iterator<String[]> chunks = new Iterator<String[]>() {
+            private int offset = 0;
+            
+            @Override
+            public boolean hasNext() {
+                return offset < in.length;
+            }
+            
+            @Override
+            public String[] next() {
+                int end = Math.min(offset + chunkSize, in.length);
+                String[] chunk = Arrays.copyOfRange(in, offset, end);
+                offset = end;
+                return chunk;
+            }
+        };
+        int[] position = new int[1];
+        run(normalizeAll, chunks, chunk -> {
+            System.arraycopy(chunk.out, 0, out, position[0], chunk.out.length);
+            position[0] += chunk.out.length;
+            failures[0] += chunk.failures;
+        });
+        return failures[0];
+    }
+    
+    /**
+     * Normalize a batch of values with {@link #normalizeAll(Normalizer, String[], String[])}
+     *
+     * @param normalizer
+     *            the normalizer, which must be safe for concurrent use
+     * @param in
+     *            the values
+     * @return the normalized form of each value at the same index, or null where a value cannot be normalized
+     */
+    public List<String> normalizeAll(Normalizer<?> normalizer, List<String> in) {
+        String[] out = new String[in.size()];
+        normalizeAll(normalizer, in.toArray(new String[0]), out);
+        return Arrays.asList(out);
+    }
+    
+    /**
+     * Normalize a batch of values with the normalizer of a type
+     *
+     * @param type
+     *            the type
+     * @param in
+     *            the values
+     * @param out
+     *            receives the normalized form of each value at the same index, or null where a value cannot be normalized
+     * @return the number of values which could not be normalized
+     * @see #normalizeAll(Normalizer, String[], String[])
+     */
+    public int normalizeAll(Type<?> type, String[] in, String[] out) {
+        BatchNormalization.checkLengths(in, out);
+        return normalizeAll(type::normalizeAll, in, out);
+    }
+    
+    /**
+     * Normalize a stream of values of any length, such as a file being backfilled. Values are read from the iterator one chunk at a time, and no more are read
+     * while twice as many chunks as there are threads are waiting to be normalized or collected, so memory stays bounded however fast the iterator is. The
+     * results are passed to the consumer on the calling thread, in the order of the input.
+     *
+     * @param normalizer
+     *            the normalizer, which must be safe for concurrent use
+     * @param values
+     *            the values
+     * @param consumer
+     *            receives each value and its normalized form, or null where the value cannot be normalized
+     * @return the number of values which could not be normalized
+     */
+    public long normalize(Normalizer<?> normalizer, Iterator<String> values, BiConsumer<String,String> consumer) {
+        long[] failures = new long[1];
+        Iterator<String[]> chunks = new Iterator<String[]>() {
+            private final List<String> chunk = new ArrayList<>(chunkSize);
+            
+            @Override
+            public boolean hasNext() {
+                return values.hasNext();
+            }
+            
+            @Override
+            public String[] next() {
+                chunk.clear();
+                while (chunk.size() < chunkSize && values.hasNext()) {
+                    chunk.add(values.next());
+                }
+                return chunk.toArray(new String[0]);
+            }
+        };
+        run(normalizer::normalizeAll, chunks, chunk -> {
+            for (int i = 0; i < chunk.in.length; i++) {
+                consumer.accept(chunk.in[i], chunk.out[i]);
+            }
+            failures[0] += chunk.failures;
+        });
+        return failures[0];
+    }
+    
+    /**
+     * Normalize chunks on the pool, keeping at most {@link #maxPendingChunks} in flight and collecting them in order
+     */
+    private void run(ToIntBiFunction<String[],String[]> normalizeAll, Iterator<String[]> chunks, Consumer<Chunk> collector) {
+        Deque<Future<Chunk>> pending = new ArrayDeque<>(maxPendingChunks);
+        try {
+            while (chunks.hasNext()) {
+                if (pending.size() == maxPendingChunks) {
+                    collector.accept(await(pending.removeFirst()));
+                }
+                String[] in = chunks.next();
+                pending.addLast(executor.submit(() -> {
+                    String[] out = new String[in.length];
+                    int failures = normalizeAll.applyAsInt(in, out);
+                    return new Chunk(in, out, failures);
+                }));
+            }
+            while (!pending.isEmpty()) {
+                collector.accept(await(pending.removeFirst()));
+            }
+        } finally {
+            for (Future<Chunk> future : pending) {
+                future.cancel(true);
+            }
+        }
+    }
+    
+    private static Chunk await(Future<Chunk> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while normalizing", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException("Failed to normalize", cause);
+        }
+    }
+    
+    /**
+     * Stop the threads of this engine. Batches already running are finished first.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+    
+    /**
+     * One normalized chunk of values
+     */
+    private static final class Chunk {
+        private final String[] in;
+        private final String[] out;
+        private final int failures;
+        
+        Chunk(String[] in, String[] out, int failures) {
+            this.in = in;
+            this.out = out;
+            this.failures = failures;
+        }
+    }
+    
+}
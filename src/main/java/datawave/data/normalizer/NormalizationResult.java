@@ -0,0 +1,77 @@
+package datawave.data.normalizer;
+
+/**
+ * The outcome of {@link Normalizer#tryNormalize(String)}: either the normalized value or a failure. A failure is a shared constant which carries no message or
+ * stack trace, so a value which cannot be normalized costs no more than one which can.
+ */
+public final class NormalizationResult {
+    
+    /**
+     * The result for a value which cannot be normalized
+     */
+    public static final NormalizationResult FAILED = new NormalizationResult(null, false);
+    
+    private final String value;
+    private final boolean success;
+    
+    private NormalizationResult(String value, boolean success) {
+        this.value = value;
+        this.success = success;
+    }
+    
+    /**
+     * Get the result for a normalized value
+     *
+     * @param value
+     *            the normalized value
+     * @return the result
+     */
+    public static NormalizationResult of(String value) {
+        return new NormalizationResult(value, true);
+    }
+    
+    /**
+     * Get the result for a normalized value, or {@link #FAILED} if there is none
+     *
+     * @param value
+     *            the normalized value, or null if the value could not be normalized
+     * @return the result
+     */
+    public static NormalizationResult ofNullable(String value) {
+        return value == null ? FAILED : new NormalizationResult(value, true);
+    }
+    
+    /**
+     * Determine whether the value was normalized
+     *
+     * @return true if the value was normalized
+     */
+    public boolean isSuccess() {
+        return success;
+    }
+    
+    /**
+     * Get the normalized value
+     *
+     * @return the normalized value, or null if the value could not be normalized
+     */
+    public String getValue() {
+        return value;
+    }
+    
+    /**
+     * Get the normalized value, or a default for a value which could not be normalized
+     *
+     * @param defaultValue
+     *            the default
+     * @return the normalized value or the default
+     */
+    public String getValueOr(String defaultValue) {
+        return success ? value : defaultValue;
+    }
+    
+    @Override
+    public String toString() {
+        return success ? value : "FAILED";
+    }
+}
@@ -2,13 +2,22 @@ package datawave.data.normalizer;
 
 import java.io.Serializable;
 import java.math.BigDecimal;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Date;
+import java.util.List;
 
 import datawave.data.type.util.Geometry;
 import datawave.data.type.util.IpAddress;
 import datawave.data.type.util.Point;
 
+/**
+ * Converts values to and from the strings which are indexed. Implementations must be safe for concurrent use, since the shared instances below are used by
+ * every thread and a {@link NormalizationEngine} calls one instance from many threads at once.
+ *
+ * @param <T>
+ *            the type of the values
+ */
 public interface Normalizer<T> extends Serializable {
     
     Normalizer<IpAddress> IP_ADDRESS_NORMALIZER = new IpAddressNormalizer();
@@ -30,6 +39,60 @@ public interface Normalizer<T> extends Serializable {
     
     String normalize(String in);
     
+    /**
+     * Normalize a value without throwing an exception for a value which cannot be normalized. This default catches the {@link IllegalArgumentException} of
+     * {@link #normalize(String)}, and normalizers which may see many invalid values override it with a path which never builds an exception.
+     * 
+     * @param in
+     *            the value
+     * @return the normalized value, or {@link NormalizationResult#FAILED}
+     */
+    default NormalizationResult tryNormalize(String in) {
+        try {
+            return NormalizationResult.of(normalize(in));
+        } catch (IllegalArgumentException e) {
+            return NormalizationResult.FAILED;
+        }
+    }
+    
+    /**
+     * Normalize a batch of values, such as one column of a file being ingested. This default calls {@link #tryNormalize(String)} for each value, reusing the
+     * result of a value equal to the one before it, and the built-in normalizers override it to share their setup across the batch or to normalize each
+     * distinct value only once.
+     *
+     * @param in
+     *            the values
+     * @param out
+     *            receives the normalized form of each value at the same index, or null where a value cannot be normalized
+     * @return the number of values which could not be normalized
+     * @throws IllegalArgumentException
+     *             if out is shorter than in
+     */
+    default int normalizeAll(String[] in, String[] out) {
+        return BatchNormalization.normalizeAll(in, out, this::tryNormalize, false);
+    }
+    
+    /**
+     * Normalize a batch of values with {@link #normalizeAll(String[], String[])}
+     *
+     * @param in
+     *            the values
+     * @return the normalized form of each value at the same index, or null where a value cannot be normalized
+     */
+    default List<String> normalizeAll(List<String> in) {
+        String[] out = new String[in.size()];
+        normalizeAll(in.toArray(new String[0]), out);
+        return Arrays.asList(out);
+    }
+    
+    /**
+     * Build any expensive state which the first value normalized would otherwise build, such as shared lookup tables, so that the first query after a deploy
+     * does not pay for it. State which is kept per thread is only built for the calling thread. This default does nothing.
+     * 
+     * @see datawave.data.type.TypeRegistry#warmUp(java.util.Collection)
+     */
+    default void warmUp() {}
+    
     String normalizeDelegateType(T delegateIn);
     
     T denormalize(String in);
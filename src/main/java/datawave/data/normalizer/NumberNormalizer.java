@@ -28,6 +28,34 @@ public class NumberNormalizer extends AbstractNormalizer<BigDecimal> {
         }
     }
     
+    /**
+     * Normalize a number without building an exception for a value which is not a number. Values which are already encoded are returned as is, just as
+     * {@link #normalize(String)} does.
+     */
+    @Override
+    public NormalizationResult tryNormalize(String fv) {
+        if (NumericalEncoder.isEncoded(fv)) {
+            return NormalizationResult.of(fv);
+        }
+        return NormalizationResult.ofNullable(NumericalEncoder.tryEncode(fv));
+    }
+    
+    /**
+     * Normalize a batch of numbers, encoding each distinct number only once since that costs far more than a hash lookup
+     */
+    @Override
+    public int normalizeAll(String[] in, String[] out) {
+        return BatchNormalization.normalizeAll(in, out, this::tryNormalize, true);
+    }
+    
+    /**
+     * Build the exponent maps of the {@link NumericalEncoder} and load the classes of both the encode and the decode paths
+     */
+    @Override
+    public void warmUp() {
+        NumericalEncoder.decode(NumericalEncoder.encode("-1.5"));
+    }
+    
     /**
      * We can support regex against numbers.
      */
@@ -19,6 +19,7 @@ public class PointNormalizer extends AbstractGeometryNormalizer<Point,org.locati
     private static final long serialVersionUID = 171360806347433135L;
     
     // NOTE: If we change the index strategy, then we will need to update the validHash method appropriately.
+    // Each thread builds its own strategy and index, since GeoWave does not promise that they are safe to share.
     // @formatter:off
     public static final ThreadLocal<NumericIndexStrategy> indexStrategy = ThreadLocal.withInitial(PointNormalizer::createIndexStrategy);
     // @formatter:on
@@ -31,28 +31,28 @@ public abstract class AbstractGeometryType<T extends AbstractGeometry & Comparab
     
     @Override
     public String incrementIndex(String index) {
-        return ((DiscreteIndexNormalizer) normalizer).incrementIndex(index);
+        return ((DiscreteIndexNormalizer) getBaseNormalizer()).incrementIndex(index);
     }
     
     @Override
     public String decrementIndex(String index) {
-        return ((DiscreteIndexNormalizer) normalizer).decrementIndex(index);
+        return ((DiscreteIndexNormalizer) getBaseNormalizer()).decrementIndex(index);
     }
     
     @Override
     @SuppressWarnings("unchecked")
     public List<String> discretizeRange(String beginIndex, String endIndex) {
-        return ((DiscreteIndexNormalizer) normalizer).discretizeRange(beginIndex, endIndex);
+        return ((DiscreteIndexNormalizer) getBaseNormalizer()).discretizeRange(beginIndex, endIndex);
     }
     
     @Override
     public boolean producesFixedLengthRanges() {
-        return ((DiscreteIndexNormalizer) normalizer).producesFixedLengthRanges();
+        return ((DiscreteIndexNormalizer) getBaseNormalizer()).producesFixedLengthRanges();
     }
     
     @Override
     public long sizeInBytes() {
-        long size = STATIC_SIZE + (2 * normalizedValue.length());
+        long size = STATIC_SIZE + (2 * getNormalizedValue().length());
         
         if (this instanceof OneToManyNormalizerType) {
             List<String> values = ((OneToManyNormalizerType<?>) this).getNormalizedValues();
@@ -1,9 +1,12 @@
 package datawave.data.type;
 
+import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.Collection;
 import java.util.List;
 
+import datawave.data.normalizer.CachingNormalizer;
 import datawave.data.normalizer.Normalizer;
 import datawave.webservice.query.data.ObjectSizeOf;
 
@@ -16,13 +19,26 @@ public class BaseType<T extends Comparable<T> & Serializable> implements Seriali
     protected String normalizedValue;
     protected final Normalizer<T> normalizer;
     
+    private transient boolean lazyNormalization;
+    private transient boolean normalizationDeferred;
+    
     public BaseType(String delegateString, Normalizer<T> normalizer) {
-        this.normalizer = normalizer;
+        this.normalizer = NormalizerCacheRegistry.apply(getClass(), normalizer);
         setDelegate(normalizer.denormalize(delegateString));
     }
     
     public BaseType(Normalizer<T> normalizer) {
-        this.normalizer = normalizer;
+        this.normalizer = NormalizerCacheRegistry.apply(getClass(), normalizer);
+    }
+    
+    /**
+     * Get the normalizer this type was constructed with, without any {@link CachingNormalizer} that the {@link NormalizerCacheRegistry} placed around it.
+     * Subclasses which need a more specific normalizer interface should cast this rather than the normalizer field.
+     * 
+     * @return the underlying normalizer
+     */
+    protected Normalizer<T> getBaseNormalizer() {
+        return (normalizer instanceof CachingNormalizer) ? ((CachingNormalizer<T>) normalizer).getDelegate() : normalizer;
     }
     
     public T getDelegate() {
@@ -35,13 +51,93 @@ public class BaseType<T extends Comparable<T> & Serializable> implements Seriali
     
     public void setDelegate(T delegate) {
         this.delegate = delegate;
-        normalizeAndSetNormalizedValue(this.delegate);
+        if (lazyNormalization) {
+            deferNormalization();
+        } else {
+            this.normalizationDeferred = false;
+            normalizeAndSetNormalizedValue(this.delegate);
+        }
     }
     
-    public String getNormalizedValue() {
+    /**
+     * Determine whether values set on this type are normalized only once their normalized value is read
+     *
+     * @return true if lazy
+     */
+    public boolean isLazyNormalization() {
+        return lazyNormalization;
+    }
+    
+    /**
+     * Normalize each value set on this type only once its normalized value is first read, by {@link #getNormalizedValue()}, {@link #validate()},
+     * {@link #sizeInBytes()} or serialization. A type which is built only to compare or display its delegate, as many are when query results are read, then
+     * never pays for normalization. Everything read from a lazy type is the same as from an eager one, except that a value which cannot be normalized fails
+     * when it is read rather than when it is set.
+     * <p>
+     * The first reads may race, since a lazy type takes no lock: each racing thread normalizes the value and they all see the same result. This is off by
+     * default, is kept by {@link #reset()}, and is not serialized.
+     *
+     * @param lazyNormalization
+     *            true to defer normalization, or false to normalize each value as it is set, which also normalizes a value still pending
+     */
+    public void setLazyNormalization(boolean lazyNormalization) {
+        if (!lazyNormalization) {
+            getNormalizedValue();
+            this.normalizationDeferred = false;
+        }
+        this.lazyNormalization = lazyNormalization;
+    }
+    
+    /**
+     * Drop the normalized value of the value just set, to be computed by {@link #normalizeLazily()} when it is first read. Subclasses which set their value
+     * without going through {@link #setDelegate(Comparable)} call this when {@link #isLazyNormalization()} is true.
+     */
+    protected void deferNormalization() {
+        this.normalizedValue = null;
+        this.normalizationDeferred = true;
+    }
+    
+    /**
+     * Determine whether the current value was set lazily. Its normalized value may or may not have been computed since, and a thread which finds it missing
+     * computes it with {@link #normalizeLazily()}.
+     *
+     * @return true if deferred
+     */
+    protected boolean isNormalizationDeferred() {
+        return normalizationDeferred;
+    }
+    
+    /**
+     * Normalize a pending value through {@link #normalizeAndSetNormalizedValue(Comparable)}, so that a lazy type normalizes exactly as an eager one does. This
+     * may run in several threads at once for the same value, so it must only publish immutable objects, as a String is. Subclasses whose
+     * normalizeAndSetNormalizedValue sets other normalized state, such as a mutable list, must override this to publish that state safely.
+     *
+     * @return the normalized value
+     */
+    protected String normalizeLazily() {
+        normalizeAndSetNormalizedValue(delegate);
         return normalizedValue;
     }
     
+    /**
+     * Clear the value of this type so that the instance can be reused for another value, as a {@link TypePool} does. Afterwards the type behaves just like a
+     * newly constructed one, except that {@link #setLazyNormalization(boolean) lazy normalization} stays as it was. Subclasses which hold more state than the
+     * delegate and normalized value must clear it as well.
+     */
+    public void reset() {
+        this.delegate = null;
+        this.normalizedValue = null;
+        this.normalizationDeferred = false;
+    }
+    
+    public String getNormalizedValue() {
+        String value = normalizedValue;
+        if (value == null && normalizationDeferred) {
+            value = normalizeLazily();
+        }
+        return value;
+    }
+    
     @Override
     public T denormalize() {
         return this.delegate;
@@ -63,6 +159,21 @@ public class BaseType<T extends Comparable<T> & Serializable> implements Seriali
         return normalizer.normalize(in);
     }
     
+    @Override
+    public int normalizeAll(String[] in, String[] out) {
+        return normalizer.normalizeAll(in, out);
+    }
+    
+    @Override
+    public List<String> normalizeAll(List<String> in) {
+        return normalizer.normalizeAll(in);
+    }
+    
+    @Override
+    public void warmUp() {
+        normalizer.warmUp();
+    }
+    
     public Collection<String> expand(String in) {
         return normalizer.expand(in);
     }
@@ -91,7 +202,7 @@ public class BaseType<T extends Comparable<T> & Serializable> implements Seriali
     }
     
     public void validate() {
-        if (this.delegate == null || this.normalizedValue == null)
+        if (this.delegate == null || getNormalizedValue() == null)
             throw new IllegalArgumentException(this + " does not validate: " + delegate + "," + normalizedValue);
     }
     
@@ -169,7 +280,15 @@ public class BaseType<T extends Comparable<T> & Serializable> implements Seriali
             List<String> values = ((OneToManyNormalizerType<?>) this).getNormalizedValues();
             size += values.stream().map(String::length).map(length -> 2 * length + ObjectSizeOf.Sizer.REFERENCE).reduce(Integer::sum).orElse(0);
         }
-        size += STATIC_SIZE + (2 * normalizedValue.length()) + ObjectSizeOf.Sizer.getObjectSize(delegate);
+        size += STATIC_SIZE + (2 * getNormalizedValue().length()) + ObjectSizeOf.Sizer.getObjectSize(delegate);
         return size;
     }
+    
+    /**
+     * Normalize a pending value before writing, so the serialized form is the same whether or not this type is lazy
+     */
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        getNormalizedValue();
+        out.defaultWriteObject();
+    }
 }
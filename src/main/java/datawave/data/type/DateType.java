@@ -13,6 +13,10 @@ public class DateType extends BaseType<Date> {
         super(Normalizer.DATE_NORMALIZER);
     }
     
+    protected DateType(Normalizer<Date> normalizer) {
+        super(normalizer);
+    }
+    
     public DateType(String dateString) {
         super(Normalizer.DATE_NORMALIZER);
         super.setDelegate(normalizer.denormalize(dateString));
@@ -31,6 +35,6 @@ public class DateType extends BaseType<Date> {
      */
     @Override
     public long sizeInBytes() {
-        return STATIC_SIZE + (2 * normalizedValue.length());
+        return STATIC_SIZE + (2 * getNormalizedValue().length());
     }
 }
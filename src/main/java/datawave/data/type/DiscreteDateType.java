@@ -0,0 +1,60 @@
+package datawave.data.type;
+
+import java.util.Date;
+import java.util.List;
+
+import datawave.data.normalizer.DiscreteDateNormalizer;
+import datawave.data.normalizer.DiscreteDateNormalizer.Granularity;
+import datawave.data.normalizer.Normalizer;
+
+/**
+ * A {@link DateType} whose normalized values are truncated to a fixed granularity, which makes them discrete index values that can be combined into composite
+ * ranges. The default granularity is a day.
+ */
+public class DiscreteDateType extends DateType implements DiscreteIndexType<Date> {
+    
+    private static final long serialVersionUID = -6188421376214957047L;
+    
+    public DiscreteDateType() {
+        this(Granularity.DAY);
+    }
+    
+    public DiscreteDateType(Granularity granularity) {
+        super(new DiscreteDateNormalizer(granularity));
+    }
+    
+    public DiscreteDateType(String dateString) {
+        this();
+        setDelegateFromString(dateString);
+    }
+    
+    public Granularity getGranularity() {
+        return ((DiscreteDateNormalizer) getBaseNormalizer()).getGranularity();
+    }
+    
+    @Override
+    public String getDelegateAsString() {
+        // the delegate keeps the full precision which the normalized bucket drops
+        return Normalizer.DATE_NORMALIZER.normalizeDelegateType(getDelegate());
+    }
+    
+    @Override
+    public String incrementIndex(String index) {
+        return ((DiscreteDateNormalizer) getBaseNormalizer()).incrementIndex(index);
+    }
+    
+    @Override
+    public String decrementIndex(String index) {
+        return ((DiscreteDateNormalizer) getBaseNormalizer()).decrementIndex(index);
+    }
+    
+    @Override
+    public List<String> discretizeRange(String beginIndex, String endIndex) {
+        return ((DiscreteDateNormalizer) getBaseNormalizer()).discretizeRange(beginIndex, endIndex);
+    }
+    
+    @Override
+    public boolean producesFixedLengthRanges() {
+        return ((DiscreteDateNormalizer) getBaseNormalizer()).producesFixedLengthRanges();
+    }
+}
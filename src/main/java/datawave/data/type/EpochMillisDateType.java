@@ -0,0 +1,177 @@
+package datawave.data.type;
+
+import java.util.Collection;
+import java.util.Date;
+
+import datawave.data.normalizer.DateNormalizer;
+
+/**
+ * A {@link DateType} which holds its value as primitive epoch millis. Setting the value from a long or a string normalizes it without ever creating a
+ * {@link Date}; a Date is only created when something asks for it.
+ */
+public class EpochMillisDateType extends DateType {
+    
+    private static final long serialVersionUID = -2093471365620498170L;
+    private static final long STATIC_SIZE = PrecomputedSizes.STRING_STATIC_REF + Sizer.REFERENCE + Sizer.REFERENCE + 8;
+    
+    private long epochMillis;
+    
+    public EpochMillisDateType() {
+        super();
+    }
+    
+    public EpochMillisDateType(long epochMillis) {
+        super();
+        setEpochMillis(epochMillis);
+    }
+    
+    public EpochMillisDateType(String dateString) {
+        super();
+        setDelegateFromString(dateString);
+    }
+    
+    /**
+     * Get the value without creating a {@link Date}
+     *
+     * @return the epoch millis
+     */
+    public long getEpochMillis() {
+        return epochMillis;
+    }
+    
+    /**
+     * Set the value without creating a {@link Date}
+     *
+     * @param epochMillis
+     *            the epoch millis
+     */
+    public void setEpochMillis(long epochMillis) {
+        this.epochMillis = epochMillis;
+        this.delegate = null;
+        if (isLazyNormalization()) {
+            deferNormalization();
+        } else {
+            setNormalizedValue(getDateNormalizer().normalize(epochMillis));
+        }
+    }
+    
+    @Override
+    protected String normalizeLazily() {
+        String value = getDateNormalizer().normalize(epochMillis);
+        this.normalizedValue = value;
+        return value;
+    }
+    
+    private DateNormalizer getDateNormalizer() {
+        return (DateNormalizer) getBaseNormalizer();
+    }
+    
+    private boolean hasValue() {
+        return normalizedValue != null || isNormalizationDeferred();
+    }
+    
+    @Override
+    public void reset() {
+        super.reset();
+        this.epochMillis = 0;
+    }
+    
+    /**
+     * Get the value as a {@link Date}. A Date which was not set as the delegate is created on every call and never cached, since a Date is mutable and a
+     * lazily cached one could be seen half constructed by another thread.
+     *
+     * @return the date, or null if there is no value
+     */
+    @Override
+    public Date getDelegate() {
+        Date date = delegate;
+        if (date == null && hasValue()) {
+            date = new Date(epochMillis);
+        }
+        return date;
+    }
+    
+    @Override
+    public void setDelegate(Date delegate) {
+        this.epochMillis = delegate.getTime();
+        super.setDelegate(delegate);
+    }
+    
+    @Override
+    public void setDelegateFromString(String in) {
+        setEpochMillis(getDateNormalizer().denormalizeToMillis(in));
+    }
+    
+    @Override
+    public Date denormalize() {
+        return getDelegate();
+    }
+    
+    @Override
+    public String normalize() {
+        return getDateNormalizer().normalize(epochMillis);
+    }
+    
+    @Override
+    public Collection<String> expand() {
+        return normalizer.expand(getDelegate().toString());
+    }
+    
+    @Override
+    public String getDelegateAsString() {
+        return getNormalizedValue();
+    }
+    
+    @Override
+    public int compareTo(Type<Date> o) {
+        if (o instanceof EpochMillisDateType) {
+            return Long.compare(epochMillis, ((EpochMillisDateType) o).epochMillis);
+        }
+        return super.compareTo(o);
+    }
+    
+    @Override
+    public void validate() {
+        if (!hasValue())
+            throw new IllegalArgumentException(this + " does not validate: " + epochMillis + "," + normalizedValue);
+    }
+    
+    @Override
+    public int hashCode() {
+        if (!hasValue()) {
+            return this.getClass().getName().hashCode();
+        }
+        // the same as the hash code of the equivalent Date delegate
+        return 31 + (int) (epochMillis ^ (epochMillis >>> 32));
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        } else if (o == null || getClass() != o.getClass()) {
+            return false;
+        } else if (!hasValue()) {
+            // Since Types are considered to be stateless,
+            // we can treat equality as the same class
+            return true;
+        }
+        EpochMillisDateType other = (EpochMillisDateType) o;
+        return other.hasValue() && epochMillis == other.epochMillis;
+    }
+    
+    @Override
+    public String toString() {
+        return hasValue() ? getDelegate().toString() : super.toString();
+    }
+    
+    /**
+     * One string, the epoch millis, one reference to the normalizer, and the date object if one was set
+     *
+     * @return the approximate size
+     */
+    @Override
+    public long sizeInBytes() {
+        return STATIC_SIZE + (2 * getNormalizedValue().length()) + (delegate == null ? 0 : PrecomputedSizes.DATE_STATIC_REF);
+    }
+}
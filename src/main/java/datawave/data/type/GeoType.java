@@ -18,6 +18,6 @@ public class GeoType extends BaseType<String> {
      */
     @Override
     public long sizeInBytes() {
-        return STATIC_SIZE + (2 * normalizedValue.length()) + (2 * delegate.length());
+        return STATIC_SIZE + (2 * getNormalizedValue().length()) + (2 * delegate.length());
     }
 }
@@ -1,5 +1,6 @@
 package datawave.data.type;
 
+import java.util.Collections;
 import java.util.List;
 
 import datawave.data.normalizer.Normalizer;
@@ -19,7 +20,7 @@ public class GeometryType extends AbstractGeometryType<Geometry> implements OneT
     }
     
     public List<String> normalizeToMany(String in) {
-        return ((OneToManyNormalizer<Geometry>) normalizer).normalizeToMany(in);
+        return ((OneToManyNormalizer<Geometry>) getBaseNormalizer()).normalizeToMany(in);
     }
     
     public void setNormalizedValues(List<String> normalizedValues) {
@@ -29,11 +30,41 @@ public class GeometryType extends AbstractGeometryType<Geometry> implements OneT
     
     @Override
     public void normalizeAndSetNormalizedValue(Geometry valueToNormalize) {
-        setNormalizedValues(((OneToManyNormalizer<Geometry>) normalizer).normalizeDelegateTypeToMany(valueToNormalize));
+        setNormalizedValues(((OneToManyNormalizer<Geometry>) getBaseNormalizer()).normalizeDelegateTypeToMany(valueToNormalize));
+    }
+    
+    @Override
+    protected void deferNormalization() {
+        super.deferNormalization();
+        this.normalizedValues = null;
+    }
+    
+    /**
+     * Normalize a pending geometry just as {@link #normalizeAndSetNormalizedValue(Geometry)} does, into an unmodifiable list which is safe to publish to
+     * racing threads
+     */
+    @Override
+    protected String normalizeLazily() {
+        List<String> values = Collections.unmodifiableList(((OneToManyNormalizer<Geometry>) getBaseNormalizer()).normalizeDelegateTypeToMany(delegate));
+        this.normalizedValues = values;
+        String value = values.toString();
+        this.normalizedValue = value;
+        return value;
+    }
+    
+    @Override
+    public void reset() {
+        super.reset();
+        this.normalizedValues = null;
     }
     
     public List<String> getNormalizedValues() {
-        return normalizedValues;
+        List<String> values = normalizedValues;
+        if (values == null && isNormalizationDeferred()) {
+            normalizeLazily();
+            values = normalizedValues;
+        }
+        return values;
     }
     
     @Override
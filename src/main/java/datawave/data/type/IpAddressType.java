@@ -1,12 +1,14 @@
 package datawave.data.type;
 
+import java.util.List;
+
 import datawave.data.normalizer.IpAddressNormalizer;
 import datawave.data.normalizer.Normalizer;
 import datawave.data.type.util.IpAddress;
 import datawave.data.type.util.IpV4Address;
 import datawave.data.type.util.IpV6Address;
 
-public class IpAddressType extends BaseType<IpAddress> {
+public class IpAddressType extends BaseType<IpAddress> implements DiscreteIndexType<IpAddress> {
     
     private static final long serialVersionUID = -6512690642978201801L;
     private static final long STATIC_SIZE = PrecomputedSizes.STRING_STATIC_REF + Sizer.REFERENCE;
@@ -20,7 +22,27 @@ public class IpAddressType extends BaseType<IpAddress> {
     }
     
     public String[] normalizeCidrToRange(String cidr) {
-        return ((IpAddressNormalizer) normalizer).normalizeCidrToRange(cidr);
+        return ((IpAddressNormalizer) getBaseNormalizer()).normalizeCidrToRange(cidr);
+    }
+    
+    @Override
+    public String incrementIndex(String index) {
+        return ((IpAddressNormalizer) getBaseNormalizer()).incrementIndex(index);
+    }
+    
+    @Override
+    public String decrementIndex(String index) {
+        return ((IpAddressNormalizer) getBaseNormalizer()).decrementIndex(index);
+    }
+    
+    @Override
+    public List<String> discretizeRange(String beginIndex, String endIndex) {
+        return ((IpAddressNormalizer) getBaseNormalizer()).discretizeRange(beginIndex, endIndex);
+    }
+    
+    @Override
+    public boolean producesFixedLengthRanges() {
+        return ((IpAddressNormalizer) getBaseNormalizer()).producesFixedLengthRanges();
     }
     
     /**
@@ -30,7 +52,7 @@ public class IpAddressType extends BaseType<IpAddress> {
      */
     @Override
     public long sizeInBytes() {
-        long base = STATIC_SIZE + (2 * normalizedValue.length());
+        long base = STATIC_SIZE + (2 * getNormalizedValue().length());
         long ipSize;
         if (delegate instanceof IpV4Address) {
             ipSize = PrecomputedSizes.IPV4ADDRESS_STATIC_REF;
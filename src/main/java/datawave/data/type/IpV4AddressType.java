@@ -21,7 +21,7 @@ public class IpV4AddressType extends BaseType<IpAddress> {
      */
     @Override
     public long sizeInBytes() {
-        long base = STATIC_SIZE + (2 * normalizedValue.length());
+        long base = STATIC_SIZE + (2 * getNormalizedValue().length());
         long ipSize;
         if (delegate instanceof IpV4Address) {
             ipSize = PrecomputedSizes.IPV4ADDRESS_STATIC_REF;
@@ -0,0 +1,127 @@
+package datawave.data.type;
+
+import java.util.function.Supplier;
+
+/**
+ * The types of this module, which the {@link TypeRegistry} creates with a plain constructor call rather than loading the class by name and linking its
+ * constructor. A type class is only loaded once it is first looked up, since the lookup is a switch on the class name.
+ * <p>
+ * The switch in {@link #lookup(String, boolean)} is the only list of the types, and a concrete type added to this package must be added to it, which
+ * TypeRegistryTest checks.
+ */
+final class KnownTypes {
+    
+    private KnownTypes() {
+        // private constructor to enforce static access
+    }
+    
+    /**
+     * Determine whether a class is a type of this module, as opposed to a class of the same name from another class loader
+     *
+     * @param typeClass
+     *            the class
+     * @return true if known
+     */
+    static boolean isKnown(Class<?> typeClass) {
+        return lookup(typeClass.getName(), false) == typeClass;
+    }
+    
+    /**
+     * Get the constructor of a type of this module
+     *
+     * @param typeClassName
+     *            the name of the type class
+     * @return a supplier of new instances, or null if the name is not a type of this module
+     */
+    static Supplier<Type<?>> constructorOf(String typeClassName) {
+        return lookup(typeClassName, false) != null ? new Constructor(typeClassName) : null;
+    }
+    
+    /**
+     * Create a type of this module
+     *
+     * @param typeClassName
+     *            the name of the type class
+     * @return the new instance, or null if the name is not a type of this module
+     */
+    static Type<?> newInstance(String typeClassName) {
+        return (Type<?>) lookup(typeClassName, true);
+    }
+    
+    /**
+     * Look a type of this module up by name. Checking a name only resolves the class literal, which neither initializes the class nor creates an instance.
+     *
+     * @param typeClassName
+     *            the name of the type class
+     * @param create
+     *            true to create an instance, false to get the class
+     * @return the new instance or the class, or null if the name is not a type of this module
+     */
+    private static Object lookup(String typeClassName, boolean create) {
+        switch (typeClassName) {
+            case "datawave.data.type.DateType":
+                return create ? new DateType() : DateType.class;
+            case "datawave.data.type.DiscreteDateType":
+                return create ? new DiscreteDateType() : DiscreteDateType.class;
+            case "datawave.data.type.EpochMillisDateType":
+                return create ? new EpochMillisDateType() : EpochMillisDateType.class;
+            case "datawave.data.type.GeoLatType":
+                return create ? new GeoLatType() : GeoLatType.class;
+            case "datawave.data.type.GeoLonType":
+                return create ? new GeoLonType() : GeoLonType.class;
+            case "datawave.data.type.GeoType":
+                return create ? new GeoType() : GeoType.class;
+            case "datawave.data.type.GeometryType":
+                return create ? new GeometryType() : GeometryType.class;
+            case "datawave.data.type.HexStringType":
+                return create ? new HexStringType() : HexStringType.class;
+            case "datawave.data.type.HitTermType":
+                return create ? new HitTermType() : HitTermType.class;
+            case "datawave.data.type.IpAddressType":
+                return create ? new IpAddressType() : IpAddressType.class;
+            case "datawave.data.type.IpV4AddressType":
+                return create ? new IpV4AddressType() : IpV4AddressType.class;
+            case "datawave.data.type.LcNoDiacriticsListType":
+                return create ? new LcNoDiacriticsListType() : LcNoDiacriticsListType.class;
+            case "datawave.data.type.LcNoDiacriticsType":
+                return create ? new LcNoDiacriticsType() : LcNoDiacriticsType.class;
+            case "datawave.data.type.LcType":
+                return create ? new LcType() : LcType.class;
+            case "datawave.data.type.MacAddressType":
+                return create ? new MacAddressType() : MacAddressType.class;
+            case "datawave.data.type.NoOpType":
+                return create ? new NoOpType() : NoOpType.class;
+            case "datawave.data.type.NumberListType":
+                return create ? new NumberListType() : NumberListType.class;
+            case "datawave.data.type.NumberType":
+                return create ? new NumberType() : NumberType.class;
+            case "datawave.data.type.PointType":
+                return create ? new PointType() : PointType.class;
+            case "datawave.data.type.RawDateType":
+                return create ? new RawDateType() : RawDateType.class;
+            case "datawave.data.type.StringType":
+                return create ? new StringType() : StringType.class;
+            case "datawave.data.type.TrimLeadingZerosType":
+                return create ? new TrimLeadingZerosType() : TrimLeadingZerosType.class;
+            default:
+                return null;
+        }
+    }
+    
+    /**
+     * A plain class rather than a lambda, so that creating the first known type spins no classes at all
+     */
+    private static final class Constructor implements Supplier<Type<?>> {
+        
+        private final String typeClassName;
+        
+        Constructor(String typeClassName) {
+            this.typeClassName = typeClassName;
+        }
+        
+        @Override
+        public Type<?> get() {
+            return newInstance(typeClassName);
+        }
+    }
+}
@@ -39,6 +39,12 @@ public abstract class ListType extends BaseType implements OneToManyNormalizerTy
         setNormalizedValue(in);
     }
     
+    @Override
+    public void reset() {
+        super.reset();
+        this.normalizedValues = null;
+    }
+    
     @Override
     public List<String> getNormalizedValues() {
         return normalizedValues;
@@ -24,6 +24,6 @@ public class NoOpType extends BaseType<String> {
      */
     @Override
     public long sizeInBytes() {
-        return STATIC_SIZE + (4 * normalizedValue.length());
+        return STATIC_SIZE + (4 * getNormalizedValue().length());
     }
 }
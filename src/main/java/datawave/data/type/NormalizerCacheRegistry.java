@@ -0,0 +1,109 @@
+package datawave.data.type;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import datawave.data.normalizer.CachingNormalizer;
+import datawave.data.normalizer.Normalizer;
+
+/**
+ * Per {@link Type} configuration of {@link CachingNormalizer}s. Caching is opt-in: once enabled for a Type class, every instance of that class created
+ * afterwards normalizes through one shared cache. Instances created before caching was enabled keep using the uncached normalizer.
+ */
+public class NormalizerCacheRegistry {
+    
+    private static final Map<Class<?>,CacheSettings> settings = new ConcurrentHashMap<>();
+    private static final Map<Class<?>,CachingNormalizer<?>> caches = new ConcurrentHashMap<>();
+    
+    private NormalizerCacheRegistry() {
+        // private constructor to enforce static access
+    }
+    
+    /**
+     * Enable caching with the default limits for the given Type class
+     *
+     * @param typeClass
+     *            the Type class
+     */
+    public static void enable(Class<? extends Type> typeClass) {
+        enable(typeClass, CachingNormalizer.DEFAULT_MAXIMUM_WEIGHT, CachingNormalizer.DEFAULT_MAXIMUM_KEY_LENGTH, true);
+    }
+    
+    /**
+     * Enable caching for the given Type class
+     *
+     * @param typeClass
+     *            the Type class
+     * @param maximumWeight
+     *            the maximum number of chars held by the cache, counting both keys and values
+     * @param maximumKeyLength
+     *            values longer than this are never cached
+     * @param admissionFilter
+     *            if true, values are only cached once they have been seen twice
+     */
+    public static void enable(Class<? extends Type> typeClass, long maximumWeight, int maximumKeyLength, boolean admissionFilter) {
+        settings.put(typeClass, new CacheSettings(maximumWeight, maximumKeyLength, admissionFilter));
+        caches.remove(typeClass);
+    }
+    
+    /**
+     * Disable caching for the given Type class
+     *
+     * @param typeClass
+     *            the Type class
+     */
+    public static void disable(Class<? extends Type> typeClass) {
+        settings.remove(typeClass);
+        caches.remove(typeClass);
+    }
+    
+    /**
+     * Get the cache in use for the given Type class, e.g. to inspect its statistics
+     *
+     * @param typeClass
+     *            the Type class
+     * @return the cache, or null if caching is not enabled or no instance has been created since it was enabled
+     */
+    public static CachingNormalizer<?> getCache(Class<? extends Type> typeClass) {
+        return caches.get(typeClass);
+    }
+    
+    /**
+     * Get the normalizer that an instance of the given Type class should use
+     *
+     * @param typeClass
+     *            the Type class
+     * @param normalizer
+     *            the normalizer the Type was constructed with
+     * @return the shared cache around the normalizer if caching is enabled for the Type class, otherwise the normalizer itself
+     */
+    @SuppressWarnings("unchecked")
+    static <T> Normalizer<T> apply(Class<?> typeClass, Normalizer<T> normalizer) {
+        if (settings.isEmpty() || normalizer == null || normalizer instanceof CachingNormalizer) {
+            return normalizer;
+        }
+        CacheSettings cacheSettings = settings.get(typeClass);
+        if (cacheSettings == null) {
+            return normalizer;
+        }
+        CachingNormalizer<?> cache = caches.computeIfAbsent(typeClass, c -> cacheSettings.create(normalizer));
+        // a Type class constructed with more than one normalizer cannot share a single cache
+        return cache.getDelegate() == normalizer ? (Normalizer<T>) cache : normalizer;
+    }
+    
+    private static class CacheSettings {
+        private final long maximumWeight;
+        private final int maximumKeyLength;
+        private final boolean admissionFilter;
+        
+        private CacheSettings(long maximumWeight, int maximumKeyLength, boolean admissionFilter) {
+            this.maximumWeight = maximumWeight;
+            this.maximumKeyLength = maximumKeyLength;
+            this.admissionFilter = admissionFilter;
+        }
+        
+        private <T> CachingNormalizer<T> create(Normalizer<T> normalizer) {
+            return new CachingNormalizer<>(normalizer, maximumWeight, maximumKeyLength, admissionFilter);
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package datawave.data.type;
 
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 
 public interface Type<T extends Comparable<T>> extends Comparable<Type<T>> {
     
@@ -10,6 +12,48 @@ public interface Type<T extends Comparable<T>> extends Comparable<Type<T>> {
     
     String normalize(String in);
     
+    /**
+     * Normalize a batch of values with this type's normalizer. This default calls {@link #normalize(String)} for each value, and {@link BaseType} overrides it
+     * with the batch path of its normalizer.
+     *
+     * @param in
+     *            the values
+     * @param out
+     *            receives the normalized form of each value at the same index, or null where a value cannot be normalized
+     * @return the number of values which could not be normalized
+     * @throws IllegalArgumentException
+     *             if out is shorter than in
+     * @see datawave.data.normalizer.Normalizer#normalizeAll(String[], String[])
+     */
+    default int normalizeAll(String[] in, String[] out) {
+        if (out.length < in.length) {
+            throw new IllegalArgumentException("Output array of length " + out.length + " cannot hold " + in.length + " values");
+        }
+        int failures = 0;
+        for (int i = 0; i < in.length; i++) {
+            try {
+                out[i] = normalize(in[i]);
+            } catch (IllegalArgumentException e) {
+                out[i] = null;
+                failures++;
+            }
+        }
+        return failures;
+    }
+    
+    /**
+     * Normalize a batch of values with {@link #normalizeAll(String[], String[])}
+     *
+     * @param in
+     *            the values
+     * @return the normalized form of each value at the same index, or null where a value cannot be normalized
+     */
+    default List<String> normalizeAll(List<String> in) {
+        String[] out = new String[in.size()];
+        normalizeAll(in.toArray(new String[0]), out);
+        return Arrays.asList(out);
+    }
+    
     String normalizeRegex(String in);
     
     boolean normalizedRegexIsLossy(String in);
@@ -39,18 +83,31 @@ public interface Type<T extends Comparable<T>> extends Comparable<Type<T>> {
     
     void validate();
     
+    /**
+     * Build the expensive state of this type's normalizer ahead of the first value. This default does nothing.
+     *
+     * @see datawave.data.normalizer.Normalizer#warmUp()
+     */
+    default void warmUp() {}
+    
     class Factory {
         
         private Factory() {
             // private constructor to enforce static access
         }
         
+        /**
+         * Create a new instance of a type class, through the constructor linked once by the {@link TypeRegistry}. Every call returns a new instance, unlike
+         * {@link TypeFactory#createType(String)} which shares one.
+         * 
+         * @param datawaveTypeClassName
+         *            the name of the type class
+         * @return a new instance
+         * @throws IllegalArgumentException
+         *             if the type cannot be created
+         */
         public static Type<?> createType(String datawaveTypeClassName) {
-            try {
-                return (Type<?>) Class.forName(datawaveTypeClassName).getDeclaredConstructor().newInstance();
-            } catch (Exception e) {
-                throw new IllegalArgumentException("Error creating instance of class " + datawaveTypeClassName + ':' + e.getLocalizedMessage(), e);
-            }
+            return TypeRegistry.newInstance(datawaveTypeClassName);
         }
     }
 }
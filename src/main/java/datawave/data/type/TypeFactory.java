@@ -7,20 +7,25 @@ import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
 
 /**
- * TypeFactory that uses an internal loading cache to limit new Type objects
+ * TypeFactory that hands out one shared instance of each {@link Type} class. The shared instances are meant for the methods which do not depend on a value,
+ * such as {@link Type#normalize(String)}, and must never be given a value: use {@link Type.Factory#createType(String)} or a {@link TypePool} for a type which
+ * holds one.
+ * <p>
+ * By default every type class is kept for the life of the factory. A factory can instead be bounded in size and age, in which case an evicted type is created
+ * again the next time it is asked for.
  */
 public class TypeFactory {
     
-    private static final int DEFAULT_SIZE = 32;
-    private static final int DEFAULT_TIMEOUT_MINUTES = 15;
-    
     private final LoadingCache<String,Type<?>> typeCache;
     
     /**
-     * Constructor that uses the default size and timeout
+     * Constructor that keeps every type class for the life of the factory
      */
     public TypeFactory() {
-        this(DEFAULT_SIZE, DEFAULT_TIMEOUT_MINUTES);
+        //  @formatter:off
+        typeCache = CacheBuilder.newBuilder()
+                        .build(loader());
+        //  @formatter:on
     }
     
     /**
@@ -36,22 +41,25 @@ public class TypeFactory {
         typeCache = CacheBuilder.newBuilder()
                         .maximumSize(size)
                         .expireAfterWrite(timeout, TimeUnit.MINUTES)
-                        .build(new CacheLoader<>() {
-                            @Override
-                            public Type<?> load(String className) throws Exception {
-                                Class<?> clazz = Class.forName(className);
-                                return (Type<?>) clazz.getDeclaredConstructor().newInstance();
-                            }
-                        });
+                        .build(loader());
         //  @formatter:on
     }
     
+    private static CacheLoader<String,Type<?>> loader() {
+        return new CacheLoader<>() {
+            @Override
+            public Type<?> load(String className) {
+                return TypeRegistry.newInstance(className);
+            }
+        };
+    }
+    
     /**
-     * Create a {@link Type} for the given class name
+     * Get the shared {@link Type} for the given class name
      * 
      * @param className
      *            the class name
-     * @return the Type
+     * @return the Type, which is the same instance on every call until it is evicted
      */
     public Type<?> createType(String className) {
         try {
@@ -0,0 +1,98 @@
+package datawave.data.type;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reuses one instance of each {@link Type} class for a stream of values, instead of creating a new type for every value. For example, ingest can normalize
+ * every value of a field with:
+ *
+ * <pre>
+ * NumberType type = pool.get(NumberType.class);
+ * type.setDelegateFromString(value);
+ * String normalized = type.getNormalizedValue();
+ * </pre>
+ *
+ * Every call to get returns the same instance for a class, {@link BaseType#reset() reset} so that nothing of the previous value remains. A type obtained from a
+ * pool must therefore not be kept, or handed to anything which keeps it, once the next value of its class is requested.
+ * <p>
+ * A pool is not thread safe and is meant to be confined to one thread, such as by creating one per ingest task.
+ */
+public class TypePool {
+    
+    private final Map<Class<?>,BaseType<?>> types = new HashMap<>();
+    private final Map<String,BaseType<?>> typesByName = new HashMap<>();
+    
+    /**
+     * Get the pooled instance of a type class, reset for a new value
+     *
+     * @param typeClass
+     *            the type class, which must have a public no argument constructor
+     * @param <T>
+     *            the type
+     * @return the instance for this pool
+     * @throws IllegalArgumentException
+     *             if the type cannot be created
+     */
+    public <T extends BaseType<?>> T get(Class<T> typeClass) {
+        BaseType<?> type = types.get(typeClass);
+        if (type == null) {
+            type = create(typeClass.getName());
+            types.put(typeClass, type);
+        } else {
+            type.reset();
+        }
+        return typeClass.cast(type);
+    }
+    
+    /**
+     * Get the pooled instance of a type class by name, reset for a new value
+     *
+     * @param typeClassName
+     *            the name of the type class, as given to {@link Type.Factory#createType(String)}
+     * @return the instance for this pool
+     * @throws IllegalArgumentException
+     *             if the type cannot be created
+     */
+    public BaseType<?> get(String typeClassName) {
+        BaseType<?> type = typesByName.get(typeClassName);
+        if (type == null) {
+            type = create(typeClassName);
+            // share the instance with get(Class) if that already pooled one
+            BaseType<?> pooled = types.putIfAbsent(type.getClass(), type);
+            if (pooled != null) {
+                type = pooled;
+                type.reset();
+            }
+            typesByName.put(typeClassName, type);
+        } else {
+            type.reset();
+        }
+        return type;
+    }
+    
+    private static BaseType<?> create(String typeClassName) {
+        Type<?> type = Type.Factory.createType(typeClassName);
+        if (!(type instanceof BaseType)) {
+            throw new IllegalArgumentException(typeClassName + " does not extend " + BaseType.class.getName() + " and cannot be reset");
+        }
+        return (BaseType<?>) type;
+    }
+    
+    /**
+     * Get the number of type classes in this pool
+     *
+     * @return the number of pooled instances
+     */
+    public int size() {
+        return types.size();
+    }
+    
+    /**
+     * Drop every pooled instance
+     */
+    public void clear() {
+        types.clear();
+        typesByName.clear();
+    }
+}
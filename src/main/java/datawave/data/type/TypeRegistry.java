@@ -0,0 +1,437 @@
+package datawave.data.type;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.CharMatcher;
+import com.google.common.base.Splitter;
+
+import datawave.data.normalizer.Normalizer;
+
+/**
+ * A registry of {@link Type} constructors. The no argument constructor of each type class is linked once into a {@link Supplier} generated with
+ * {@link LambdaMetafactory}, so creating a type afterwards costs no more than calling its constructor directly: no class lookup and no reflection.
+ * <p>
+ * The types of this module are instead created with a plain constructor call from a table of their class names, which neither loads a class by name nor spins
+ * a class for its constructor, and so costs the least at startup. Types from other modules are linked as above.
+ * <p>
+ * Constructors are held per class in a {@link ClassValue}, which goes away with its class, so a type of another module never pins its class loader. The
+ * constructors of the types of this module are also held by name, and the classes of other modules are held by name through weak references, so a lookup
+ * by name only loads a class with {@link Class#forName} the first time, or again after its class loader has gone away. A class which cannot be linked this
+ * way, such as one whose constructor is not public, falls back to reflection with the same access checks as before.
+ * <p>
+ * Every supplier creates a new instance on each call. Sharing one instance per class is left to the {@link TypeFactory}.
+ * <p>
+ * The types configured for a deployment can be {@link #warmUp(String) warmed up} as it starts, so that the first query does not pay for loading their classes
+ * and building the state of their normalizers.
+ */
+public final class TypeRegistry {
+    
+    // only the types of this module, so that the map never holds a class of another class loader
+    private static final Map<String,Supplier<Type<?>>> knownConstructors = new ConcurrentHashMap<>();
+    // the linked types of other modules, held weakly so that the map never pins their class loaders
+    private static final Map<String,WeakReference<Class<?>>> linkedClasses = new ConcurrentHashMap<>();
+    
+    // AtomicLong rather than LongAdder, which is not loaded by the JVM itself and costs a millisecond to initialize
+    private static final AtomicLong known = new AtomicLong();
+    private static final AtomicLong linked = new AtomicLong();
+    private static final AtomicLong reflective = new AtomicLong();
+    private static final AtomicLong linkNanos = new AtomicLong();
+    private static final AtomicLong nameLookups = new AtomicLong();
+    private static final AtomicLong nameMisses = new AtomicLong();
+    
+    private TypeRegistry() {
+        // private constructor to enforce static access
+    }
+    
+    /**
+     * Get the constructor of a type class
+     *
+     * @param typeClass
+     *            the type class
+     * @return a supplier of new instances
+     * @throws IllegalArgumentException
+     *             if the class is not a concrete {@link Type} with a no argument constructor
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends Type<?>> Supplier<T> constructorOf(Class<T> typeClass) {
+        return (Supplier<T>) Linked.constructors.get(typeClass);
+    }
+    
+    /**
+     * Get the constructor of a type class by name. A type of this module is found without loading its class by name, and any other type class is only
+     * loaded by name on the first call.
+     *
+     * @param typeClassName
+     *            the name of the type class
+     * @return a supplier of new instances
+     * @throws IllegalArgumentException
+     *             if the class cannot be found or is not a concrete {@link Type} with a no argument constructor
+     */
+    public static Supplier<Type<?>> constructorOf(String typeClassName) {
+        nameLookups.incrementAndGet();
+        Supplier<Type<?>> constructor = knownConstructors.get(typeClassName);
+        if (constructor == null) {
+            constructor = registerKnown(typeClassName);
+        }
+        if (constructor == null) {
+            constructor = linkedConstructorOf(typeClassName);
+        }
+        return constructor;
+    }
+    
+    /**
+     * Get the constructor of a type of another module, loading its class by name unless it is still held from an earlier lookup
+     */
+    private static Supplier<Type<?>> linkedConstructorOf(String typeClassName) {
+        WeakReference<Class<?>> reference = linkedClasses.get(typeClassName);
+        Class<?> typeClass = (reference == null ? null : reference.get());
+        if (typeClass != null) {
+            return Linked.constructors.get(typeClass);
+        }
+        nameMisses.incrementAndGet();
+        typeClass = loadClass(typeClassName);
+        Supplier<Type<?>> constructor = Linked.constructors.get(typeClass);
+        // only once linked, so that a name which is not a type is not held
+        linkedClasses.put(typeClassName, new WeakReference<>(typeClass));
+        return constructor;
+    }
+    
+    /**
+     * Create a new instance of a type class
+     *
+     * @param typeClassName
+     *            the name of the type class
+     * @return the new instance
+     * @throws IllegalArgumentException
+     *             if the type cannot be created
+     */
+    public static Type<?> newInstance(String typeClassName) {
+        return constructorOf(typeClassName).get();
+    }
+    
+    /**
+     * Create a new instance of a type class
+     *
+     * @param typeClass
+     *            the type class
+     * @param <T>
+     *            the type
+     * @return the new instance
+     * @throws IllegalArgumentException
+     *             if the type cannot be created
+     */
+    public static <T extends Type<?>> T newInstance(Class<T> typeClass) {
+        return constructorOf(typeClass).get();
+    }
+    
+    /**
+     * Register the constructor of a type of this module. A plain putIfAbsent rather than computeIfAbsent, since this runs as the first types are created and
+     * the first lambda in a JVM is costly.
+     *
+     * @return the registered constructor, or null if the name is not a type of this module
+     */
+    private static Supplier<Type<?>> registerKnown(String typeClassName) {
+        Supplier<Type<?>> constructor = KnownTypes.constructorOf(typeClassName);
+        if (constructor == null) {
+            return null;
+        }
+        Supplier<Type<?>> registered = knownConstructors.putIfAbsent(typeClassName, constructor);
+        if (registered != null) {
+            return registered;
+        }
+        known.incrementAndGet();
+        return constructor;
+    }
+    
+    private static Class<?> loadClass(String typeClassName) {
+        try {
+            return Class.forName(typeClassName);
+        } catch (ClassNotFoundException | LinkageError e) {
+            throw new IllegalArgumentException("Error creating instance of class " + typeClassName + ':' + e.getLocalizedMessage(), e);
+        }
+    }
+    
+    @SuppressWarnings("unchecked")
+    private static Supplier<Type<?>> link(Class<?> typeClass) {
+        if (!Type.class.isAssignableFrom(typeClass)) {
+            throw new IllegalArgumentException("Error creating instance of class " + typeClass.getName() + ": not a " + Type.class.getName());
+        }
+        if (typeClass.isInterface() || Modifier.isAbstract(typeClass.getModifiers())) {
+            throw new IllegalArgumentException("Error creating instance of class " + typeClass.getName() + ": abstract");
+        }
+        if (KnownTypes.isKnown(typeClass)) {
+            // share the constructor with lookups by name
+            Supplier<Type<?>> constructor = knownConstructors.get(typeClass.getName());
+            return constructor == null ? registerKnown(typeClass.getName()) : constructor;
+        }
+        long start = System.nanoTime();
+        Constructor<?> constructor;
+        try {
+            constructor = typeClass.getDeclaredConstructor();
+        } catch (NoSuchMethodException e) {
+            throw new IllegalArgumentException("Error creating instance of class " + typeClass.getName() + ": no constructor without arguments", e);
+        }
+        Supplier<Type<?>> supplier = null;
+        if (Modifier.isPublic(typeClass.getModifiers()) && Modifier.isPublic(constructor.getModifiers())) {
+            try {
+                // link in the type's own class loader and package, so types from any class loader can be resolved by the generated class
+                MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(typeClass, MethodHandles.lookup());
+                MethodHandle handle = lookup.unreflectConstructor(constructor);
+                CallSite site = LambdaMetafactory.metafactory(lookup, "get", MethodType.methodType(Supplier.class), MethodType.methodType(Object.class),
+                                handle, MethodType.methodType(typeClass));
+                supplier = (Supplier<Type<?>>) site.getTarget().invoke();
+            } catch (Throwable e) {
+                // such as a type in a module which does not open its package, fall back to reflection below
+                supplier = null;
+            }
+        }
+        if (supplier == null) {
+            supplier = () -> {
+                try {
+                    return (Type<?>) constructor.newInstance();
+                } catch (ReflectiveOperationException e) {
+                    throw new IllegalArgumentException("Error creating instance of class " + typeClass.getName() + ':' + e.getLocalizedMessage(), e);
+                }
+            };
+            reflective.incrementAndGet();
+        }
+        linked.incrementAndGet();
+        linkNanos.addAndGet(System.nanoTime() - start);
+        return supplier;
+    }
+    
+    /**
+     * Holds the linked constructors, so that creating only the types of this module never loads the {@link ClassValue}
+     */
+    private static final class Linked {
+        
+        private static final ClassValue<Supplier<Type<?>>> constructors = new ClassValue<Supplier<Type<?>>>() {
+            @Override
+            protected Supplier<Type<?>> computeValue(Class<?> typeClass) {
+                return link(typeClass);
+            }
+        };
+    }
+    
+    /**
+     * Warm up a configured list of types on a background thread
+     *
+     * @param typeClassNames
+     *            the names of the type classes, separated by commas or whitespace
+     * @return the report, completed once every type has been warmed up
+     * @see #warmUp(Collection)
+     */
+    public static CompletableFuture<WarmUpReport> warmUp(String typeClassNames) {
+        return warmUp(Splitter.on(CharMatcher.is(',').or(CharMatcher.whitespace())).omitEmptyStrings().splitToList(typeClassNames));
+    }
+    
+    /**
+     * Warm up types on a background thread, as {@link #warmUpNow(Collection)} does. The report is also logged once the warm up is done.
+     *
+     * @param typeClassNames
+     *            the names of the type classes
+     * @return the report, completed once every type has been warmed up
+     */
+    public static CompletableFuture<WarmUpReport> warmUp(Collection<String> typeClassNames) {
+        List<String> names = new ArrayList<>(typeClassNames);
+        return CompletableFuture.supplyAsync(() -> {
+            WarmUpReport report = warmUpNow(names);
+            Logger log = LoggerFactory.getLogger(TypeRegistry.class);
+            if (report.isSuccess()) {
+                log.info("Warmed up {}", report);
+            } else {
+                log.warn("Warmed up {}", report);
+            }
+            return report;
+        }, runnable -> {
+            Thread thread = new Thread(runnable, "type-registry-warm-up");
+            thread.setDaemon(true);
+            thread.start();
+        });
+    }
+    
+    /**
+     * Warm up types on the calling thread. Each type is created through this registry, which loads its class and links its constructor, and then its
+     * normalizer is {@link Normalizer#warmUp() warmed up}. State which a normalizer keeps per thread, such as the GeoWave index strategies of the geometry
+     * normalizers, is only built for the calling thread, so a fixed pool of workers may call this from each worker as it starts. A type which fails is
+     * reported and does not stop the others.
+     *
+     * @param typeClassNames
+     *            the names of the type classes
+     * @return the time taken by each type, and the failures
+     */
+    public static WarmUpReport warmUpNow(Collection<String> typeClassNames) {
+        Map<String,Long> nanos = new LinkedHashMap<>();
+        Map<String,Throwable> failures = new LinkedHashMap<>();
+        for (String typeClassName : typeClassNames) {
+            long start = System.nanoTime();
+            try {
+                newInstance(typeClassName).warmUp();
+            } catch (RuntimeException | LinkageError e) {
+                failures.put(typeClassName, e);
+            }
+            nanos.put(typeClassName, System.nanoTime() - start);
+        }
+        return new WarmUpReport(nanos, failures);
+    }
+    
+    /**
+     * Get the current statistics of this registry
+     *
+     * @return a snapshot of the statistics
+     */
+    public static Stats getStats() {
+        return new Stats(known.get(), linked.get(), reflective.get(), linkNanos.get(), nameLookups.get(), nameMisses.get());
+    }
+    
+    /**
+     * A snapshot of the statistics of the registry
+     */
+    public static final class Stats {
+        
+        private final long knownCount;
+        private final long linkedCount;
+        private final long reflectiveCount;
+        private final long linkNanos;
+        private final long nameLookupCount;
+        private final long nameMissCount;
+        
+        Stats(long knownCount, long linkedCount, long reflectiveCount, long linkNanos, long nameLookupCount, long nameMissCount) {
+            this.knownCount = knownCount;
+            this.linkedCount = linkedCount;
+            this.reflectiveCount = reflectiveCount;
+            this.linkNanos = linkNanos;
+            this.nameLookupCount = nameLookupCount;
+            this.nameMissCount = nameMissCount;
+        }
+        
+        /**
+         * @return the number of constructors of types of this module, which are called directly rather than linked
+         */
+        public long getKnownCount() {
+            return knownCount;
+        }
+        
+        /**
+         * @return the number of type constructors linked
+         */
+        public long getLinkedCount() {
+            return linkedCount;
+        }
+        
+        /**
+         * @return the number of linked constructors which fell back to reflection
+         */
+        public long getReflectiveCount() {
+            return reflectiveCount;
+        }
+        
+        /**
+         * @return the total time spent linking constructors, in nanoseconds
+         */
+        public long getLinkNanos() {
+            return linkNanos;
+        }
+        
+        /**
+         * @return the number of constructors looked up by class name
+         */
+        public long getNameLookupCount() {
+            return nameLookupCount;
+        }
+        
+        /**
+         * @return the number of lookups by class name which loaded the class by name, as the name was not a type of this module and its class was not held
+         */
+        public long getNameMissCount() {
+            return nameMissCount;
+        }
+        
+        @Override
+        public String toString() {
+            return "TypeRegistry.Stats[known=" + knownCount + ", linked=" + linkedCount + ", reflective=" + reflectiveCount + ", linkMillis="
+                            + linkNanos / 1_000_000 + ", nameLookups=" + nameLookupCount + ", nameMisses=" + nameMissCount + "]";
+        }
+    }
+    
+    /**
+     * The time taken to warm up each type, in the order they were warmed up, and the types which failed
+     */
+    public static final class WarmUpReport {
+        
+        private final Map<String,Long> nanos;
+        private final Map<String,Throwable> failures;
+        
+        WarmUpReport(Map<String,Long> nanos, Map<String,Throwable> failures) {
+            this.nanos = Collections.unmodifiableMap(nanos);
+            this.failures = Collections.unmodifiableMap(failures);
+        }
+        
+        /**
+         * @return the time taken by each type class name, in nanoseconds, including the types which failed
+         */
+        public Map<String,Long> getNanos() {
+            return nanos;
+        }
+        
+        /**
+         * @return the total time taken, in nanoseconds
+         */
+        public long getTotalNanos() {
+            long total = 0;
+            for (long typeNanos : nanos.values()) {
+                total += typeNanos;
+            }
+            return total;
+        }
+        
+        /**
+         * @return the error of each type class name which could not be warmed up
+         */
+        public Map<String,Throwable> getFailures() {
+            return failures;
+        }
+        
+        /**
+         * @return true if every type was warmed up
+         */
+        public boolean isSuccess() {
+            return failures.isEmpty();
+        }
+        
+        @Override
+        public String toString() {
+            StringBuilder builder = new StringBuilder("TypeRegistry.WarmUpReport[");
+            builder.append(nanos.size()).append(" types in ").append(TimeUnit.NANOSECONDS.toMillis(getTotalNanos())).append("ms");
+            for (Map.Entry<String,Long> entry : nanos.entrySet()) {
+                builder.append(", ").append(entry.getKey()).append('=').append(TimeUnit.NANOSECONDS.toMillis(entry.getValue())).append("ms");
+                Throwable failure = failures.get(entry.getKey());
+                if (failure != null) {
+                    builder.append(" failed: ").append(failure);
+                }
+            }
+            return builder.append(']').toString();
+        }
+    }
+}
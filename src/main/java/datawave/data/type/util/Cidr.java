@@ -0,0 +1,161 @@
+package datawave.data.type.util;
+
+import java.io.Serializable;
+
+/**
+ * A CIDR block of IpV4 or IpV6 addresses, such as 10.1.0.0/16 or 2001:db8::/32. The block is held as its first address and prefix length, so any host bits
+ * given in the parsed form are cleared.
+ */
+public final class Cidr implements Serializable, Comparable<Cidr> {
+    private static final long serialVersionUID = 2937764950137423671L;
+    
+    private final IpAddress startIp;
+    private final int prefixLength;
+    
+    private Cidr(IpAddress startIp, int prefixLength) {
+        this.startIp = startIp;
+        this.prefixLength = prefixLength;
+    }
+    
+    /**
+     * Parse a CIDR block. An address without a prefix length is a block of that one address.
+     *
+     * @param cidr
+     *            the block, such as 10.1.0.0/16
+     * @return the block
+     * @throws IllegalArgumentException
+     *             if the address or prefix length cannot be parsed
+     */
+    public static Cidr parse(String cidr) {
+        int slash = cidr.indexOf('/');
+        IpAddress address = IpAddress.tryParse(slash < 0 ? cidr : cidr.substring(0, slash));
+        if (address == null) {
+            throw new IllegalArgumentException("Failed to parse " + cidr + " as a CIDR block");
+        }
+        int maxLength = maxPrefixLength(address);
+        int prefixLength = maxLength;
+        if (slash >= 0) {
+            String length = cidr.substring(slash + 1);
+            boolean digits = !length.isEmpty() && length.length() <= 3 && length.chars().allMatch(c -> c >= '0' && c <= '9');
+            prefixLength = (digits ? Integer.parseInt(length) : -1);
+            if (prefixLength < 0 || prefixLength > maxLength) {
+                throw new IllegalArgumentException("Prefix length of " + cidr + " is not between 0 and " + maxLength);
+            }
+        }
+        return new Cidr(address.getStartIp(prefixLength), prefixLength);
+    }
+    
+    /**
+     * Get the block of the given length which contains an address
+     *
+     * @param address
+     *            the address
+     * @param prefixLength
+     *            the prefix length, up to 32 for IpV4 and 128 for IpV6
+     * @return the block
+     */
+    public static Cidr of(IpAddress address, int prefixLength) {
+        if (prefixLength < 0 || prefixLength > maxPrefixLength(address)) {
+            throw new IllegalArgumentException("Prefix length " + prefixLength + " is not between 0 and " + maxPrefixLength(address));
+        }
+        return new Cidr(address.getStartIp(prefixLength), prefixLength);
+    }
+    
+    private static int maxPrefixLength(IpAddress address) {
+        return (address instanceof IpV6Address ? 128 : 32);
+    }
+    
+    public IpAddress getStartIp() {
+        return startIp;
+    }
+    
+    public IpAddress getEndIp() {
+        return startIp.getEndIp(prefixLength);
+    }
+    
+    public int getPrefixLength() {
+        return prefixLength;
+    }
+    
+    public boolean isIpV6() {
+        return startIp instanceof IpV6Address;
+    }
+    
+    /**
+     * Determine whether an address is in this block. An address is only in a block of its own family.
+     *
+     * @param address
+     *            the address
+     * @return true if the address is in the block
+     */
+    public boolean contains(IpAddress address) {
+        if ((address instanceof IpV6Address) != isIpV6()) {
+            return false;
+        }
+        if (isIpV6()) {
+            return (high(address) & IpV6Address.mask(prefixLength)) == high(startIp) && (low(address) & IpV6Address.mask(prefixLength - 64)) == low(startIp);
+        }
+        return (low(address) & (IpV6Address.mask(prefixLength) >>> 32)) == low(startIp);
+    }
+    
+    /**
+     * Get the high 64 bits of the last address of this block as an unsigned 128 bit value
+     */
+    long endHigh() {
+        return high(startIp) | (isIpV6() ? ~IpV6Address.mask(prefixLength) : 0);
+    }
+    
+    /**
+     * Get the low 64 bits of the last address of this block as an unsigned 128 bit value
+     */
+    long endLow() {
+        return low(startIp) | (isIpV6() ? ~IpV6Address.mask(prefixLength - 64) : ~IpV6Address.mask(prefixLength) >>> 32);
+    }
+    
+    /**
+     * Get the high 64 bits of an address as an unsigned 128 bit value, which are always 0 for IpV4
+     */
+    static long high(IpAddress address) {
+        return (address instanceof IpV6Address ? ((IpV6Address) address).getHigh() : 0);
+    }
+    
+    /**
+     * Get the low 64 bits of an address as an unsigned 128 bit value
+     */
+    static long low(IpAddress address) {
+        return (address instanceof IpV6Address ? ((IpV6Address) address).getLow() : ((IpV4Address) address).toNumber());
+    }
+    
+    /**
+     * Orders blocks by family, IpV4 first, then by first address and then with the larger block first
+     */
+    @Override
+    public int compareTo(Cidr o) {
+        int comparison = Boolean.compare(isIpV6(), o.isIpV6());
+        if (comparison == 0) {
+            comparison = Long.compareUnsigned(high(startIp), high(o.startIp));
+        }
+        if (comparison == 0) {
+            comparison = Long.compareUnsigned(low(startIp), low(o.startIp));
+        }
+        return (comparison != 0 ? comparison : Integer.compare(prefixLength, o.prefixLength));
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (o instanceof Cidr) {
+            return compareTo((Cidr) o) == 0;
+        }
+        return false;
+    }
+    
+    @Override
+    public int hashCode() {
+        return 31 * startIp.hashCode() + prefixLength;
+    }
+    
+    @Override
+    public String toString() {
+        return startIp + "/" + prefixLength;
+    }
+}
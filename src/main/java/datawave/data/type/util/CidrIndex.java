@@ -0,0 +1,158 @@
+package datawave.data.type.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An immutable index of CIDR blocks for matching many addresses against many blocks, such as a watch list. An IpV4 address only matches IpV4 blocks and an
+ * IpV6 address only IpV6 blocks.
+ * <p>
+ * The blocks of each family are kept as arrays of their first and last addresses, sorted by first address with the larger of two blocks with the same first
+ * address first, along with the nearest enclosing block of each. Two CIDR blocks are either disjoint or one contains the other, so the blocks containing an
+ * address are exactly the enclosing blocks of the last block starting at or before it. A lookup is therefore a binary search followed by a walk out through
+ * at most one enclosing block per prefix length.
+ * <p>
+ * An index is safe for any number of concurrent readers.
+ */
+public final class CidrIndex {
+    
+    private final Blocks ipV4;
+    private final Blocks ipV6;
+    
+    /**
+     * Build an index
+     *
+     * @param cidrs
+     *            the CIDR blocks, such as 10.1.0.0/16, in any order and possibly repeated
+     * @throws IllegalArgumentException
+     *             if a block cannot be parsed
+     */
+    public CidrIndex(Iterable<String> cidrs) {
+        List<Cidr> ipV4Blocks = new ArrayList<>();
+        List<Cidr> ipV6Blocks = new ArrayList<>();
+        for (String cidr : cidrs) {
+            Cidr block = Cidr.parse(cidr);
+            (block.isIpV6() ? ipV6Blocks : ipV4Blocks).add(block);
+        }
+        this.ipV4 = new Blocks(ipV4Blocks);
+        this.ipV6 = new Blocks(ipV6Blocks);
+    }
+    
+    /**
+     * Get the number of distinct blocks in the index
+     *
+     * @return the number of blocks
+     */
+    public int size() {
+        return ipV4.cidrs.length + ipV6.cidrs.length;
+    }
+    
+    /**
+     * Determine whether any block contains an address
+     *
+     * @param address
+     *            the address
+     * @return true if the address is in a block
+     */
+    public boolean contains(IpAddress address) {
+        return longestMatch(address) != null;
+    }
+    
+    /**
+     * Determine whether any block contains an address, in its normalized or any other parsable form
+     *
+     * @param address
+     *            the address
+     * @return true if the value is an address in a block
+     */
+    public boolean contains(String address) {
+        IpAddress ipaddress = IpAddress.tryParse(address);
+        return ipaddress != null && contains(ipaddress);
+    }
+    
+    /**
+     * Get the smallest block which contains an address
+     *
+     * @param address
+     *            the address
+     * @return the block with the longest prefix containing the address, or null if no block contains it
+     */
+    public Cidr longestMatch(IpAddress address) {
+        Blocks blocks = (address instanceof IpV6Address ? ipV6 : ipV4);
+        return blocks.longestMatch(Cidr.high(address), Cidr.low(address));
+    }
+    
+    /**
+     * The blocks of one family, with addresses as unsigned 128 bit values split into high and low longs
+     */
+    private static final class Blocks {
+        
+        private final Cidr[] cidrs;
+        private final long[] startHigh;
+        private final long[] startLow;
+        private final long[] endHigh;
+        private final long[] endLow;
+        // the index of the nearest enclosing block, or -1
+        private final int[] parents;
+        
+        Blocks(List<Cidr> blocks) {
+            Collections.sort(blocks);
+            List<Cidr> distinct = new ArrayList<>(blocks.size());
+            for (Cidr block : blocks) {
+                if (distinct.isEmpty() || !distinct.get(distinct.size() - 1).equals(block)) {
+                    distinct.add(block);
+                }
+            }
+            int size = distinct.size();
+            this.cidrs = distinct.toArray(new Cidr[size]);
+            this.startHigh = new long[size];
+            this.startLow = new long[size];
+            this.endHigh = new long[size];
+            this.endLow = new long[size];
+            this.parents = new int[size];
+            
+            // the enclosing blocks of the previous block, innermost last
+            int[] enclosing = new int[size];
+            int depth = 0;
+            for (int i = 0; i < size; i++) {
+                startHigh[i] = Cidr.high(cidrs[i].getStartIp());
+                startLow[i] = Cidr.low(cidrs[i].getStartIp());
+                endHigh[i] = cidrs[i].endHigh();
+                endLow[i] = cidrs[i].endLow();
+                while (depth > 0 && compare(startHigh[i], startLow[i], endHigh[enclosing[depth - 1]], endLow[enclosing[depth - 1]]) > 0) {
+                    depth--;
+                }
+                parents[i] = (depth > 0 ? enclosing[depth - 1] : -1);
+                enclosing[depth++] = i;
+            }
+        }
+        
+        Cidr longestMatch(long high, long low) {
+            // find the last block starting at or before the address
+            int lo = 0;
+            int hi = cidrs.length - 1;
+            int found = -1;
+            while (lo <= hi) {
+                int mid = (lo + hi) >>> 1;
+                if (compare(startHigh[mid], startLow[mid], high, low) <= 0) {
+                    found = mid;
+                    lo = mid + 1;
+                } else {
+                    hi = mid - 1;
+                }
+            }
+            for (int i = found; i >= 0; i = parents[i]) {
+                if (compare(high, low, endHigh[i], endLow[i]) <= 0) {
+                    return cidrs[i];
+                }
+            }
+            return null;
+        }
+        
+        private static int compare(long high1, long low1, long high2, long low2) {
+            int comparison = Long.compareUnsigned(high1, high2);
+            return (comparison != 0 ? comparison : Long.compareUnsigned(low1, low2));
+        }
+    }
+}
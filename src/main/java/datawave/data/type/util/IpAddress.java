@@ -19,18 +19,49 @@ public abstract class IpAddress implements Serializable, Comparable<IpAddress> {
     
     public abstract IpAddress getEndIp(int validBits);
     
+    /**
+     * Get the address which follows this one in the same family
+     * 
+     * @return the next address, or null if this is the last address of its family
+     * @throws IllegalArgumentException
+     *             if this address contains a wildcard
+     */
+    public abstract IpAddress getNextIp();
+    
+    /**
+     * Get the address which precedes this one in the same family
+     * 
+     * @return the previous address, or null if this is the first address of its family
+     * @throws IllegalArgumentException
+     *             if this address contains a wildcard
+     */
+    public abstract IpAddress getPreviousIp();
+    
     /**
      * Parse an address and return an appropriate representation
      * 
      * @param address
      * @return An IpV4 or IpV6 address
+     * @throws IllegalArgumentException
+     *             if it cannot be parsed
      */
     public static IpAddress parse(String address) {
-        try {
-            return IpV4Address.parse(address);
-        } catch (IllegalArgumentException iae) {
-            return IpV6Address.parse(address);
+        IpAddress ipaddress = tryParse(address);
+        if (ipaddress == null) {
+            throw new IllegalArgumentException("Failed to parse " + address + " as an IP address");
         }
+        return ipaddress;
+    }
+    
+    /**
+     * Parse an address and return an appropriate representation, without throwing an exception for a value which is not an address. An address containing a
+     * ':' is parsed as IpV6, and any other as IpV4.
+     * 
+     * @param address
+     * @return An IpV4 or IpV6 address, or null if it cannot be parsed
+     */
+    public static IpAddress tryParse(String address) {
+        return address == null ? null : IpAddressParser.parse(address);
     }
     
     @Override
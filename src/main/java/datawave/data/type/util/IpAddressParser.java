@@ -0,0 +1,299 @@
+package datawave.data.type.util;
+
+/**
+ * Single pass scanners for the IpV4 and IpV6 address forms. The scanners work on character ranges of the input, so no intermediate strings are created, and
+ * report a failure as a return value instead of throwing.
+ * <p>
+ * The accepted forms are exactly those of the original split based parsers: an IpV4 address is tried as dotted and then as a single number in radix 10, 16,
+ * 8 and finally with {@link Integer#decode(String)} prefixes, and an IpV6 address may contain a "::" filler and end with an IpV4 address.
+ */
+final class IpAddressParser {
+    
+    /**
+     * The result of a failed IpV4 scan
+     */
+    static final long FAILED = -1L;
+    
+    private static final int[] RADIXES = {10, 16, 8, 0};
+    
+    // layout of a successful IpV4 scan: the address in the low 32 bits, and the wildcard location plus one above it
+    private static final int WILDCARD_SHIFT = 32;
+    
+    private IpAddressParser() {}
+    
+    /**
+     * Parse an address, classifying it as IpV6 if it contains a ':' and as IpV4 otherwise. An IpV4 wildcard ignores any parts after the fourth, so a value
+     * with both a ':' and a '*' is tried as IpV4 first, as it always has been.
+     * 
+     * @param address
+     *            the address
+     * @return the address, or null if it cannot be parsed
+     */
+    static IpAddress parse(CharSequence address) {
+        int end = address.length();
+        if (indexOf(address, ':', 0, end) < 0) {
+            return parseIpV4(address, 0, end);
+        }
+        if (indexOf(address, '*', 0, end) >= 0) {
+            IpV4Address ipaddress = parseIpV4(address, 0, end);
+            if (ipaddress != null) {
+                return ipaddress;
+            }
+        }
+        return parseIpV6(address, 0, end);
+    }
+    
+    /**
+     * Parse an IpV4 address, trying each radix in turn
+     * 
+     * @return the address, or null if it cannot be parsed
+     */
+    static IpV4Address parseIpV4(CharSequence address, int start, int end) {
+        return toIpV4Address(address, start, end, scanIpV4(address, start, end));
+    }
+    
+    /**
+     * Parse an IpV4 address in a single radix and form
+     * 
+     * @param radix
+     *            10, 16 or 8, or 0 for {@link Integer#decode(String)} prefixes
+     * @return the address, or null if it cannot be parsed
+     */
+    static IpV4Address parseIpV4(CharSequence address, int radix, boolean dotted) {
+        int end = address.length();
+        long scanned;
+        if (dotted) {
+            scanned = scanDotted(address, 0, end, radix, count(address, '.', 0, end) + 1, indexOf(address, '*', 0, end) >= 0);
+        } else {
+            scanned = parseNumber(address, 0, end, radix, 0xFFFFFFFFL);
+        }
+        return toIpV4Address(address, 0, end, scanned);
+    }
+    
+    /**
+     * Scan an IpV4 address, trying the dotted and then the single number form in radix 10, 16, 8 and 0
+     * 
+     * @return the packed address, or {@link #FAILED}
+     */
+    static long scanIpV4(CharSequence address, int start, int end) {
+        int parts = count(address, '.', start, end) + 1;
+        boolean wildcard = indexOf(address, '*', start, end) >= 0;
+        // without a wildcard the dotted form needs exactly 4 parts, and a single number can contain neither a '.' nor a '*'
+        boolean dotted = parts == 4 || wildcard;
+        boolean undotted = parts == 1 && !wildcard;
+        for (int radix : RADIXES) {
+            if (dotted) {
+                long scanned = scanDotted(address, start, end, radix, parts, wildcard);
+                if (scanned != FAILED) {
+                    return scanned;
+                }
+            }
+            if (undotted) {
+                long scanned = parseNumber(address, start, end, radix, 0xFFFFFFFFL);
+                if (scanned != FAILED) {
+                    return scanned;
+                }
+            }
+        }
+        return FAILED;
+    }
+    
+    private static IpV4Address toIpV4Address(CharSequence address, int start, int end, long scanned) {
+        if (scanned == FAILED) {
+            return null;
+        }
+        int wildcardLoc = (int) (scanned >>> WILDCARD_SHIFT) - 1;
+        int numOctets = wildcardLoc < 0 ? 4 : count(address, '.', start, end) + 1;
+        return new IpV4Address((int) scanned, wildcardLoc, numOctets);
+    }
+    
+    /**
+     * Scan the dotted form. With a wildcard any number of parts is accepted, and the first missing, empty or "*" part is marked as the wildcard.
+     */
+    private static long scanDotted(CharSequence address, int start, int end, int radix, int parts, boolean wildcard) {
+        if (parts != 4 && !wildcard) {
+            return FAILED;
+        }
+        int maxDigits = (radix == 10 ? 3 : (radix == 16 ? 2 : 4));
+        long value = 0;
+        int wildcardLoc = -1;
+        int partStart = start;
+        for (int i = 0; i < 4; i++) {
+            int octet = 0;
+            if (i >= parts) {
+                if (wildcardLoc < 0) {
+                    wildcardLoc = i;
+                }
+            } else {
+                int partEnd = indexOf(address, '.', partStart, end);
+                if (partEnd < 0) {
+                    partEnd = end;
+                }
+                int length = partEnd - partStart;
+                if (wildcard) {
+                    if (length == 0 || (length == 1 && address.charAt(partStart) == '*')) {
+                        if (wildcardLoc < 0) {
+                            wildcardLoc = i;
+                        }
+                    } else {
+                        octet = (int) parseNumber(address, partStart, partEnd, radix, 0xFF);
+                    }
+                } else if (length > maxDigits) {
+                    return FAILED;
+                } else if (length > 0) {
+                    octet = (int) parseNumber(address, partStart, partEnd, radix, 0xFF);
+                }
+                if (octet < 0) {
+                    return FAILED;
+                }
+                partStart = partEnd + 1;
+            }
+            value = (value << 8) | octet;
+        }
+        if (wildcard) {
+            // the wildcard location defaults to the first octet when every octet is present
+            value |= (long) (Math.max(wildcardLoc, 0) + 1) << WILDCARD_SHIFT;
+        }
+        return value;
+    }
+    
+    /**
+     * Parse an IpV6 address
+     * 
+     * @return the address, or null if it cannot be parsed
+     */
+    static IpV6Address parseIpV6(CharSequence address, int start, int end) {
+        int parts = count(address, ':', start, end) + 1;
+        if (parts > 8) {
+            return null;
+        }
+        // if less than 8 parts, then there must be a "::" somewhere in there or an IPv4 address at the end
+        boolean expectFiller = indexOf(address, "::", start, end) >= 0;
+        boolean expectIpv4 = indexOf(address, '.', start, end) >= 0;
+        if (expectIpv4 && (expectFiller ? parts > 7 : parts != 7)) {
+            return null;
+        }
+        
+        long high = 0;
+        long low = 0;
+        int partStart = start;
+        for (int i = 0, index = 0; i < 8; i++, index++) {
+            if (index >= parts) {
+                return null;
+            }
+            int partEnd = indexOf(address, ':', partStart, end);
+            if (partEnd < 0) {
+                partEnd = end;
+            }
+            if (i == 6 && expectIpv4) {
+                long scanned = scanIpV4(address, partStart, partEnd);
+                if (scanned == FAILED) {
+                    return null;
+                }
+                low |= scanned & 0xFFFFFFFFL;
+                i++;
+            } else if (partStart == partEnd && expectFiller) {
+                i += (8 - parts);
+                if (expectIpv4) {
+                    i--;
+                }
+                // can only have one of these
+                expectFiller = false;
+            } else {
+                long value = (partStart < partEnd ? parseNumber(address, partStart, partEnd, 16, 0xFFFF) : 0);
+                if (value == FAILED) {
+                    return null;
+                }
+                if (i < 4) {
+                    high |= value << (48 - 16 * i);
+                } else {
+                    low |= value << (48 - 16 * (i - 4));
+                }
+            }
+            partStart = partEnd + 1;
+        }
+        return new IpV6Address(high, low);
+    }
+    
+    /**
+     * Parse a number the way {@link Long#parseLong(String, int)} does, or the way {@link Long#decode(String)} does for a radix of 0.
+     * 
+     * @param max
+     *            the largest acceptable value
+     * @return the value, or {@link #FAILED} if the range is not a number or the value is outside of 0 to max
+     */
+    static long parseNumber(CharSequence s, int start, int end, int radix, long max) {
+        if (start >= end) {
+            return FAILED;
+        }
+        int index = start;
+        boolean negative = false;
+        char first = s.charAt(index);
+        if (first == '-' || first == '+') {
+            negative = (first == '-');
+            index++;
+        }
+        if (radix == 0) {
+            radix = 10;
+            if (index + 1 < end && s.charAt(index) == '0' && (s.charAt(index + 1) == 'x' || s.charAt(index + 1) == 'X')) {
+                index += 2;
+                radix = 16;
+            } else if (index < end && s.charAt(index) == '#') {
+                index++;
+                radix = 16;
+            } else if (index + 1 < end && s.charAt(index) == '0') {
+                index++;
+                radix = 8;
+            }
+        }
+        if (index >= end) {
+            return FAILED;
+        }
+        long value = 0;
+        for (; index < end; index++) {
+            int digit = Character.digit(s.charAt(index), radix);
+            if (digit < 0) {
+                return FAILED;
+            }
+            value = value * radix + digit;
+            if (value > max) {
+                return FAILED;
+            }
+        }
+        // only a negative zero is in range
+        return (negative && value != 0) ? FAILED : value;
+    }
+    
+    private static int indexOf(CharSequence s, char c, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (s.charAt(i) == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    private static int indexOf(CharSequence s, String sub, int start, int end) {
+        int last = end - sub.length();
+        for (int i = start; i <= last; i++) {
+            int j = 0;
+            while (j < sub.length() && s.charAt(i + j) == sub.charAt(j)) {
+                j++;
+            }
+            if (j == sub.length()) {
+                return i;
+            }
+        }
+        return -1;
+    }
+    
+    private static int count(CharSequence s, char c, int start, int end) {
+        int count = 0;
+        for (int i = start; i < end; i++) {
+            if (s.charAt(i) == c) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
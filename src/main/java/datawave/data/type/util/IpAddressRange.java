@@ -0,0 +1,122 @@
+package datawave.data.type.util;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An inclusive range of addresses of one family
+ */
+public final class IpAddressRange implements Serializable {
+    private static final long serialVersionUID = -2270519574591580512L;
+    
+    private final IpAddress startIp;
+    private final IpAddress endIp;
+    
+    public IpAddressRange(IpAddress startIp, IpAddress endIp) {
+        if ((startIp instanceof IpV6Address) != (endIp instanceof IpV6Address)) {
+            throw new IllegalArgumentException("A range can not mix IpV4 and IpV6 addresses: " + startIp + " to " + endIp);
+        }
+        this.startIp = startIp;
+        this.endIp = endIp;
+    }
+    
+    public IpAddress getStartIp() {
+        return startIp;
+    }
+    
+    public IpAddress getEndIp() {
+        return endIp;
+    }
+    
+    /**
+     * Merge CIDR blocks into the fewest ranges which cover exactly the same addresses. Overlapping and adjacent blocks are joined, so 10.0.0.0/24 and
+     * 10.0.1.0/24 become one range.
+     *
+     * @param cidrs
+     *            the blocks, in any order
+     * @return the ranges, IpV4 before IpV6 and each family in address order
+     */
+    public static List<IpAddressRange> merge(Iterable<Cidr> cidrs) {
+        List<Cidr> blocks = new ArrayList<>();
+        cidrs.forEach(blocks::add);
+        Collections.sort(blocks);
+        
+        List<IpAddressRange> ranges = new ArrayList<>();
+        boolean ipV6 = false;
+        long startHigh = 0;
+        long startLow = 0;
+        long endHigh = 0;
+        long endLow = 0;
+        for (int i = 0; i < blocks.size(); i++) {
+            Cidr block = blocks.get(i);
+            long high = Cidr.high(block.getStartIp());
+            long low = Cidr.low(block.getStartIp());
+            if (i > 0 && block.isIpV6() == ipV6 && !isAfterSuccessor(high, low, endHigh, endLow)) {
+                // the block overlaps or follows on from the current range, and may extend it
+                if (compare(block.endHigh(), block.endLow(), endHigh, endLow) > 0) {
+                    endHigh = block.endHigh();
+                    endLow = block.endLow();
+                }
+            } else {
+                if (i > 0) {
+                    ranges.add(toRange(ipV6, startHigh, startLow, endHigh, endLow));
+                }
+                ipV6 = block.isIpV6();
+                startHigh = high;
+                startLow = low;
+                endHigh = block.endHigh();
+                endLow = block.endLow();
+            }
+        }
+        if (!blocks.isEmpty()) {
+            ranges.add(toRange(ipV6, startHigh, startLow, endHigh, endLow));
+        }
+        return ranges;
+    }
+    
+    /**
+     * Determine whether an address comes after the address following the end of a range, leaving a gap between them
+     */
+    private static boolean isAfterSuccessor(long high, long low, long endHigh, long endLow) {
+        long nextLow = endLow + 1;
+        long nextHigh = (nextLow == 0 ? endHigh + 1 : endHigh);
+        if (nextLow == 0 && nextHigh == 0) {
+            // the range reaches the last address
+            return false;
+        }
+        return compare(high, low, nextHigh, nextLow) > 0;
+    }
+    
+    private static int compare(long high1, long low1, long high2, long low2) {
+        int comparison = Long.compareUnsigned(high1, high2);
+        return (comparison != 0 ? comparison : Long.compareUnsigned(low1, low2));
+    }
+    
+    private static IpAddressRange toRange(boolean ipV6, long startHigh, long startLow, long endHigh, long endLow) {
+        if (ipV6) {
+            return new IpAddressRange(new IpV6Address(startHigh, startLow), new IpV6Address(endHigh, endLow));
+        }
+        return new IpAddressRange(new IpV4Address((int) startLow, -1, 4), new IpV4Address((int) endLow, -1, 4));
+    }
+    
+    @Override
+    public boolean equals(Object o) {
+        if (o instanceof IpAddressRange) {
+            IpAddressRange other = (IpAddressRange) o;
+            return startIp.equals(other.startIp) && endIp.equals(other.endIp);
+        }
+        return false;
+    }
+    
+    @Override
+    public int hashCode() {
+        return 31 * startIp.hashCode() + endIp.hashCode();
+    }
+    
+    @Override
+    public String toString() {
+        return startIp + "-" + endIp;
+    }
+}
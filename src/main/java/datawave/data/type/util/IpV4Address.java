@@ -1,8 +1,10 @@
 package datawave.data.type.util;
 
-import com.google.common.base.Objects;
-import com.google.common.base.Splitter;
-import com.google.common.collect.Iterables;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 
 /**
  * The IpV4 address
@@ -10,34 +12,50 @@ import com.google.common.collect.Iterables;
  */
 public class IpV4Address extends IpAddress {
     private static final long serialVersionUID = -3258500702340145500L;
-    private byte[] ipaddress = new byte[4];
+    // the serialized form keeps the original byte[] field, so that previously serialized addresses can still be read
+    private static final ObjectStreamField[] serialPersistentFields = {new ObjectStreamField("ipaddress", byte[].class),
+            new ObjectStreamField("wildcardLoc", Integer.TYPE), new ObjectStreamField("numOctets", Integer.TYPE)};
+    // the zero padded form of each octet value, "000" to "255", three characters apiece
+    private static final char[] ZERO_PADDED_OCTETS = new char[256 * 3];
+    static {
+        for (int i = 0; i < 256; i++) {
+            ZERO_PADDED_OCTETS[3 * i] = (char) ('0' + i / 100);
+            ZERO_PADDED_OCTETS[3 * i + 1] = (char) ('0' + i / 10 % 10);
+            ZERO_PADDED_OCTETS[3 * i + 2] = (char) ('0' + i % 10);
+        }
+    }
+    private int ipaddress;
     private int wildcardLoc = -1;
     private int numOctets = 4;
     
     public IpV4Address(byte[] address) {
-        if (address.length != 4) {
-            throw new IllegalArgumentException("An IPV4 address must be 4 bytes in length");
-        }
-        System.arraycopy(address, 0, this.ipaddress, 0, 4);
+        this.ipaddress = toInt(address);
     }
     
     public IpV4Address(byte[] address, int wildcardLoc, int numOctets) {
         this.wildcardLoc = wildcardLoc;
         this.numOctets = numOctets;
-        if (address.length != 4) {
-            throw new IllegalArgumentException("An IPV4 address must be 4 bytes in length");
-        }
-        System.arraycopy(address, 0, this.ipaddress, 0, 4);
+        this.ipaddress = toInt(address);
+    }
+    
+    IpV4Address(int address, int wildcardLoc, int numOctets) {
+        this.ipaddress = address;
+        this.wildcardLoc = wildcardLoc;
+        this.numOctets = numOctets;
     }
     
     public IpV4Address(long ipaddress) {
         if ((ipaddress >>> 32) != 0) {
             throw new IllegalArgumentException(ipaddress + " is out of range");
         }
-        this.ipaddress[3] = (byte) (0x00FF & (ipaddress >>> 0));
-        this.ipaddress[2] = (byte) (0x00FF & (ipaddress >>> 8));
-        this.ipaddress[1] = (byte) (0x00FF & (ipaddress >>> 16));
-        this.ipaddress[0] = (byte) (0x00FF & (ipaddress >>> 24));
+        this.ipaddress = (int) ipaddress;
+    }
+    
+    private static int toInt(byte[] address) {
+        if (address.length != 4) {
+            throw new IllegalArgumentException("An IPV4 address must be 4 bytes in length");
+        }
+        return ((0x00FF & address[0]) << 24) | ((0x00FF & address[1]) << 16) | ((0x00FF & address[2]) << 8) | (0x00FF & address[3]);
     }
     
     /**
@@ -46,7 +64,7 @@ public class IpV4Address extends IpAddress {
      * @return the IpV4 address bytes
      */
     public byte[] toBytes() {
-        return new byte[] {this.ipaddress[0], this.ipaddress[1], this.ipaddress[2], this.ipaddress[3]};
+        return new byte[] {(byte) (ipaddress >>> 24), (byte) (ipaddress >>> 16), (byte) (ipaddress >>> 8), (byte) ipaddress};
     }
     
     /**
@@ -55,7 +73,7 @@ public class IpV4Address extends IpAddress {
      * @return the IpV4 address bytes in reverse order
      */
     public byte[] toReverseBytes() {
-        return new byte[] {this.ipaddress[3], this.ipaddress[2], this.ipaddress[1], this.ipaddress[0]};
+        return new byte[] {(byte) ipaddress, (byte) (ipaddress >>> 8), (byte) (ipaddress >>> 16), (byte) (ipaddress >>> 24)};
     }
     
     /**
@@ -64,14 +82,7 @@ public class IpV4Address extends IpAddress {
      * @return an int
      */
     public long toNumber() {
-        long value = 0x00FF & ipaddress[0];
-        value <<= 8;
-        value |= 0x00FF & ipaddress[1];
-        value <<= 8;
-        value |= 0x00FF & ipaddress[2];
-        value <<= 8;
-        value |= 0x00FF & ipaddress[3];
-        return value;
+        return Integer.toUnsignedLong(ipaddress);
     }
     
     /**
@@ -80,14 +91,7 @@ public class IpV4Address extends IpAddress {
      * @return an int
      */
     public long toReverseNumber() {
-        long value = 0x00FF & ipaddress[3];
-        value <<= 8;
-        value |= 0x00FF & ipaddress[2];
-        value <<= 8;
-        value |= 0x00FF & ipaddress[1];
-        value <<= 8;
-        value |= 0x00FF & ipaddress[0];
-        return value;
+        return Integer.toUnsignedLong(Integer.reverseBytes(ipaddress));
     }
     
     /**
@@ -101,69 +105,10 @@ public class IpV4Address extends IpAddress {
      * @return the IpV4 address
      * @throws IllegalArgumentException
      *             if the radix is not 0, 10, 8, 16, or the address cannot be parsed
-     * @throws NumberFormatException
-     *             if a number cannot be parsed using the specified radix
      */
     public static IpV4Address parse(String address, int radix, boolean dotted) {
-        if (radix != 0 && radix != 10 && radix != 16 && radix != 8) {
-            throw new IllegalArgumentException("Radix " + radix + " is not 0, 8, 10, or 16");
-        }
-        if (dotted) {
-            int wildcard = address.indexOf('*');
-            String[] parts = Iterables.toArray(Splitter.on('.').split(address), String.class);
-            if (parts.length != 4 && wildcard == -1) {
-                throw new IllegalArgumentException("Expected 4 parts but got " + parts.length + " for " + address);
-            } else if (wildcard > -1) {
-                // if 1.1.* need to make it 001.001.000.000 and mark the wildcard location
-                byte[] ipaddress = new byte[4];
-                int wc_octet = 0;
-                // work backwards
-                for (int i = 3; i >= 0; i--) {
-                    if (i >= parts.length) {
-                        // we need to pad
-                        ipaddress[i] = (byte) 0;
-                        wc_octet = i;
-                    } else if (parts[i].isEmpty() || parts[i].equals("*")) {
-                        // pad remainder with zeros and mark location
-                        ipaddress[i] = (byte) 0;
-                        wc_octet = i;
-                    } else {
-                        int value = 0;
-                        if (!parts[i].isEmpty()) {
-                            value = (radix == 0 ? Integer.decode(parts[i]) : Integer.parseInt(parts[i], radix));
-                        }
-                        if ((value >>> 8) != 0) {
-                            throw new IllegalArgumentException("Part " + parts[i] + " of " + address + " is out of range in radix " + radix);
-                        }
-                        ipaddress[i] = (byte) value;
-                    }
-                }
-                return new IpV4Address(ipaddress, wc_octet, parts.length);
-            } else {
-                byte[] ipaddress = new byte[4];
-                for (int i = 0; i < 4; i++) {
-                    if ((radix == 0 && parts[i].length() > 4) || (radix == 10 && parts[i].length() > 3) || (radix == 16 && parts[i].length() > 2)
-                                    || (radix == 8 && parts[i].length() > 4)) {
-                        throw new IllegalArgumentException("Part " + parts[i] + " of " + address + " is has too many digits for radix " + radix);
-                    }
-                    int value = 0;
-                    if (!parts[i].isEmpty()) {
-                        value = (radix == 0 ? Integer.decode(parts[i]) : Integer.parseInt(parts[i], radix));
-                    }
-                    if ((value >>> 8) != 0) {
-                        throw new IllegalArgumentException("Part " + parts[i] + " of " + address + " is out of range in radix " + radix);
-                    }
-                    ipaddress[i] = (byte) value;
-                }
-                return new IpV4Address(ipaddress);
-            }
-        } else {
-            long ipaddress = (radix == 0 ? Long.decode(address) : Long.parseLong(address, radix));
-            if ((ipaddress >>> 32) != 0) {
-                throw new IllegalArgumentException(address + " is out of range in radix " + radix);
-            }
-            return new IpV4Address(ipaddress);
-        }
+        checkRadix(radix);
+        return checkParsed(IpAddressParser.parseIpV4(address, radix, dotted), address);
     }
     
     /**
@@ -175,15 +120,14 @@ public class IpV4Address extends IpAddress {
      * @return An IpV4Address
      * @throws IllegalArgumentException
      *             if the radix is not 0, 10, 8, 16, or the address cannot be parsed
-     * @throws NumberFormatException
-     *             if a number cannot be parsed using the specified radix
      */
     public static IpV4Address parse(String address, int radix) {
-        try {
-            return IpV4Address.parse(address, radix, true);
-        } catch (Exception iae) {
-            return IpV4Address.parse(address, radix, false);
+        checkRadix(radix);
+        IpV4Address ipaddress = IpAddressParser.parseIpV4(address, radix, true);
+        if (ipaddress == null) {
+            ipaddress = IpAddressParser.parseIpV4(address, radix, false);
         }
+        return checkParsed(ipaddress, address);
     }
     
     /**
@@ -195,19 +139,14 @@ public class IpV4Address extends IpAddress {
      *             if it cannot be parsed
      */
     public static IpV4Address parse(String address, boolean dotted) {
-        try {
-            return IpV4Address.parse(address, 10, dotted);
-        } catch (Exception iae10) {
-            try {
-                return IpV4Address.parse(address, 16, dotted);
-            } catch (Exception iae16) {
-                try {
-                    return IpV4Address.parse(address, 8, dotted);
-                } catch (Exception iae8) {
-                    return IpV4Address.parse(address, 0, dotted);
-                }
+        IpV4Address ipaddress = null;
+        for (int radix : new int[] {10, 16, 8, 0}) {
+            ipaddress = IpAddressParser.parseIpV4(address, radix, dotted);
+            if (ipaddress != null) {
+                break;
             }
         }
+        return checkParsed(ipaddress, address);
     }
     
     /**
@@ -219,24 +158,45 @@ public class IpV4Address extends IpAddress {
      *             if it cannot be parsed
      */
     public static IpV4Address parse(String address) {
-        try {
-            return IpV4Address.parse(address, 10);
-        } catch (Exception iae10) {
-            try {
-                return IpV4Address.parse(address, 16);
-            } catch (Exception iae16) {
-                try {
-                    return IpV4Address.parse(address, 8);
-                } catch (Exception iae8) {
-                    return IpV4Address.parse(address, 0);
-                }
-            }
+        return checkParsed(IpAddressParser.parseIpV4(address, 0, address.length()), address);
+    }
+    
+    private static void checkRadix(int radix) {
+        if (radix != 0 && radix != 10 && radix != 16 && radix != 8) {
+            throw new IllegalArgumentException("Radix " + radix + " is not 0, 8, 10, or 16");
+        }
+    }
+    
+    private static IpV4Address checkParsed(IpV4Address ipaddress, String address) {
+        if (ipaddress == null) {
+            throw new IllegalArgumentException("Failed to parse " + address + " as an IpV4 address");
         }
+        return ipaddress;
     }
     
     public static String toString(byte[] address, boolean zeroPadded, int wc_loc, int numOctets, boolean reverse) {
+        return toString(toInt(address), zeroPadded, wc_loc, numOctets);
+    }
+    
+    /**
+     * Format an address, octet by octet from the most significant
+     * 
+     * @param address
+     *            the address
+     * @param zeroPadded
+     *            true to pad each octet to 3 digits
+     * @param wc_loc
+     *            the octet to print as a wildcard, or -1 for none
+     * @param numOctets
+     *            the number of octets of a wildcard address
+     * @return the formatted address
+     */
+    private static String toString(int address, boolean zeroPadded, int wc_loc, int numOctets) {
+        if (zeroPadded && wc_loc == -1) {
+            return toZeroPaddedString(address);
+        }
         StringBuilder builder = new StringBuilder(15);
-        for (int i = 0; i < address.length; i++) {
+        for (int i = 0; i < 4; i++) {
             if (wc_loc != -1 && numOctets - 1 < i) {
                 break;
             }
@@ -251,90 +211,109 @@ public class IpV4Address extends IpAddress {
                     break;
                 }
             } else {
-                String value = Integer.toString(0x00FF & address[i]);
+                int octet = 0x00FF & (address >>> (24 - 8 * i));
                 if (zeroPadded) {
-                    for (int j = value.length(); j < 3; j++) {
-                        builder.append('0');
-                    }
+                    builder.append(ZERO_PADDED_OCTETS, 3 * octet, 3);
+                } else {
+                    builder.append(octet);
                 }
-                builder.append(value);
             }
             
         }
         return builder.toString();
     }
     
+    /**
+     * Format an address without a wildcard into the fixed length zero padded form
+     */
+    private static String toZeroPaddedString(int address) {
+        char[] chars = new char[15];
+        for (int i = 0; i < 4; i++) {
+            int octet = 3 * (0x00FF & (address >>> (24 - 8 * i)));
+            int offset = 4 * i;
+            chars[offset] = ZERO_PADDED_OCTETS[octet];
+            chars[offset + 1] = ZERO_PADDED_OCTETS[octet + 1];
+            chars[offset + 2] = ZERO_PADDED_OCTETS[octet + 2];
+            if (i < 3) {
+                chars[offset + 3] = '.';
+            }
+        }
+        return new String(chars);
+    }
+    
     @Override
     public String toString() {
-        return toString(ipaddress, false, this.wildcardLoc, this.numOctets, false);
+        return toString(ipaddress, false, this.wildcardLoc, this.numOctets);
     }
     
     @Override
     public String toZeroPaddedString() {
-        return toString(ipaddress, true, this.wildcardLoc, this.numOctets, false);
+        return toString(ipaddress, true, this.wildcardLoc, this.numOctets);
     }
     
     @Override
     public String toReverseString() {
-        if (wildcardLoc > -1) {
-            return toString(toReverseBytes(), false, 3 - this.wildcardLoc, this.numOctets, true);
-        } else {
-            return toString(toReverseBytes(), false, this.wildcardLoc, this.numOctets, true);
-        }
+        return toString(Integer.reverseBytes(ipaddress), false, reverseWildcardLoc(), this.numOctets);
     }
     
     @Override
     public String toReverseZeroPaddedString() {
-        if (wildcardLoc > -1) {
-            return toString(toReverseBytes(), true, 3 - this.wildcardLoc, this.numOctets, true);
+        return toString(Integer.reverseBytes(ipaddress), true, reverseWildcardLoc(), this.numOctets);
+    }
+    
+    private int reverseWildcardLoc() {
+        return (wildcardLoc > -1 ? 3 - this.wildcardLoc : this.wildcardLoc);
+    }
+    
+    /**
+     * Get the mask which keeps the leading bits of an address
+     * 
+     * @param validBits
+     *            the number of leading bits to keep
+     * @return the mask
+     */
+    private static int mask(int validBits) {
+        if (validBits <= 0) {
+            return 0;
+        } else if (validBits >= 32) {
+            return -1;
         } else {
-            return toString(toReverseBytes(), true, this.wildcardLoc, this.numOctets, true);
+            return -1 << (32 - validBits);
         }
     }
     
     @Override
     public IpAddress getStartIp(int validBits) {
-        byte[] ipaddress = new byte[4];
-        for (int i = 0; i < 4; i++) {
-            if (validBits < 0) {
-                // Do nothing
-            } else if (validBits < 8) {
-                int shift = 8 - validBits;
-                ipaddress[i] = (byte) (((0x00FF >>> shift) << shift) & this.ipaddress[i]);
-            } else {
-                ipaddress[i] = this.ipaddress[i];
-            }
-            validBits -= 8;
-        }
-        return new IpV4Address(ipaddress);
+        return new IpV4Address(ipaddress & mask(validBits), -1, 4);
     }
     
     @Override
     public IpAddress getEndIp(int validBits) {
-        byte[] ipaddress = new byte[4];
-        for (int i = 0; i < 4; i++) {
-            if (validBits < 0) {
-                ipaddress[i] = (byte) (0x00FF);
-            } else if (validBits < 8) {
-                ipaddress[i] = (byte) ((0x00FF >>> validBits) | this.ipaddress[i]);
-            } else {
-                ipaddress[i] = this.ipaddress[i];
-            }
-            validBits -= 8;
+        return new IpV4Address(ipaddress | ~mask(validBits), -1, 4);
+    }
+    
+    @Override
+    public IpAddress getNextIp() {
+        checkNoWildcard();
+        return (ipaddress == -1 ? null : new IpV4Address(ipaddress + 1, -1, 4));
+    }
+    
+    @Override
+    public IpAddress getPreviousIp() {
+        checkNoWildcard();
+        return (ipaddress == 0 ? null : new IpV4Address(ipaddress - 1, -1, 4));
+    }
+    
+    private void checkNoWildcard() {
+        if (wildcardLoc >= 0) {
+            throw new IllegalArgumentException(this + " contains a wildcard and has no adjacent address");
         }
-        return new IpV4Address(ipaddress);
     }
     
     @Override
     public int compareTo(IpAddress o) {
         if (o instanceof IpV4Address) {
-            long i1 = toNumber();
-            long i2 = ((IpV4Address) o).toNumber();
-            if (i1 < i2) {
-                return -1;
-            } else if (i1 > i2) {
-                return 1;
-            }
+            return Integer.compareUnsigned(ipaddress, ((IpV4Address) o).ipaddress);
         } else if (o instanceof IpV6Address) {
             IpV4Address addr = ((IpV6Address) o).toIpV4Address();
             if (addr == null) {
@@ -358,16 +337,32 @@ public class IpV4Address extends IpAddress {
             return false;
         }
         
-        return Objects.equal(this.toNumber(), other.toNumber());
+        return this.ipaddress == other.ipaddress;
     }
     
     @Override
     public int hashCode() {
-        int hashCode = 0;
-        for (int i = 0; i < 4; i++) {
-            hashCode += ipaddress[i];
+        // the sum of the signed octets
+        return (byte) (ipaddress >>> 24) + (byte) (ipaddress >>> 16) + (byte) (ipaddress >>> 8) + (byte) ipaddress;
+    }
+    
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        ObjectOutputStream.PutField fields = out.putFields();
+        fields.put("ipaddress", toBytes());
+        fields.put("wildcardLoc", wildcardLoc);
+        fields.put("numOctets", numOctets);
+        out.writeFields();
+    }
+    
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        ObjectInputStream.GetField fields = in.readFields();
+        byte[] address = (byte[]) fields.get("ipaddress", null);
+        if (address == null || address.length != 4) {
+            throw new InvalidObjectException("An IPV4 address must be 4 bytes in length");
         }
-        return hashCode;
+        this.ipaddress = toInt(address);
+        this.wildcardLoc = fields.get("wildcardLoc", -1);
+        this.numOctets = fields.get("numOctets", 4);
     }
     
 }
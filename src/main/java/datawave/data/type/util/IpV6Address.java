@@ -1,9 +1,12 @@
 package datawave.data.type.util;
 
-import org.apache.commons.lang3.StringUtils;
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.ObjectStreamField;
 
-import com.google.common.base.Splitter;
-import com.google.common.collect.Iterables;
+import org.apache.commons.lang3.StringUtils;
 
 /**
  * The IpV6 address
@@ -11,13 +14,46 @@ import com.google.common.collect.Iterables;
  */
 public class IpV6Address extends IpAddress {
     private static final long serialVersionUID = -1528748156190096213L;
-    private short[] ipaddress = new short[8];
+    // the serialized form keeps the original short[] field, so that previously serialized addresses can still be read
+    private static final ObjectStreamField[] serialPersistentFields = {new ObjectStreamField("ipaddress", short[].class)};
+    // the two hex digits of each byte value, "00" to "ff"
+    private static final char[] HEX_PAIRS = new char[256 * 2];
+    static {
+        char[] digits = "0123456789abcdef".toCharArray();
+        for (int i = 0; i < 256; i++) {
+            HEX_PAIRS[2 * i] = digits[i >>> 4];
+            HEX_PAIRS[2 * i + 1] = digits[i & 0xF];
+        }
+    }
+    // the first four and the last four 16 bit segments
+    private long high;
+    private long low;
     
     public IpV6Address(short[] address) {
+        setShorts(address);
+    }
+    
+    IpV6Address(long high, long low) {
+        this.high = high;
+        this.low = low;
+    }
+    
+    long getHigh() {
+        return high;
+    }
+    
+    long getLow() {
+        return low;
+    }
+    
+    private void setShorts(short[] address) {
         if (address.length != 8) {
             throw new IllegalArgumentException("An IpV6 address must be 8 shorts in length");
         }
-        System.arraycopy(address, 0, this.ipaddress, 0, address.length);
+        for (int i = 0; i < 4; i++) {
+            this.high = (this.high << 16) | (0x00FFFFL & address[i]);
+            this.low = (this.low << 16) | (0x00FFFFL & address[i + 4]);
+        }
     }
     
     /**
@@ -26,8 +62,8 @@ public class IpV6Address extends IpAddress {
      * @return the IpV6 address short values
      */
     public short[] toShorts() {
-        return new short[] {this.ipaddress[0], this.ipaddress[1], this.ipaddress[2], this.ipaddress[3], this.ipaddress[4], this.ipaddress[5], this.ipaddress[6],
-                this.ipaddress[7]};
+        return new short[] {(short) (high >>> 48), (short) (high >>> 32), (short) (high >>> 16), (short) high, (short) (low >>> 48), (short) (low >>> 32),
+                (short) (low >>> 16), (short) low};
     }
     
     /**
@@ -36,8 +72,8 @@ public class IpV6Address extends IpAddress {
      * @return the IpV6 address short values in reverse order
      */
     public short[] toReverseShorts() {
-        return new short[] {this.ipaddress[7], this.ipaddress[6], this.ipaddress[5], this.ipaddress[4], this.ipaddress[3], this.ipaddress[2], this.ipaddress[1],
-                this.ipaddress[0]};
+        return new short[] {(short) low, (short) (low >>> 16), (short) (low >>> 32), (short) (low >>> 48), (short) high, (short) (high >>> 16),
+                (short) (high >>> 32), (short) (high >>> 48)};
     }
     
     /**
@@ -49,50 +85,11 @@ public class IpV6Address extends IpAddress {
      *             if the base is not 10, 8, 16, or the address cannot be parsed using the specified base or dotted/not
      */
     public static IpV6Address parse(String address) {
-        String[] parts = Iterables.toArray(Splitter.on(':').split(address), String.class);
-        if (parts.length > 8) {
-            throw new IllegalArgumentException("Expected no more than 8 parts but got " + parts.length + " for " + address);
-        }
-        // if less than 8 parts, then there must be a "::" somewhere in there or an IPv4 address at the end
-        boolean expectFiller = (address.contains("::"));
-        boolean expectIpv4 = (address.indexOf('.') >= 0);
-        if (!expectFiller) {
-            if (expectIpv4 && parts.length != 7) {
-                throw new IllegalArgumentException("Wrong number of sections in " + address);
-            }
-        } else {
-            if (expectIpv4 && parts.length > 7) {
-                throw new IllegalArgumentException("Wrong number of sections in " + address);
-            }
+        IpV6Address ipaddress = IpAddressParser.parseIpV6(address, 0, address.length());
+        if (ipaddress == null) {
+            throw new IllegalArgumentException("Failed to parse " + address + " as an IpV6 address");
         }
-        
-        short[] ipaddress = new short[8];
-        int index = 0;
-        for (int i = 0; i < 8; i++) {
-            if (index >= parts.length)
-                throw new IllegalArgumentException("Error processing address " + address);
-            if (i == 6 && expectIpv4) {
-                byte[] bytes = IpV4Address.parse(parts[index]).toBytes();
-                ipaddress[i++] = (short) (((0x00FF & bytes[0]) << 8) | (0x00FF & bytes[1]));
-                ipaddress[i] = (short) (((0x00FF & bytes[2])) << 8 | (0x00FF & bytes[3]));
-            } else if (parts[index].isEmpty() && expectFiller) {
-                i += (8 - parts.length);
-                if (expectIpv4) {
-                    i--;
-                }
-                // can only have one of these
-                expectFiller = false;
-            } else {
-                int value = (!parts[index].isEmpty() ? Integer.parseInt(parts[index], 16) : 0);
-                if ((value >>> 16) != 0) {
-                    throw new IllegalArgumentException("Part " + parts[i] + " of " + address + " is out of range in base 16");
-                }
-                ipaddress[i] = (short) value;
-            }
-            index++;
-            
-        }
-        return new IpV6Address(ipaddress);
+        return ipaddress;
     }
     
     public static String toString(short[] address, boolean zeroPadded, boolean skipZeros) {
@@ -140,14 +137,43 @@ public class IpV6Address extends IpAddress {
         return builder.toString();
     }
     
+    /**
+     * Format the eight segments as zero padded hex, most significant first
+     */
+    private static String toZeroPaddedString(long high, long low) {
+        char[] chars = new char[39];
+        for (int i = 0; i < 8; i++) {
+            long segment = (i < 4 ? high >>> (48 - 16 * i) : low >>> (48 - 16 * (i - 4)));
+            int upper = 2 * ((int) (segment >>> 8) & 0xFF);
+            int lower = 2 * ((int) segment & 0xFF);
+            int offset = 5 * i;
+            chars[offset] = HEX_PAIRS[upper];
+            chars[offset + 1] = HEX_PAIRS[upper + 1];
+            chars[offset + 2] = HEX_PAIRS[lower];
+            chars[offset + 3] = HEX_PAIRS[lower + 1];
+            if (i < 7) {
+                chars[offset + 4] = ':';
+            }
+        }
+        return new String(chars);
+    }
+    
+    /**
+     * Reverse the order of the four 16 bit segments of a long
+     */
+    private static long reverseSegments(long segments) {
+        long reversed = Long.reverseBytes(segments);
+        return ((reversed & 0x00FF00FF00FF00FFL) << 8) | ((reversed >>> 8) & 0x00FF00FF00FF00FFL);
+    }
+    
     @Override
     public String toString() {
-        return toString(ipaddress, false, true);
+        return toString(toShorts(), false, true);
     }
     
     @Override
     public String toZeroPaddedString() {
-        return toString(ipaddress, true, false);
+        return toZeroPaddedString(high, low);
     }
     
     @Override
@@ -157,7 +183,7 @@ public class IpV6Address extends IpAddress {
     
     @Override
     public String toReverseZeroPaddedString() {
-        return toString(toReverseShorts(), true, false);
+        return toZeroPaddedString(reverseSegments(low), reverseSegments(high));
     }
     
     /**
@@ -166,44 +192,56 @@ public class IpV6Address extends IpAddress {
      * @return the IpV4Address representation, null if not compatible with IpV4
      */
     public IpV4Address toIpV4Address() {
-        if (ipaddress[0] != 0 || ipaddress[1] != 0 || ipaddress[2] != 0 || ipaddress[3] != 0 || ipaddress[4] != 0 || ipaddress[5] != 0) {
+        if (high != 0 || (low >>> 32) != 0) {
             return null;
         } else {
-            return new IpV4Address(((0x00FFFFl & ipaddress[6]) << 16) | (0x00FFFFl & ipaddress[7]));
+            return new IpV4Address(low);
+        }
+    }
+    
+    /**
+     * Get the mask which keeps the leading bits of one half of an address
+     * 
+     * @param validBits
+     *            the number of leading bits to keep of this half
+     * @return the mask
+     */
+    static long mask(int validBits) {
+        if (validBits <= 0) {
+            return 0;
+        } else if (validBits >= 64) {
+            return -1L;
+        } else {
+            return -1L << (64 - validBits);
         }
     }
     
     @Override
     public IpAddress getStartIp(int validBits) {
-        short[] ipaddress = new short[8];
-        for (int i = 0; i < 8; i++) {
-            if (validBits < 0) {
-                // Do nothing
-            } else if (validBits < 16) {
-                int shift = 16 - validBits;
-                ipaddress[i] = (short) (((0x00FFFF >>> shift) << shift) & this.ipaddress[i]);
-            } else {
-                ipaddress[i] = this.ipaddress[i];
-            }
-            validBits -= 16;
-        }
-        return new IpV6Address(ipaddress);
+        return new IpV6Address(high & mask(validBits), low & mask(Math.max(validBits, 64) - 64));
     }
     
     @Override
     public IpAddress getEndIp(int validBits) {
-        short[] ipaddress = new short[8];
-        for (int i = 0; i < 8; i++) {
-            if (validBits < 0) {
-                ipaddress[i] = (short) (0x00FFFF);
-            } else if (validBits < 16) {
-                ipaddress[i] = (short) ((0x00FFFF >>> validBits) | this.ipaddress[i]);
-            } else {
-                ipaddress[i] = this.ipaddress[i];
-            }
-            validBits -= 16;
+        return new IpV6Address(high | ~mask(validBits), low | ~mask(Math.max(validBits, 64) - 64));
+    }
+    
+    @Override
+    public IpAddress getNextIp() {
+        if (high == -1L && low == -1L) {
+            return null;
         }
-        return new IpV6Address(ipaddress);
+        // carry into the high half when the low half wraps around to 0
+        return new IpV6Address(low == -1L ? high + 1 : high, low + 1);
+    }
+    
+    @Override
+    public IpAddress getPreviousIp() {
+        if (high == 0 && low == 0) {
+            return null;
+        }
+        // borrow from the high half when the low half wraps around to all ones
+        return new IpV6Address(low == 0 ? high - 1 : high, low - 1);
     }
     
     @Override
@@ -222,17 +260,8 @@ public class IpV6Address extends IpAddress {
     }
     
     private int compareToIpV6Address(IpV6Address other) {
-        for (int i = 0; i < 8; i++) {
-            int comparison = compareSegments(ipaddress[i], other.ipaddress[i]);
-            if (comparison != 0) {
-                return comparison;
-            }
-        }
-        return 0;
-    }
-    
-    private int compareSegments(short x, short y) {
-        return (0x00FFFF & x) - (0x00FFFF & y);
+        int comparison = Long.compareUnsigned(high, other.high);
+        return (comparison != 0 ? comparison : Long.compareUnsigned(low, other.low));
     }
     
     @Override
@@ -252,11 +281,26 @@ public class IpV6Address extends IpAddress {
     
     @Override
     public int hashCode() {
+        // the sum of the signed segments
         int hashCode = 0;
-        for (int i = 0; i < 8; i++) {
-            hashCode += ipaddress[i];
+        for (int shift = 0; shift < 64; shift += 16) {
+            hashCode += (short) (high >>> shift) + (short) (low >>> shift);
         }
         return hashCode;
     }
     
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        ObjectOutputStream.PutField fields = out.putFields();
+        fields.put("ipaddress", toShorts());
+        out.writeFields();
+    }
+    
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        short[] address = (short[]) in.readFields().get("ipaddress", null);
+        if (address == null || address.length != 8) {
+            throw new InvalidObjectException("An IpV6 address must be 8 shorts in length");
+        }
+        setShorts(address);
+    }
+    
 }
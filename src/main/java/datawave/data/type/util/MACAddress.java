@@ -1,7 +1,9 @@
 package datawave.data.type.util;
 
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
-import java.util.Objects;
 
 /**
  * Class to hold a MAC Address
@@ -26,14 +28,14 @@ public class MACAddress implements Serializable, Comparable<MACAddress> {
     private int groupingSize = 0;
     
     /**
-     * MAC addresses contain 12 digits
+     * The number of groupings
      */
-    private static final int MAC_ADDRESS_LENGTH = 12;
+    private int groupings = 0;
     
     /**
-     * The number of groupings
+     * The address in the low 48 bits
      */
-    private int groupings = 0;
+    private transient long address;
     
     /**
      * @param addr
@@ -42,12 +44,53 @@ public class MACAddress implements Serializable, Comparable<MACAddress> {
      *            separator used in the MAC address
      * @param groupingSize
      *            size of the digit groups
+     * @throws IllegalArgumentException
+     *             if the address is not 12 digits in groups of the given size divided by the separator
      */
     public MACAddress(String addr, String sep, int groupingSize) {
+        this(addr, sep, groupingSize, scan(addr, sep, groupingSize));
+    }
+    
+    private MACAddress(String addr, String sep, int groupingSize, long address) {
         this.macAddress = addr;
         this.separator = sep;
         this.groupingSize = groupingSize;
-        this.groupings = MAC_ADDRESS_LENGTH / this.groupingSize;
+        this.groupings = MACAddressParser.MAC_ADDRESS_LENGTH / this.groupingSize;
+        this.address = address;
+    }
+    
+    private static long scan(String addr, String sep, int groupingSize) {
+        if (groupingSize < 1 || groupingSize > MACAddressParser.MAC_ADDRESS_LENGTH) {
+            throw new IllegalArgumentException("Grouping size must be between 1 and " + MACAddressParser.MAC_ADDRESS_LENGTH + ", inclusive.");
+        }
+        long scanned = MACAddressParser.scan(addr, sep, groupingSize);
+        if (scanned == MACAddressParser.FAILED) {
+            throw new IllegalArgumentException("Address " + addr + " is not " + (MACAddressParser.MAC_ADDRESS_LENGTH / groupingSize) + " groups of "
+                            + groupingSize + " digits divided by " + sep);
+        }
+        return scanned & MACAddressParser.ADDRESS_MASK;
+    }
+    
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        // earlier versions kept a '.' separator escaped for use as a regex
+        if (separator.equals("\\.")) {
+            separator = ".";
+        }
+        try {
+            this.address = scan(macAddress, separator, groupingSize);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidObjectException(e.getMessage());
+        }
+    }
+    
+    /**
+     * Get the address as a number
+     * 
+     * @return the address in the low 48 bits
+     */
+    public long toNumber() {
+        return address;
     }
     
     /**
@@ -68,48 +111,19 @@ public class MACAddress implements Serializable, Comparable<MACAddress> {
      *            The separator to use in the normalized string
      * @param groupingSize
      *            The grouping size to use in the normalized string
-     * @return the normalized string
+     * @return the normalized string, in upper case
      */
     public String toNormalizedString(String sep, int groupingSize) {
-        String returnAddress = new String(this.macAddress);
-        
-        if (!this.separator.equals("")) {
-            String sepRegex = new String(this.separator);
-            if (this.separator.matches("\\.")) {
-                sepRegex = "\\" + sepRegex;
-            }
-            returnAddress = returnAddress.replaceAll(this.separator, "");
-        }
-        
-        String hexDigit = "([0-9a-fA-F])";
-        StringBuilder hexDigits = new StringBuilder();
-        // populate hexDigits as a regex to capture 12 hex digits
-        for (int i = 0; i < MAC_ADDRESS_LENGTH; i++) {
-            hexDigits.append(hexDigit);
-        }
-        
-        StringBuilder replacement = new StringBuilder();
-        int groups = MAC_ADDRESS_LENGTH / groupingSize;
-        int totalStringLength = MAC_ADDRESS_LENGTH + groups - 1;
-        int digitCount = 1;
-        String sepRegex = new String(sep);
-        if (sepRegex.matches("\\.")) {
-            sepRegex = "\\" + sepRegex;
-        }
-        // populate replacement as a regex to properly format / separate the hex digits
-        for (int i = 1; i <= totalStringLength; i++) {
-            if (i % (groupingSize + 1) == 0) {
-                replacement.append(sepRegex);
-            } else {
-                replacement.append("$" + digitCount);
-                digitCount++;
-            }
-        }
-        
-        returnAddress = returnAddress.replaceAll(hexDigits.toString(), replacement.toString());
-        returnAddress = returnAddress.toUpperCase();
-        
-        return returnAddress;
+        return MACAddressParser.toString(address, sep, groupingSize);
+    }
+    
+    /**
+     * Get the canonical form of the address, six lower case pairs of digits divided by '-' such as 00-1a-2b-3c-4d-5e
+     * 
+     * @return the canonical form
+     */
+    public String toCanonicalString() {
+        return MACAddressParser.toCanonicalString(address);
     }
     
     /**
@@ -128,48 +142,18 @@ public class MACAddress implements Serializable, Comparable<MACAddress> {
      *             if unable to parse out a MAC address
      */
     public static MACAddress parse(String addr, String sep, int groupingSize, boolean strict) {
-        if (addr.contains(sep)) {
-            if (groupingSize < 1 || groupingSize > MAC_ADDRESS_LENGTH) {
-                throw new IllegalArgumentException("Grouping size must be between 1 and " + MAC_ADDRESS_LENGTH + ", inclusive.");
-            }
-            if (sep.matches("\\.")) {
-                sep = "\\" + sep;
-            }
-            String[] digits;
-            if (!sep.equals("")) {
-                digits = addr.split(sep);
-            } else {
-                digits = new String[1];
-                digits[0] = addr;
-            }
-            int numberOfGroupings = MAC_ADDRESS_LENGTH / groupingSize;
-            if (digits.length != numberOfGroupings) {
-                throw new IllegalArgumentException("Address " + addr + " is not " + numberOfGroupings + " groups of digits divided by " + sep);
-            }
-            for (String digit : digits) {
-                if (digit.length() != groupingSize) {
-                    throw new IllegalArgumentException("Digit block " + digit + " is not " + groupingSize + " digits.");
-                }
-                Long.parseLong(digit, 16);
-            }
-            // If this doesn't look like a standard MAC address, make sure it has hex digits to avoid picking up
-            // IPs, etc.
-            if (strict && ((groupingSize != 2 && groupingSize != 4) || (!sep.equals(".") && !sep.equals(":") && !sep.equals("-")))) {
-                String addrNoSep = new String(addr);
-                if (!sep.equals("")) {
-                    addrNoSep = addrNoSep.replaceAll(sep, "");
-                }
-                try {
-                    Long.parseLong(addrNoSep, 10);
-                    throw new IllegalArgumentException("This has no hex strings, probably not a mac address");
-                } catch (NumberFormatException e) {
-                    // This is OK, means it has hex digits
-                }
-            }
-            return new MACAddress(addr, sep, groupingSize);
-        } else {
+        if (!addr.contains(sep)) {
             throw new IllegalArgumentException("Address " + addr + " does not contain separator " + sep);
         }
+        long address = scan(addr, sep, groupingSize);
+        // If this doesn't look like a standard MAC address, make sure it has hex digits to avoid picking up
+        // IPs, etc.
+        if (strict && ((groupingSize != 2 && groupingSize != 4) || (!sep.equals(":") && !sep.equals("-")))) {
+            if (MACAddressParser.isDecimal(address)) {
+                throw new IllegalArgumentException("This has no hex strings, probably not a mac address");
+            }
+        }
+        return new MACAddress(addr, sep, groupingSize, address);
     }
     
     /**
@@ -184,11 +168,11 @@ public class MACAddress implements Serializable, Comparable<MACAddress> {
      *             if unable to parse a MAC address
      */
     public static MACAddress parse(String addr, int groupingSize) {
-        if (groupingSize < 1 || groupingSize > MAC_ADDRESS_LENGTH) {
-            throw new IllegalArgumentException("Grouping size must be between 1 and " + MAC_ADDRESS_LENGTH + ", inclusive");
+        if (groupingSize < 1 || groupingSize > MACAddressParser.MAC_ADDRESS_LENGTH) {
+            throw new IllegalArgumentException("Grouping size must be between 1 and " + MACAddressParser.MAC_ADDRESS_LENGTH + ", inclusive");
         }
         String sep = "";
-        if (groupingSize != MAC_ADDRESS_LENGTH) {
+        if (groupingSize != MACAddressParser.MAC_ADDRESS_LENGTH && addr.length() > groupingSize) {
             sep = String.valueOf(addr.charAt(groupingSize));
         }
         
@@ -224,16 +208,30 @@ public class MACAddress implements Serializable, Comparable<MACAddress> {
      *             if unable to parse a MAC address
      */
     public static MACAddress parse(String addr) {
-        if (addr.matches("^[0-9a-fA-F]+$")) {
-            return parse(addr, "", MAC_ADDRESS_LENGTH, true);
-        } else if (addr.matches("^([0-9a-fA-F]+[^0-9a-fA-F])+[0-9a-fA-F]+$")) {
-            String[] pieces = addr.split("[^0-9a-fA-F]");
-            int groupingSize = MAC_ADDRESS_LENGTH / pieces.length;
-            String sep = String.valueOf(addr.charAt(groupingSize));
-            return parse(addr, sep, groupingSize, true);
-        } else {
-            throw new IllegalArgumentException("Unable to find separator in " + addr);
+        MACAddress address = tryParse(addr);
+        if (address == null) {
+            throw new IllegalArgumentException("Unable to parse " + addr + " as a MAC address");
+        }
+        return address;
+    }
+    
+    private static MACAddress tryParse(String addr) {
+        long scanned = MACAddressParser.scan(addr);
+        if (scanned == MACAddressParser.FAILED) {
+            return null;
+        }
+        int groupingSize = MACAddressParser.groupingSize(scanned);
+        String sep = (groupingSize == MACAddressParser.MAC_ADDRESS_LENGTH ? "" : firstSeparator(addr));
+        return new MACAddress(addr, sep, groupingSize, scanned & MACAddressParser.ADDRESS_MASK);
+    }
+    
+    private static String firstSeparator(String addr) {
+        for (int i = 0; i < addr.length(); i++) {
+            if (!MACAddressParser.isHexDigit(addr.charAt(i))) {
+                return String.valueOf(addr.charAt(i));
+            }
         }
+        return "";
     }
     
     @Override
@@ -252,7 +250,7 @@ public class MACAddress implements Serializable, Comparable<MACAddress> {
             /**
              * Consider the MAC addresses equal if they have the same normalized string
              */
-            return this.toNormalizedString("").equals(((MACAddress) o).toNormalizedString(""));
+            return this.address == ((MACAddress) o).address;
         } else {
             return false;
         }
@@ -260,6 +258,6 @@ public class MACAddress implements Serializable, Comparable<MACAddress> {
     
     @Override
     public int hashCode() {
-        return this.toNormalizedString("").hashCode();
+        return Long.hashCode(this.address);
     }
 }
@@ -0,0 +1,252 @@
+package datawave.data.type.util;
+
+import java.util.Arrays;
+
+/**
+ * A single pass scanner and table driven formatter for MAC addresses. An address is scanned into the low 48 bits of a long without creating any intermediate
+ * strings, and a failure is reported as a return value instead of throwing.
+ * <p>
+ * A scan reports the size of the digit groups it found above the address, so that a {@link MACAddress} can be built from the one pass.
+ * <p>
+ * The MacAddressNormalizer shares the number scan and the canonical formatter, which are public for that reason.
+ */
+public final class MACAddressParser {
+    
+    /**
+     * The result of a failed scan
+     */
+    public static final long FAILED = -1L;
+    
+    /**
+     * MAC addresses contain 12 digits
+     */
+    static final int MAC_ADDRESS_LENGTH = 12;
+    
+    // layout of a successful scan: the address in the low 48 bits, and the grouping size above it
+    static final long ADDRESS_MASK = 0xFFFFFFFFFFFFL;
+    private static final int GROUPING_SHIFT = 48;
+    
+    // the value of each hex digit, or -1 for any other character
+    private static final byte[] DIGITS = new byte[128];
+    // the two lower and upper case hex digits of each byte value
+    private static final char[] LOWER_HEX_PAIRS = new char[256 * 2];
+    private static final char[] UPPER_HEX_PAIRS = new char[256 * 2];
+    static {
+        Arrays.fill(DIGITS, (byte) -1);
+        for (int i = 0; i < 16; i++) {
+            DIGITS["0123456789abcdef".charAt(i)] = (byte) i;
+            DIGITS["0123456789ABCDEF".charAt(i)] = (byte) i;
+        }
+        for (int i = 0; i < 256; i++) {
+            LOWER_HEX_PAIRS[2 * i] = "0123456789abcdef".charAt(i >>> 4);
+            LOWER_HEX_PAIRS[2 * i + 1] = "0123456789abcdef".charAt(i & 0xF);
+            UPPER_HEX_PAIRS[2 * i] = "0123456789ABCDEF".charAt(i >>> 4);
+            UPPER_HEX_PAIRS[2 * i + 1] = "0123456789ABCDEF".charAt(i & 0xF);
+        }
+    }
+    
+    private MACAddressParser() {}
+    
+    /**
+     * Scan an address, guessing the separator and grouping size. The forms are 12 digits with no separator, and equal groups of digits divided by a single
+     * separator character, where anything but groups of two or four digits divided by ':' or '-' must contain a letter so that IP addresses and other numbers
+     * are not picked up.
+     *
+     * @param address
+     *            the address
+     * @return the packed address, or {@link #FAILED}
+     */
+    static long scan(CharSequence address) {
+        int end = address.length();
+        int sep = -1;
+        int groups = 1;
+        int groupSize = 0;
+        int minGroupSize = Integer.MAX_VALUE;
+        int maxGroupSize = 0;
+        boolean letters = false;
+        long value = 0;
+        for (int i = 0; i <= end; i++) {
+            char c = (i < end ? address.charAt(i) : 0);
+            int digit = (c < 128 && i < end ? DIGITS[c] : -1);
+            if (digit >= 0) {
+                if (value >>> 44 != 0) {
+                    return FAILED;
+                }
+                value = (value << 4) | digit;
+                letters |= (digit > 9);
+                groupSize++;
+                continue;
+            }
+            if (i < end) {
+                if (sep < 0) {
+                    sep = c;
+                } else if (c != sep) {
+                    return FAILED;
+                }
+            }
+            if (groupSize == 0) {
+                return FAILED;
+            }
+            minGroupSize = Math.min(minGroupSize, groupSize);
+            maxGroupSize = Math.max(maxGroupSize, groupSize);
+            groupSize = 0;
+            if (i < end) {
+                groups++;
+            }
+        }
+        if (groups == 1) {
+            // a single number
+            return (maxGroupSize == MAC_ADDRESS_LENGTH && letters) ? pack(value, MAC_ADDRESS_LENGTH) : FAILED;
+        }
+        if (minGroupSize == maxGroupSize && minGroupSize * groups == MAC_ADDRESS_LENGTH) {
+            boolean standard = (minGroupSize == 2 || minGroupSize == 4) && (sep == ':' || sep == '-');
+            if (standard || letters) {
+                return pack(value, minGroupSize);
+            }
+        }
+        return FAILED;
+    }
+    
+    /**
+     * Scan an address with a known separator and grouping size
+     *
+     * @param address
+     *            the address
+     * @param sep
+     *            the separator, which is empty when the grouping size is 12
+     * @param groupingSize
+     *            the number of digits in each group, which must divide 12
+     * @return the packed address, or {@link #FAILED}
+     */
+    static long scan(CharSequence address, String sep, int groupingSize) {
+        int groups = MAC_ADDRESS_LENGTH / groupingSize;
+        int sepLength = sep.length();
+        if (MAC_ADDRESS_LENGTH % groupingSize != 0 || address.length() != MAC_ADDRESS_LENGTH + (groups - 1) * sepLength || (groups > 1 && sepLength == 0)) {
+            return FAILED;
+        }
+        long value = 0;
+        int pos = 0;
+        for (int group = 0; group < groups; group++) {
+            if (group > 0) {
+                for (int i = 0; i < sepLength; i++) {
+                    if (address.charAt(pos++) != sep.charAt(i)) {
+                        return FAILED;
+                    }
+                }
+            }
+            for (int i = 0; i < groupingSize; i++) {
+                char c = address.charAt(pos++);
+                int digit = (c < 128 ? DIGITS[c] : -1);
+                if (digit < 0) {
+                    return FAILED;
+                }
+                value = (value << 4) | digit;
+            }
+        }
+        return pack(value, groupingSize);
+    }
+    
+    /**
+     * Scan a single hex number just as {@link Long#parseLong(String, int)} reads it in radix 16, with an optional sign and any Unicode hex digits, which is
+     * the form the MacAddressNormalizer has always accepted. Only a number which fits in 48 bits is an address, and the only negative one is zero.
+     *
+     * @param value
+     *            the value
+     * @return the address, or {@link #FAILED}
+     */
+    public static long scanNumber(CharSequence value) {
+        int end = value.length();
+        int i = 0;
+        boolean negative = false;
+        if (end > 0 && (value.charAt(0) == '-' || value.charAt(0) == '+')) {
+            negative = (value.charAt(0) == '-');
+            i++;
+        }
+        if (i == end) {
+            return FAILED;
+        }
+        long address = 0;
+        for (; i < end; i++) {
+            char c = value.charAt(i);
+            int digit = (c < 128 ? DIGITS[c] : Character.digit(c, 16));
+            if (digit < 0 || address >>> 44 != 0) {
+                return FAILED;
+            }
+            address = (address << 4) | digit;
+        }
+        return (negative && address != 0 ? FAILED : address);
+    }
+    
+    private static long pack(long value, int groupingSize) {
+        return value | ((long) groupingSize << GROUPING_SHIFT);
+    }
+    
+    /**
+     * Get the grouping size of a successful scan
+     */
+    static int groupingSize(long scanned) {
+        return (int) (scanned >>> GROUPING_SHIFT);
+    }
+    
+    /**
+     * Determine whether a character is a hex digit
+     */
+    static boolean isHexDigit(char c) {
+        return c < 128 && DIGITS[c] >= 0;
+    }
+    
+    /**
+     * Determine whether an address has only decimal digits
+     */
+    static boolean isDecimal(long address) {
+        for (int i = 0; i < MAC_ADDRESS_LENGTH; i++) {
+            if (((address >>> (4 * i)) & 0xF) > 9) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Format an address as six lower case pairs of digits divided by '-', such as 00-1a-2b-3c-4d-5e
+     *
+     * @param address
+     *            the address in the low 48 bits
+     * @return the canonical form
+     */
+    public static String toCanonicalString(long address) {
+        char[] chars = new char[17];
+        for (int i = 0; i < 6; i++) {
+            int octet = (int) (address >>> (40 - 8 * i)) & 0xFF;
+            chars[3 * i] = LOWER_HEX_PAIRS[2 * octet];
+            chars[3 * i + 1] = LOWER_HEX_PAIRS[2 * octet + 1];
+            if (i < 5) {
+                chars[3 * i + 2] = '-';
+            }
+        }
+        return new String(chars);
+    }
+    
+    /**
+     * Format an address as upper case digits in groups divided by a separator
+     *
+     * @param address
+     *            the address in the low 48 bits
+     * @param sep
+     *            the separator
+     * @param groupingSize
+     *            the number of digits in each group
+     * @return the formatted address
+     */
+    static String toString(long address, String sep, int groupingSize) {
+        StringBuilder builder = new StringBuilder(MAC_ADDRESS_LENGTH + (MAC_ADDRESS_LENGTH / groupingSize) * sep.length());
+        for (int i = 0; i < MAC_ADDRESS_LENGTH; i++) {
+            if (i > 0 && i % groupingSize == 0) {
+                builder.append(sep);
+            }
+            int octet = (int) (address >>> (40 - 8 * (i / 2))) & 0xFF;
+            builder.append(UPPER_HEX_PAIRS[2 * octet + (i & 1)]);
+        }
+        return builder.toString();
+    }
+}
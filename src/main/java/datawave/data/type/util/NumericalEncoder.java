@@ -1,8 +1,9 @@
 package datawave.data.type.util;
 
 import java.math.BigDecimal;
-import java.text.DecimalFormat;
-import java.text.NumberFormat;
+import java.math.BigInteger;
+import java.math.MathContext;
+import java.math.RoundingMode;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -38,6 +39,7 @@ import java.util.stream.IntStream;
  * <li>0.501 becomes +ZE5.01</li>
  * <li>10000 becomes +eE1</li>
  * </ul>
+ * This class only holds state which is built once in its static initializer, and is safe for any number of threads.
  */
 public class NumericalEncoder {
     
@@ -45,14 +47,19 @@ public class NumericalEncoder {
     private static Map<String,String> positiveNumsIntToEncodeExponentsMap;
     private static Map<String,String> negativeNumEncodeToIntExponentsMap;
     private static Map<String,String> negativeNumIntToEncodeExponentsMap;
-    private static final NumberFormat plainFormatter = new DecimalFormat("0.#########################################################");
-    private static final NumberFormat scientificFormatter = new DecimalFormat("0.#########################################################E0");
+    // the significant digits kept in a mantissa
+    private static final MathContext MANTISSA_CONTEXT = new MathContext(58, RoundingMode.HALF_EVEN);
     private static final String zero = "+AE0";
     private static final List<String> uppercaseLetters = createLetterList('A', 'Z');
     private static final List<String> lowercaseLetters = createLetterList('a', 'z');
     private static final String encodedRegex = "(\\!|\\+)[a-zA-Z][E|e][0-9].?[0-9]*";
     private static final Pattern encodedPattern = Pattern.compile(encodedRegex);
     
+    // the results of checking the syntax of a number
+    private static final int VALID_DECIMAL = 1;
+    private static final int INVALID_DECIMAL = 0;
+    private static final int UNCHECKED_DECIMAL = -1;
+    
     static {
         initNegativeExponents();
         initPositiveExponents();
@@ -78,41 +85,122 @@ public class NumericalEncoder {
     
     public static String encode(String input) {
         try {
-            BigDecimal decimal = new BigDecimal(input);
-            String encodedExponent;
-            String mantissa;
-            if (decimal.compareTo(BigDecimal.ZERO) == 0) {
-                return zero;
-            } else if (decimal.compareTo(BigDecimal.ZERO) > 0) {
-                // Positive
-                String decString = scientificFormatter.format(decimal);
-                String[] decParts = decString.split("E");
-                mantissa = decParts[0];
-                String exp = decParts[1];
-                encodedExponent = positiveNumsIntToEncodeExponentsMap.get(exp);
-            } else {
-                // Negative
-                String decString = scientificFormatter.format(decimal);
-                String[] decParts = decString.split("E");
-                mantissa = decParts[0];
-                String exp = decParts[1];
-                encodedExponent = negativeNumIntToEncodeExponentsMap.get(exp);
-                BigDecimal bigDecMantissa = new BigDecimal(mantissa);
-                bigDecMantissa = BigDecimal.TEN.add(bigDecMantissa);
-                mantissa = plainFormatter.format(bigDecMantissa);
-                
-            }
-            
-            if (encodedExponent == null) {
+            String encoded = encode(new BigDecimal(input));
+            if (encoded == null) {
                 throw new NumberFormatException("Exponent exceeded allowed range.");
             }
-            
-            return encodedExponent + "E" + mantissa;
+            return encoded;
         } catch (Exception ex) {
             throw new IllegalArgumentException("Error formatting input: " + input + " . Error: " + ex, ex);
         }
     }
     
+    /**
+     * Encode a number without the cost of an exception for a value which is not a number. The syntax of the value is checked up front, so no
+     * {@link NumberFormatException} is thrown along the way.
+     * 
+     * @param input
+     *            the value to encode
+     * @return the encoded number, or null if the value is not a number or its exponent is out of range
+     */
+    public static String tryEncode(String input) {
+        if (input == null) {
+            return null;
+        }
+        if (checkDecimal(input) == INVALID_DECIMAL) {
+            return null;
+        }
+        try {
+            return encode(new BigDecimal(input));
+        } catch (NumberFormatException e) {
+            // an exponent too long to check up front may still overflow
+            return null;
+        }
+    }
+    
+    /**
+     * Encode a number with {@link BigDecimal} arithmetic, which unlike a shared {@link java.text.DecimalFormat} is safe for any number of threads. The mantissa
+     * keeps up to 58 significant digits, rounded half even and without trailing zeros.
+     * 
+     * @return the encoded number, or null if its exponent is out of range
+     */
+    private static String encode(BigDecimal decimal) {
+        int signum = decimal.signum();
+        if (signum == 0) {
+            return zero;
+        }
+        BigDecimal rounded = decimal.round(MANTISSA_CONTEXT).stripTrailingZeros();
+        String digits = rounded.unscaledValue().abs().toString();
+        int exponent = digits.length() - 1 - rounded.scale();
+        Map<String,String> exponents = (signum > 0 ? positiveNumsIntToEncodeExponentsMap : negativeNumIntToEncodeExponentsMap);
+        String encodedExponent = exponents.get(Integer.toString(exponent));
+        if (encodedExponent == null) {
+            return null;
+        }
+        String mantissa;
+        if (signum > 0) {
+            mantissa = (digits.length() == 1 ? digits : digits.charAt(0) + "." + digits.substring(1));
+        } else {
+            // a negative mantissa is stored as ten minus its magnitude, so that larger magnitudes sort first
+            BigDecimal magnitude = new BigDecimal(new BigInteger(digits), digits.length() - 1);
+            mantissa = BigDecimal.TEN.subtract(magnitude).stripTrailingZeros().toPlainString();
+        }
+        return encodedExponent + "E" + mantissa;
+    }
+    
+    /**
+     * Check a value against the syntax accepted by {@link BigDecimal#BigDecimal(String)}: an optional sign, digits with at most one decimal point, and an
+     * optional exponent. Digits may be those of any script, as {@link Character#isDigit(char)} allows.
+     * 
+     * @return {@link #VALID_DECIMAL}, {@link #INVALID_DECIMAL}, or {@link #UNCHECKED_DECIMAL} for an exponent too long to be sure it is in range
+     */
+    private static int checkDecimal(String input) {
+        int length = input.length();
+        int i = 0;
+        if (length > 0 && (input.charAt(0) == '-' || input.charAt(0) == '+')) {
+            i++;
+        }
+        int digits = 0;
+        boolean point = false;
+        for (; i < length; i++) {
+            char c = input.charAt(i);
+            if ((c >= '0' && c <= '9') || Character.isDigit(c)) {
+                digits++;
+            } else if (c == '.' && !point) {
+                point = true;
+            } else if (c == 'e' || c == 'E') {
+                break;
+            } else {
+                return INVALID_DECIMAL;
+            }
+        }
+        if (digits == 0) {
+            return INVALID_DECIMAL;
+        }
+        if (i == length) {
+            return VALID_DECIMAL;
+        }
+        // the exponent
+        i++;
+        if (i < length && (input.charAt(i) == '-' || input.charAt(i) == '+')) {
+            i++;
+        }
+        if (i == length) {
+            return INVALID_DECIMAL;
+        }
+        int significantDigits = 0;
+        for (; i < length; i++) {
+            int digit = Character.digit(input.charAt(i), 10);
+            if (digit < 0) {
+                return INVALID_DECIMAL;
+            }
+            if (digit > 0 || significantDigits > 0) {
+                significantDigits++;
+            }
+        }
+        return significantDigits > 9 ? UNCHECKED_DECIMAL : VALID_DECIMAL;
+    }
+    
     /**
      * This provides a quick test that will determine whether this value is possibly encoded. Provides a mechanism that is significantly faster than waiting for
      * the decode method to throw an exception.
@@ -128,6 +216,33 @@ public class NumericalEncoder {
         return encodedPattern.matcher(input).matches();
     }
     
+    /**
+     * Determine whether a value is encoded, which is exactly when {@link #decode(String)} succeeds, without waiting for it to throw an exception.
+     * 
+     * @param input
+     *            the value to test for encoding
+     * @return true if the value is encoded
+     */
+    public static boolean isEncoded(String input) {
+        if (!isPossiblyEncoded(input)) {
+            return false;
+        }
+        // the pattern allows any character after the first digit of the mantissa, which must be a decimal point or another digit
+        if (input.length() < 5 || input.charAt(4) == '.' || Character.isDigit(input.charAt(4))) {
+            return true;
+        }
+        // a negative mantissa is parsed on its own, so it may also carry an exponent of its own which is rare enough to leave to decode
+        if (input.charAt(0) == '!' && (input.charAt(4) == 'e' || input.charAt(4) == 'E')) {
+            try {
+                decode(input);
+                return true;
+            } catch (IllegalArgumentException e) {
+                return false;
+            }
+        }
+        return false;
+    }
+    
     public static BigDecimal decode(String input) {
         BigDecimal output;
         if (input.equals(zero)) {
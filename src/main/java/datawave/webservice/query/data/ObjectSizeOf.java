@@ -63,14 +63,14 @@ public interface ObjectSizeOf {
         public static final long DATE_STATIC_REF = Sizer.getObjectSize(new Date()) + Sizer.OBJECT_OVERHEAD + Sizer.REFERENCE;
         
         /**
-         * All IPV4 will be similarly sized object ref(8) + ref to object (4) + int (4) + int (4) + byte[4] (12 + 4 + 4*1)
+         * All IPV4 will be similarly sized object ref(8) + ref to object (4) + int (4) + int (4) + int (4)
          */
-        public static final long IPV4ADDRESS_STATIC_REF = 40;
+        public static final long IPV4ADDRESS_STATIC_REF = 24;
         
         /**
-         * All IPV6 will be similarly sized object ref(8) + ref to object (4) + short[8] (12 + 4 + 8*2)
+         * All IPV6 will be similarly sized object ref(8) + ref to object (4) + long (8) + long (8)
          */
-        public static final long IPV6ADDRESS_STATIC_REF = 44;
+        public static final long IPV6ADDRESS_STATIC_REF = 28;
         
         /**
          * All BigDecimal will be similarly sized object ref (8) + ref to object (4) + int (4) + int (4) + String (len=) + long (8) + BigInt( obj ref (8) + ref
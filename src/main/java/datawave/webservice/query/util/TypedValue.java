@@ -25,7 +25,7 @@ import javax.xml.bind.annotation.XmlValue;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
-import datawave.data.normalizer.DateNormalizer;
+import datawave.data.normalizer.Iso8601DateFormat;
 import datawave.data.type.DateType;
 import datawave.data.type.IpAddressType;
 import datawave.data.type.NoOpType;
@@ -145,8 +145,7 @@ public class TypedValue implements Serializable, Message<TypedValue> {
             this.type = XSD_BYTE;
         } else if (Date.class.isAssignableFrom(clazz)) {
             Date d = (Date) value;
-            DateNormalizer dn = new DateNormalizer();
-            this.marshalledValue = DatatypeConverter.printString(dn.parseToString(d));
+            this.marshalledValue = DatatypeConverter.printString(Iso8601DateFormat.format(d.getTime()));
             this.type = XSD_DATETIME;
         } else if (Calendar.class.isAssignableFrom(clazz)) {
             this.marshalledValue = DatatypeConverter.printDateTime((Calendar) value);
@@ -183,8 +182,7 @@ public class TypedValue implements Serializable, Message<TypedValue> {
         } else if (DateType.class.equals(clazz)) {
             Type<?> type = (Type<?>) value;
             Date d = (Date) type.getDelegate();
-            DateNormalizer dn = new DateNormalizer();
-            this.marshalledValue = DatatypeConverter.printString(dn.parseToString(d));
+            this.marshalledValue = DatatypeConverter.printString(Iso8601DateFormat.format(d.getTime()));
             this.type = XSD_DATETIME;
         } else if (NumberType.class.equals(clazz)) {
             NumberType dn = (NumberType) value;
@@ -0,0 +1,123 @@
+package datawave.data.normalizer;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.math.BigDecimal;
+
+import org.junit.jupiter.api.Test;
+
+public class CachingNormalizerTest {
+    
+    @Test
+    public void testCachedAfterAdmission() {
+        CachingNormalizer<String> normalizer = new CachingNormalizer<>(new LcNoDiacriticsNormalizer());
+        
+        // the first sighting is rejected by the admission filter
+        assertEquals("us", normalizer.normalize("US"));
+        assertEquals(0, normalizer.getCacheSize());
+        assertEquals(1, normalizer.getRejectedCount());
+        
+        // the second sighting is admitted
+        assertEquals("us", normalizer.normalize("US"));
+        assertEquals(1, normalizer.getCacheSize());
+        
+        // and the third is served from the cache
+        assertEquals("us", normalizer.normalize("US"));
+        assertEquals(1, normalizer.getStats().hitCount());
+        assertEquals(2, normalizer.getStats().missCount());
+    }
+    
+    @Test
+    public void testWithoutAdmissionFilter() {
+        CachingNormalizer<String> normalizer = new CachingNormalizer<>(new LcNormalizer(), 1024, 16, false);
+        
+        assertEquals("tcp", normalizer.normalize("TCP"));
+        assertEquals("tcp", normalizer.normalize("TCP"));
+        assertEquals("tcp", normalizer.normalizeDelegateType("TCP"));
+        assertEquals("tcp", normalizer.normalizeDelegateType("TCP"));
+        
+        assertEquals(2, normalizer.getCacheSize());
+        assertEquals(0, normalizer.getRejectedCount());
+        assertEquals(0.5, normalizer.getHitRate());
+    }
+    
+    @Test
+    public void testLongValuesBypassCache() {
+        CachingNormalizer<String> normalizer = new CachingNormalizer<>(new LcNormalizer(), 1024, 4, false);
+        
+        assertEquals("abcdef", normalizer.normalize("ABCDEF"));
+        assertEquals("abcdef", normalizer.normalize("ABCDEF"));
+        
+        assertEquals(0, normalizer.getCacheSize());
+        assertEquals(2, normalizer.getBypassedCount());
+    }
+    
+    @Test
+    public void testWeightLimit() {
+        CachingNormalizer<String> normalizer = new CachingNormalizer<>(new LcNormalizer(), 40, 16, false);
+        for (int i = 0; i < 100; i++) {
+            normalizer.normalize("VALUE" + i);
+        }
+        // each entry weighs at least 12 chars
+        assertTrue(normalizer.getCacheSize() <= 3);
+    }
+    
+    @Test
+    public void testFailuresAreNotCached() {
+        CachingNormalizer<BigDecimal> normalizer = new CachingNormalizer<>(new NumberNormalizer(), 1024, 16, false);
+        
+        assertThrows(IllegalArgumentException.class, () -> normalizer.normalize("not a number"));
+        assertThrows(IllegalArgumentException.class, () -> normalizer.normalize("not a number"));
+        assertEquals(0, normalizer.getCacheSize());
+        
+        assertEquals(new NumberNormalizer().normalize("12"), normalizer.normalize("12"));
+    }
+    
+    @Test
+    public void testCannotCacheTwice() {
+        CachingNormalizer<String> normalizer = new CachingNormalizer<>(new LcNormalizer());
+        assertThrows(IllegalArgumentException.class, () -> new CachingNormalizer<>(normalizer));
+    }
+    
+    @Test
+    public void testSerialization() throws Exception {
+        CachingNormalizer<String> normalizer = new CachingNormalizer<>(new LcNormalizer(), 1024, 16, false);
+        normalizer.normalize("ABC");
+        
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(normalizer);
+        }
+        Object deserialized;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            deserialized = in.readObject();
+        }
+        
+        CachingNormalizer<?> copy = assertInstanceOf(CachingNormalizer.class, deserialized);
+        assertInstanceOf(LcNormalizer.class, copy.getDelegate());
+        assertEquals(0, copy.getCacheSize());
+        assertEquals("abc", copy.normalize("ABC"));
+        assertEquals(1, copy.getCacheSize());
+    }
+    
+    @Test
+    public void testNormalizeAll() {
+        CachingNormalizer<BigDecimal> normalizer = new CachingNormalizer<>(new NumberNormalizer(), 1024, 16, false);
+        assertEquals("+aE1", normalizer.normalize("1"));
+        
+        // the cached value is filled in, and the rest go to the delegate as one batch
+        String[] out = new String[4];
+        assertEquals(1, normalizer.normalizeAll(new String[] {"1", "2", "two", "2"}, out));
+        assertArrayEquals(new String[] {"+aE1", "+aE2", null, "+aE2"}, out);
+        assertEquals(1, normalizer.getStats().hitCount());
+        assertEquals(2, normalizer.getCacheSize());
+    }
+}
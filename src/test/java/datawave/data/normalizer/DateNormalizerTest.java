@@ -1,13 +1,25 @@
 package datawave.data.normalizer;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Date;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Random;
 import java.util.Set;
+import java.util.TimeZone;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -125,6 +137,127 @@ public class DateNormalizerTest {
         String normalizedFromLong = normalizer.normalize("" + rightNow);
         String normalizedFromDate = normalizer.normalizeDelegateType(now);
         assertEquals(normalizedFromLong, normalizedFromDate);
+        assertEquals(normalizedFromDate, normalizer.normalize(rightNow));
+    }
+    
+    @Test
+    public void testDenormalizeToMillis() {
+        for (String inputDateString : inputDateStrings) {
+            assertEquals(normalizer.denormalize(inputDateString).getTime(), normalizer.denormalizeToMillis(inputDateString), inputDateString);
+        }
+        assertEquals(1413825620001L, normalizer.denormalizeToMillis("1413825620001"));
+        assertThrows(IllegalArgumentException.class, () -> normalizer.denormalizeToMillis("not a date"));
+        assertThrows(IllegalArgumentException.class, () -> normalizer.denormalizeToMillis(null));
+    }
+    
+    @Test
+    public void testAdaptiveMatchesFixedOrder() {
+        List<String> inputs = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            inputs.addAll(Arrays.asList(inputDateStrings));
+            inputs.addAll(Arrays.asList("2014-10-20T17:20:20Z", "2014-10-20T17:20:20+05:00", "1413825620001", "not a date"));
+        }
+        Collections.shuffle(inputs, new Random(42));
+        DateNormalizer adaptive = new DateNormalizer(true);
+        for (String input : inputs) {
+            assertEquals(normalizeOrNull(normalizer, input), normalizeOrNull(adaptive, input), input);
+        }
+        
+        DateFormatStatistics statistics = adaptive.getFormatStatistics();
+        assertEquals(20, statistics.getEpochMillisCount());
+        assertEquals(20, statistics.getFailureCount());
+        assertEquals(Long.valueOf(40), statistics.getFormatCounts().get("yyyy-MM-dd'T'HH:mm:ss'Z'"));
+        assertEquals(Long.valueOf(40), statistics.getFormatCounts().get("yyyy-MM-dd'T'HH:mm:ssXXX"));
+        assertEquals(Long.valueOf(20), statistics.getFormatCounts().get(DateNormalizer.ISO_8601_FORMAT_STRING));
+        assertNull(normalizer.getFormatStatistics());
+    }
+    
+    @Test
+    public void testAdaptivePrefersLastFormat() {
+        DateNormalizer adaptive = new DateNormalizer(true);
+        assertNull(adaptive.getFormatStatistics().getPreferredFormat());
+        adaptive.normalize("2014-10-20 17:20:20");
+        assertEquals("yyyy-MM-dd HH:mm:ss", adaptive.getFormatStatistics().getPreferredFormat());
+        adaptive.normalize("2014-10-20T17:20:20+05:00");
+        assertEquals("yyyy-MM-dd'T'HH:mm:ssXXX", adaptive.getFormatStatistics().getPreferredFormat());
+        // the earlier overlapping pattern still wins
+        assertEquals(normalizer.normalize("2014-10-20T17:20:20Z"), adaptive.normalize("2014-10-20T17:20:20Z"));
+        assertEquals("yyyy-MM-dd'T'HH:mm:ss'Z'", adaptive.getFormatStatistics().getPreferredFormat());
+    }
+    
+    @Test
+    public void testGetParserIsCachedPerThread() throws Exception {
+        SimpleDateFormat parser = DateNormalizer.getParser("yyyyMMdd");
+        assertSame(parser, DateNormalizer.getParser("yyyyMMdd"));
+        
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            assertNotSame(parser, executor.submit(() -> DateNormalizer.getParser("yyyyMMdd")).get());
+        } finally {
+            executor.shutdown();
+        }
+        
+        // a cached instance follows the default time zone
+        TimeZone defaultTimeZone = TimeZone.getDefault();
+        try {
+            TimeZone.setDefault(TimeZone.getTimeZone("Asia/Kolkata"));
+            assertEquals("Asia/Kolkata", DateNormalizer.getParser("yyyyMMdd").getTimeZone().getID());
+        } finally {
+            TimeZone.setDefault(defaultTimeZone);
+        }
+    }
+    
+    @Test
+    public void testWarmUpLeavesStatisticsAlone() {
+        DateNormalizer adaptive = new DateNormalizer(true);
+        adaptive.warmUp();
+        assertNull(adaptive.getFormatStatistics().getPreferredFormat());
+        assertEquals(0, adaptive.getFormatStatistics().getFailureCount());
+    }
+    
+    @Test
+    public void testExpand() {
+        Date date = normalizer.denormalize("2014-10-20T17:20:20.001Z");
+        List<String> expected = new ArrayList<>();
+        for (String pattern : DateNormalizer.FORMAT_STRINGS) {
+            expected.add(DateNormalizer.getParser(pattern).format(date));
+        }
+        Collection<String> expanded = normalizer.expand("2014-10-20T17:20:20.001Z");
+        assertEquals(expected, new ArrayList<>(expanded));
+        
+        // the same date in another form is served from the cache, also through a raw date normalizer, and each call gets its own copy
+        expanded.add("2014");
+        assertEquals(expected.size() + 1, expanded.size());
+        assertEquals(expected, normalizer.expand("" + date.getTime()));
+        assertEquals(expected, new RawDateNormalizer().expand("2014-10-20T17:20:20.0010000"));
+        assertThrows(IllegalArgumentException.class, () -> normalizer.expand("not a date"));
+    }
+    
+    @Test
+    public void testExpandFormatsOnIteration() {
+        DateExpansion.View expanded = (DateExpansion.View) normalizer.expand("1999-12-31T23:59:58.123Z");
+        assertEquals(0, expanded.formattedCount());
+        assertEquals(DateNormalizer.FORMAT_STRINGS.length, expanded.size());
+        assertEquals(0, expanded.formattedCount());
+        
+        Iterator<String> values = expanded.iterator();
+        values.next();
+        values.next();
+        assertEquals(2, expanded.formattedCount());
+        assertEquals(2, ((DateExpansion.View) normalizer.expand("" + normalizer.denormalizeToMillis("1999-12-31T23:59:58.123Z"))).formattedCount());
+        
+        // the first write copies the values, which leaves the cached expansion untouched
+        String first = expanded.set(0, "1999");
+        assertEquals("1999", expanded.get(0));
+        assertEquals(first, normalizer.expand("1999-12-31T23:59:58.123Z").iterator().next());
+    }
+    
+    private static String normalizeOrNull(DateNormalizer normalizer, String input) {
+        try {
+            return normalizer.normalize(input);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
     }
     
     /**
@@ -180,4 +313,34 @@ public class DateNormalizerTest {
         }
         assertEquals(4, dates.size());
     }
+    
+    @Test
+    public void testTryNormalize() {
+        for (String input : inputDateStrings) {
+            NormalizationResult result = normalizer.tryNormalize(input);
+            assertEquals(normalizer.normalize(input), result.getValue(), input);
+        }
+        assertEquals("2014-10-20T00:00:00.000Z", normalizer.tryNormalize("1413763200000").getValue());
+        assertSame(NormalizationResult.FAILED, normalizer.tryNormalize(null));
+        assertSame(NormalizationResult.FAILED, normalizer.tryNormalize("not a date"));
+        assertFalse(normalizer.tryNormalize("yesterday").isSuccess());
+    }
+    
+    @Test
+    public void testNormalizeAll() {
+        List<String> in = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            in.addAll(Arrays.asList(inputDateStrings));
+            in.add("not a date");
+        }
+        List<String> out = normalizer.normalizeAll(in);
+        assertEquals(in.size(), out.size());
+        for (int i = 0; i < in.size(); i++) {
+            assertEquals(normalizer.tryNormalize(in.get(i)).getValue(), out.get(i), in.get(i));
+        }
+        
+        String[] values = in.toArray(new String[0]);
+        assertEquals(3, normalizer.normalizeAll(values, new String[values.length]));
+        assertArrayEquals(new String[0], normalizer.normalizeAll(Collections.emptyList()).toArray());
+    }
 }
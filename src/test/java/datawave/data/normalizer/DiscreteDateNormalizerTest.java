@@ -0,0 +1,92 @@
+package datawave.data.normalizer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.TimeZone;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import datawave.data.normalizer.DiscreteDateNormalizer.Granularity;
+import datawave.data.type.DiscreteDateType;
+
+public class DiscreteDateNormalizerTest {
+    
+    private TimeZone defaultTimeZone;
+    
+    @BeforeEach
+    public void saveTimeZone() {
+        defaultTimeZone = TimeZone.getDefault();
+        TimeZone.setDefault(TimeZone.getTimeZone("America/New_York"));
+    }
+    
+    @AfterEach
+    public void restoreTimeZone() {
+        TimeZone.setDefault(defaultTimeZone);
+    }
+    
+    @Test
+    public void testNormalize() {
+        String input = "2014-10-20T17:21:22.345Z";
+        assertEquals("2014-10-20T17:21:22.000Z", new DiscreteDateNormalizer(Granularity.SECOND).normalize(input));
+        assertEquals("2014-10-20T17:21:00.000Z", new DiscreteDateNormalizer(Granularity.MINUTE).normalize(input));
+        assertEquals("2014-10-20T17:00:00.000Z", new DiscreteDateNormalizer(Granularity.HOUR).normalize(input));
+        assertEquals("2014-10-20T00:00:00.000Z", new DiscreteDateNormalizer(Granularity.DAY).normalize(input));
+        
+        // buckets follow the local wall clock
+        DiscreteDateNormalizer normalizer = new DiscreteDateNormalizer();
+        assertEquals("2014-10-20T00:00:00.000Z", normalizer.normalize("Mon Oct 20 23:30:00 EDT 2014"));
+        assertEquals("2014-10-20T00:00:00.000Z", normalizer.normalizeDelegateType(normalizer.denormalize("2014-10-20 23:59:59")));
+    }
+    
+    @Test
+    public void testIncrementAndDecrement() {
+        DiscreteDateNormalizer normalizer = new DiscreteDateNormalizer(Granularity.HOUR);
+        assertEquals("2014-10-21T00:00:00.000Z", normalizer.incrementIndex("2014-10-20T23:00:00.000Z"));
+        assertEquals("2014-10-20T22:00:00.000Z", normalizer.decrementIndex("2014-10-20T23:00:00.000Z"));
+        assertEquals("2014-10-20T23:00:00.000Z", normalizer.incrementIndex("2014-10-20T22:30:00.000Z"));
+        assertEquals("2014-10-20T22:00:00.000Z", normalizer.decrementIndex("2014-10-20T22:30:00.000Z"));
+        
+        // the index would no longer have a fixed length
+        normalizer = new DiscreteDateNormalizer(Granularity.DAY);
+        assertEquals("9999-12-31T00:00:00.000Z", normalizer.incrementIndex("9999-12-31T00:00:00.000Z"));
+        assertEquals("2016-03-01T00:00:00.000Z", normalizer.incrementIndex("2016-02-29T00:00:00.000Z"));
+        
+        // an index which is not in the normalized form is returned unchanged
+        assertEquals("2014-10-20", normalizer.incrementIndex("2014-10-20"));
+        assertEquals("2014-10-20", normalizer.decrementIndex("2014-10-20"));
+    }
+    
+    @Test
+    public void testDiscretizeRange() {
+        DiscreteDateNormalizer normalizer = new DiscreteDateNormalizer(Granularity.DAY);
+        List<String> expected = Arrays.asList("2014-10-30T00:00:00.000Z", "2014-10-31T00:00:00.000Z", "2014-11-01T00:00:00.000Z");
+        assertEquals(expected, normalizer.discretizeRange("2014-10-30T12:00:00.000Z", "2014-11-01T00:00:00.000Z"));
+        assertEquals(Collections.emptyList(), normalizer.discretizeRange("2014-11-01T00:00:00.000Z", "2014-10-30T12:00:00.000Z"));
+        assertTrue(normalizer.producesFixedLengthRanges());
+        
+        // a range whose ends differ in length or are not in the normalized form is returned as is
+        assertEquals(Arrays.asList("2014-10-30", "2014-11-01T00:00:00.000Z"), normalizer.discretizeRange("2014-10-30", "2014-11-01T00:00:00.000Z"));
+        assertEquals(Arrays.asList("2014-10-30T00:00:00.000X", "2014-11-01T00:00:00.000Z"),
+                        normalizer.discretizeRange("2014-10-30T00:00:00.000X", "2014-11-01T00:00:00.000Z"));
+        
+        // the daylight saving change does not affect the wall clock buckets
+        normalizer = new DiscreteDateNormalizer(Granularity.HOUR);
+        assertEquals(25, normalizer.discretizeRange("2014-11-02T00:00:00.000Z", "2014-11-03T00:00:00.000Z").size());
+    }
+    
+    @Test
+    public void testType() {
+        DiscreteDateType type = new DiscreteDateType("2014-10-20T17:21:22.345Z");
+        assertEquals(Granularity.DAY, type.getGranularity());
+        assertEquals("2014-10-20T00:00:00.000Z", type.getNormalizedValue());
+        assertEquals("2014-10-20T17:21:22.345Z", type.getDelegateAsString());
+        assertEquals("2014-10-21T00:00:00.000Z", type.incrementIndex(type.getNormalizedValue()));
+        assertEquals(2, type.discretizeRange("2014-10-20T00:00:00.000Z", "2014-10-21T00:00:00.000Z").size());
+    }
+}
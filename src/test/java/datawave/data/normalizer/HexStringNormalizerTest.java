@@ -1,6 +1,9 @@
 package datawave.data.normalizer;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import org.junit.jupiter.api.Test;
@@ -57,4 +60,24 @@ public class HexStringNormalizerTest {
     public void testConvertFieldRegexNull() {
         assertThrows(IllegalArgumentException.class, () -> normalizer.normalizeRegex(null));
     }
+    
+    @Test
+    public void testTryNormalize() {
+        assertEquals("0abcde", normalizer.tryNormalize("0xabCde").getValue());
+        assertEquals("1234567890abcdefabcdef", normalizer.tryNormalize("1234567890abcdefABCDEF").getValue());
+        assertSame(NormalizationResult.FAILED, normalizer.tryNormalize(""));
+        assertSame(NormalizationResult.FAILED, normalizer.tryNormalize(null));
+        assertSame(NormalizationResult.FAILED, normalizer.tryNormalize("0x"));
+        assertFalse(normalizer.tryNormalize("aBcDeFg12345").isSuccess());
+        assertEquals("none", normalizer.tryNormalize("Not Hex").getValueOr("none"));
+    }
+    
+    @Test
+    public void testNormalizeAll() {
+        String[] in = {"0xabCde", "123", "Not Hex", "", "123", null, "FF"};
+        String[] out = new String[in.length];
+        assertEquals(3, normalizer.normalizeAll(in, out));
+        assertArrayEquals(new String[] {"0abcde", "0123", null, null, "0123", null, "ff"}, out);
+        assertThrows(IllegalArgumentException.class, () -> normalizer.normalizeAll(in, new String[1]));
+    }
 }
@@ -8,6 +8,10 @@ package datawave.data.normalizer;
 import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
 
 import org.apache.log4j.Logger;
 import org.junit.jupiter.api.Disabled;
@@ -119,6 +123,74 @@ public class IpAddressNormalizerTest {
         assertArrayEquals(norm.normalizeCidrToRange("1.2.0.0/16"), new String[] {"001.002.000.000", "001.002.255.255"});
         assertArrayEquals(norm.normalizeCidrToRange("1.0.0.0/8"), new String[] {"001.000.000.000", "001.255.255.255"});
         assertArrayEquals(norm.normalizeCidrToRange("1.2.3.4/30"), new String[] {"001.002.003.004", "001.002.003.007"});
+        assertArrayEquals(norm.normalizeCidrToRange("2001:db8::/32"), new String[] {"2001:0db8:0000:0000:0000:0000:0000:0000",
+                "2001:0db8:ffff:ffff:ffff:ffff:ffff:ffff"});
+        assertArrayEquals(norm.normalizeCidrToRange("::/0"), new String[] {"0000:0000:0000:0000:0000:0000:0000:0000",
+                "ffff:ffff:ffff:ffff:ffff:ffff:ffff:ffff"});
+        assertThrows(IllegalArgumentException.class, () -> norm.normalizeCidrToRange("1.2.3.4/33"));
         
     }
+    
+    @Test
+    public void testMergedCidrRanges() {
+        IpAddressNormalizer norm = new IpAddressNormalizer();
+        List<String[]> ranges = norm.normalizeCidrsToRanges(Arrays.asList("10.0.1.0/24", "10.0.0.0/24", "10.0.0.128/25", "10.0.3.0/24", "2001:db8::/33",
+                        "2001:db8:8000::/33", "255.255.255.0/24", "255.0.0.0/8"));
+        assertEquals(4, ranges.size());
+        assertArrayEquals(new String[] {"010.000.000.000", "010.000.001.255"}, ranges.get(0));
+        assertArrayEquals(new String[] {"010.000.003.000", "010.000.003.255"}, ranges.get(1));
+        assertArrayEquals(new String[] {"2001:0db8:0000:0000:0000:0000:0000:0000", "2001:0db8:ffff:ffff:ffff:ffff:ffff:ffff"}, ranges.get(2));
+        assertArrayEquals(new String[] {"255.000.000.000", "255.255.255.255"}, ranges.get(3));
+        
+        ranges = norm.normalizeCidrsToRanges(Arrays.asList("8000::/1", "::/1", "1.2.3.4"));
+        assertEquals(2, ranges.size());
+        assertArrayEquals(new String[] {"0000:0000:0000:0000:0000:0000:0000:0000", "ffff:ffff:ffff:ffff:ffff:ffff:ffff:ffff"}, ranges.get(0));
+        assertArrayEquals(new String[] {"001.002.003.004", "001.002.003.004"}, ranges.get(1));
+    }
+    
+    @Test
+    public void testDiscreteIndices() {
+        IpAddressNormalizer norm = new IpAddressNormalizer();
+        assertEquals("001.002.004.000", norm.incrementIndex("001.002.003.255"));
+        assertEquals("001.002.003.255", norm.decrementIndex("001.002.004.000"));
+        assertEquals("255.255.255.255", norm.incrementIndex("255.255.255.255"));
+        assertEquals("000.000.000.000", norm.decrementIndex("000.000.000.000"));
+        assertEquals("2001:0db8:0000:0001:0000:0000:0000:0000", norm.incrementIndex("2001:0db8:0000:0000:ffff:ffff:ffff:ffff"));
+        assertEquals("2001:0db8:0000:0000:ffff:ffff:ffff:ffff", norm.decrementIndex("2001:0db8:0000:0001:0000:0000:0000:0000"));
+        assertEquals("ffff:ffff:ffff:ffff:ffff:ffff:ffff:ffff", norm.incrementIndex("ffff:ffff:ffff:ffff:ffff:ffff:ffff:ffff"));
+        assertEquals("0000:0000:0000:0000:0000:0000:0000:0000", norm.decrementIndex("0000:0000:0000:0000:0000:0000:0000:0000"));
+        // an index which is not zero padded would change length
+        assertEquals("1.2.3.4", norm.incrementIndex("1.2.3.4"));
+        // an index which is not an address is returned unchanged
+        assertEquals("001.002.*", norm.incrementIndex("001.002.*"));
+        assertEquals("001.002.*", norm.decrementIndex("001.002.*"));
+        assertEquals("not an address", norm.decrementIndex("not an address"));
+        assertTrue(norm.producesFixedLengthRanges());
+    }
+    
+    @Test
+    public void testDiscretizeRange() {
+        IpAddressNormalizer norm = new IpAddressNormalizer();
+        assertEquals(Arrays.asList("010.000.000.254", "010.000.000.255", "010.000.001.000", "010.000.001.001"),
+                        norm.discretizeRange("010.000.000.254", "010.000.001.001"));
+        assertEquals(Arrays.asList("255.255.255.254", "255.255.255.255"), norm.discretizeRange("255.255.255.254", "255.255.255.255"));
+        assertEquals(Arrays.asList("0000:0000:0000:0000:ffff:ffff:ffff:ffff", "0000:0000:0000:0001:0000:0000:0000:0000"),
+                        norm.discretizeRange("0000:0000:0000:0000:ffff:ffff:ffff:ffff", "0000:0000:0000:0001:0000:0000:0000:0000"));
+        assertEquals(Arrays.asList("001.002.003.004"), norm.discretizeRange("001.002.003.004", "001.002.003.004"));
+        assertTrue(norm.discretizeRange("001.002.003.005", "001.002.003.004").isEmpty());
+        // a range across both families is left as is
+        assertEquals(Arrays.asList("001.002.003.004", "2001:0db8:0000:0000:0000:0000:0000:0000"),
+                        norm.discretizeRange("001.002.003.004", "2001:0db8:0000:0000:0000:0000:0000:0000"));
+        // as is a range with an end which is not an address
+        assertEquals(Arrays.asList("001.002.*", "001.002.003"), norm.discretizeRange("001.002.*", "001.002.003"));
+    }
+    
+    @Test
+    public void testDiscretizeWideRange() {
+        IpAddressNormalizer norm = new IpAddressNormalizer();
+        assertEquals(IpAddressNormalizer.MAX_DISCRETE_INDICES, norm.discretizeRange("010.000.000.000", "010.000.255.255").size());
+        assertEquals(Arrays.asList("010.000.000.000", "010.001.000.000"), norm.discretizeRange("010.000.000.000", "010.001.000.000"));
+        assertEquals(Arrays.asList("2001:0db8:0000:0000:0000:0000:0000:0000", "2001:0db8:0000:0000:ffff:ffff:ffff:ffff"),
+                        norm.discretizeRange("2001:0db8:0000:0000:0000:0000:0000:0000", "2001:0db8:0000:0000:ffff:ffff:ffff:ffff"));
+    }
 }
@@ -0,0 +1,92 @@
+package datawave.data.normalizer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.Date;
+import java.util.Random;
+import java.util.TimeZone;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class Iso8601DateFormatTest {
+    
+    private static final String[] TIME_ZONES = {"GMT", "America/New_York", "Asia/Kolkata", "Europe/London", "Australia/Sydney"};
+    
+    private TimeZone defaultTimeZone;
+    
+    @BeforeEach
+    public void saveTimeZone() {
+        defaultTimeZone = TimeZone.getDefault();
+    }
+    
+    @AfterEach
+    public void restoreTimeZone() {
+        TimeZone.setDefault(defaultTimeZone);
+    }
+    
+    @Test
+    public void testFormatMatchesSimpleDateFormat() {
+        Random random = new Random(42);
+        for (String timeZone : TIME_ZONES) {
+            TimeZone zone = TimeZone.getTimeZone(timeZone);
+            TimeZone.setDefault(zone);
+            for (int i = 0; i < 10000; i++) {
+                // between roughly 1240 and 3200, to cover the fallback before the Gregorian cutover as well
+                long millis = (long) (random.nextDouble() * 8e13 - 4e13);
+                String expected = DateNormalizer.getParser(DateNormalizer.ISO_8601_FORMAT_STRING).format(new Date(millis));
+                assertEquals(expected, Iso8601DateFormat.format(millis), millis + " " + timeZone);
+                assertEquals("x" + expected, Iso8601DateFormat.format(millis, new StringBuilder("x")).toString(), millis + " " + timeZone);
+                assertEquals(expected, Iso8601DateFormat.format(millis, zone, new StringBuilder()).toString(), millis + " " + timeZone);
+            }
+        }
+    }
+    
+    @Test
+    public void testFormatOutOfRange() {
+        TimeZone.setDefault(TimeZone.getTimeZone("GMT"));
+        assertEquals("1582-10-15T00:00:00.000Z", Iso8601DateFormat.format(-12219292800000L));
+        assertEquals("1582-10-04T23:59:59.999Z", Iso8601DateFormat.format(-12219292800001L));
+        assertEquals("9999-12-31T23:59:59.999Z", Iso8601DateFormat.format(253402300799999L));
+        assertEquals("10000-01-01T00:00:00.000Z", Iso8601DateFormat.format(253402300800000L));
+    }
+    
+    @Test
+    public void testParseRoundTrip() {
+        Random random = new Random(42);
+        for (String timeZone : TIME_ZONES) {
+            TimeZone.setDefault(TimeZone.getTimeZone(timeZone));
+            for (int i = 0; i < 10000; i++) {
+                // between 1900 and 2100, where every local time is unambiguous except during a daylight saving overlap
+                long millis = (long) (random.nextDouble() * 6.3e12 - 2.2e12);
+                String formatted = Iso8601DateFormat.format(millis);
+                long parsed = Iso8601DateFormat.parse(formatted);
+                assertEquals(formatted, Iso8601DateFormat.format(parsed), millis + " " + timeZone);
+            }
+        }
+    }
+    
+    @Test
+    public void testParseMatchesLenientDateFormat() {
+        String[] inputs = {"2014-10-20T17:20:20.001Z", "2014-13-45T25:61:61.999Z", "2014-00-00T00:00:00.000Z", "1582-10-10T00:00:00.000Z",
+                "1500-02-29T12:00:00.000Z", "2014-03-09T02:30:00.000Z", "2014-11-02T01:30:00.000Z", "2014-03-30T01:30:00.000Z", "2014-10-26T01:30:00.000Z",
+                "0000-01-01T00:00:00.000Z"};
+        LenientDateFormat general = LenientDateFormat.compile(DateNormalizer.ISO_8601_FORMAT_STRING);
+        for (String timeZone : TIME_ZONES) {
+            TimeZone.setDefault(TimeZone.getTimeZone(timeZone));
+            for (String input : inputs) {
+                assertEquals(general.parse(input), Iso8601DateFormat.parse(input), input + " " + timeZone);
+            }
+        }
+    }
+    
+    @Test
+    public void testParseRejectsOtherForms() {
+        String[] inputs = {"", "2014-10-20", "2014-10-20T17:20:20.001", "2014-10-20T17:20:20.001Z ", " 2014-10-20T17:20:20.01Z", "2014-10-20T17:20:20.0a1Z",
+                "2014/10/20T17:20:20.001Z", "2014-10-20 17:20:20.001Z", "2014-10-20T17:20:20.001z", "2014-10-20T17:20:20,001Z", "+014-10-20T17:20:20.001Z"};
+        for (String input : inputs) {
+            assertEquals(Iso8601DateFormat.INVALID, Iso8601DateFormat.parse(input), input);
+        }
+    }
+}
@@ -1,6 +1,10 @@
 package datawave.data.normalizer;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.Random;
 
 import org.junit.jupiter.api.Test;
 
@@ -14,4 +18,48 @@ public class LcNoDiacriticsNormalizerTest {
         assertNull(n1);
         
     }
+    
+    @Test
+    public void testExpectedResults() {
+        LcNoDiacriticsNormalizer norm = new LcNoDiacriticsNormalizer();
+        assertEquals("creme brulee", norm.normalize("Cr\u00E8me Br\u00FBl\u00E9e"));
+        assertEquals("sao paulo", norm.normalize("S\u00C3O PAULO"));
+        assertEquals("istanbul", norm.normalize("\u0130stanbul"));
+        assertEquals("e", norm.normalize("e\u0301"));
+        assertEquals("\u03BF\u03B4\u03BF\u03C2", norm.normalize("\u039F\u0394\u039F\u03A3"));
+        assertEquals("\u304C", norm.normalize("\u304B\u3099"));
+        assertEquals("\uD55C\uAD6D\uC5B4", norm.normalize("\u1112\u1161\u11AB\uAD6D\uC5B4"));
+    }
+    
+    @Test
+    public void testUnchangedValueIsNotCopied() {
+        LcNoDiacriticsNormalizer norm = new LcNoDiacriticsNormalizer();
+        String value = "already normalized";
+        assertSame(value, norm.normalize(value));
+    }
+    
+    @Test
+    public void testFoldingTableMatchesNormalizer() {
+        LcNoDiacriticsNormalizer norm = new LcNoDiacriticsNormalizer();
+        
+        // every char on its own
+        for (int i = 0; i <= Character.MAX_VALUE; i++) {
+            String value = String.valueOf((char) i);
+            assertEquals(DiacriticFoldingTable.foldWithNormalizer(value), norm.normalize(value), "Mismatch for U+" + Integer.toHexString(i));
+        }
+        
+        // random mixes of latin, greek, cyrillic, combining marks, kana and hangul
+        int[][] ranges = {{0x20, 0x7e}, {0xa0, 0x24f}, {0x300, 0x36f}, {0x370, 0x4ff}, {0x1e00, 0x1eff}, {0x3040, 0x30ff}, {0x1100, 0x11ff}, {0xac00, 0xd7a3}};
+        Random random = new Random(1234);
+        for (int i = 0; i < 100000; i++) {
+            StringBuilder builder = new StringBuilder();
+            int length = 1 + random.nextInt(8);
+            for (int j = 0; j < length; j++) {
+                int[] range = ranges[random.nextInt(ranges.length)];
+                builder.append((char) (range[0] + random.nextInt(range[1] - range[0] + 1)));
+            }
+            String value = builder.toString();
+            assertEquals(DiacriticFoldingTable.foldWithNormalizer(value), norm.normalize(value), "Mismatch for " + value);
+        }
+    }
 }
@@ -0,0 +1,179 @@
+package datawave.data.normalizer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.text.ParsePosition;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.TimeZone;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class LenientDateFormatTest {
+    
+    private static final String[] TIME_ZONES = {"GMT", "America/New_York", "Asia/Kolkata", "Europe/London", "Australia/Sydney"};
+    
+    private static final String[] INPUTS = {"Mon Oct 20 00:00:00 GMT 2014", "Thu Jan 1 00:00:00 GMT 1970", "Thu Jan  1 00:00:00 GMT 1970",
+            "Fri Oct 20 00:00:00 GMT 2014", "mon oct 20 00:00:00 gmt 2014", "Monday October 20 00:00:00 GMT 2014", "Mon Oct 20 00:00:00 EST 2014",
+            "Mon Jul 20 00:00:00 EST 2014", "Mon Jul 20 00:00:00 EDT 2014", "Mon Jul 20 00:00:00 UTC 2014", "Mon Jul 20 00:00:00 GMT+05:30 2014",
+            "Mon Jul 20 00:00:00 GMT+5:30 2014", "Mon Jul 20 00:00:00 +0530 2014", "Mon Jul 20 00:00:00 -0800 2014", "Mon Jul 20 00:00:00 +05:30 2014",
+            "Mon Jul 20 00:00:00 Z 2014", " Mon Jul 20 00:00:00 GMT 2014", "Mon Jul 20 00:00:00  GMT 2014", "2014-10-20T00:00:00.0000000",
+            "2014-10-20T00:00:00.000Z", "20141020000000", "2014-10-20 00:00:00GMT", "2014-10-20 00:00:00Z", "2014-10-20 00:00:00", "2014-10-20",
+            "2014-10-20T00|00", "2014-10-20T00:00:00Z", "2014-10-20t00:00:00z", "2014-10-20T00:00:00+00:00", "Mon Oct 20 00:00:00 +00:00 2014", "2014-13-45",
+            "2014-00-00", "2014-02-30 25:61:61", "2014-10--5", "1413825620000", "20141020172020", "201410201 72020", "2014-10-20 17:20:20+0100",
+            "2014-10-20  17:20:20", " 2014-10-20", "2014-10-20T17:20:20.1", "1500-02-29", "1582-10-10", "2014-3-9 3:4:5", "2014-10-20T17:20:20-05:00",
+            "2014-10-20T17:20:20-5:00", "2014-10-20T17:20:20+24:00", "2014-03-09 02:30:00", "2014-11-02 01:30:00", "2014-03-30 01:30:00",
+            "2014-10-26 01:30:00", "2014-10-20T17:20"};
+    
+    private TimeZone defaultTimeZone;
+    
+    @BeforeEach
+    public void saveTimeZone() {
+        defaultTimeZone = TimeZone.getDefault();
+    }
+    
+    @AfterEach
+    public void restoreTimeZone() {
+        TimeZone.setDefault(defaultTimeZone);
+    }
+    
+    @Test
+    public void testParseMatchesSimpleDateFormat() {
+        for (String timeZone : TIME_ZONES) {
+            TimeZone.setDefault(TimeZone.getTimeZone(timeZone));
+            for (String pattern : DateNormalizer.FORMAT_STRINGS) {
+                LenientDateFormat format = LenientDateFormat.compile(pattern);
+                for (String input : INPUTS) {
+                    assertEquals(parse(pattern, input), format.parse(input), pattern + " " + input + " " + timeZone);
+                }
+            }
+        }
+    }
+    
+    @Test
+    public void testFormatMatchesSimpleDateFormat() {
+        Random random = new Random(42);
+        for (String timeZone : TIME_ZONES) {
+            TimeZone.setDefault(TimeZone.getTimeZone(timeZone));
+            for (String pattern : DateNormalizer.FORMAT_STRINGS) {
+                LenientDateFormat format = LenientDateFormat.compile(pattern);
+                for (int i = 0; i < 1000; i++) {
+                    // between roughly 1240 and 3200, to cover the Julian calendar as well
+                    long millis = (long) (random.nextDouble() * 8e13 - 4e13);
+                    assertEquals(DateNormalizer.getParser(pattern).format(new Date(millis)), format.format(millis), pattern + " " + millis + " " + timeZone);
+                }
+            }
+        }
+    }
+    
+    @Test
+    public void testShapeNeverRejectsMatchingValues() {
+        for (String pattern : DateNormalizer.FORMAT_STRINGS) {
+            LenientDateFormat format = LenientDateFormat.compile(pattern);
+            for (String input : INPUTS) {
+                if (format.parse(DateNormalizer.convertMicroseconds(input, pattern)) != LenientDateFormat.INVALID) {
+                    assertTrue(format.mayMatch(new LenientDateFormat.Shape(input)), pattern + " " + input);
+                }
+            }
+        }
+    }
+    
+    @Test
+    public void testOverlapNeverRejectsCommonValues() {
+        Random random = new Random(42);
+        for (String timeZone : TIME_ZONES) {
+            TimeZone.setDefault(TimeZone.getTimeZone(timeZone));
+            List<String> inputs = new ArrayList<>(Arrays.asList(INPUTS));
+            for (String pattern : DateNormalizer.FORMAT_STRINGS) {
+                for (int i = 0; i < 100; i++) {
+                    inputs.add(LenientDateFormat.compile(pattern).format((long) (random.nextDouble() * 6e12 - 2e12)));
+                }
+            }
+            for (String first : DateNormalizer.FORMAT_STRINGS) {
+                for (String second : DateNormalizer.FORMAT_STRINGS) {
+                    LenientDateFormat one = LenientDateFormat.compile(first);
+                    LenientDateFormat two = LenientDateFormat.compile(second);
+                    if (one.mayOverlap(two)) {
+                        continue;
+                    }
+                    for (String input : inputs) {
+                        boolean both = one.parse(DateNormalizer.convertMicroseconds(input, first)) != LenientDateFormat.INVALID
+                                        && two.parse(DateNormalizer.convertMicroseconds(input, second)) != LenientDateFormat.INVALID;
+                        assertFalse(both, first + " " + second + " " + input);
+                    }
+                }
+            }
+        }
+        // a literal 'Z' is also a valid offset
+        assertTrue(LenientDateFormat.compile("yyyy-MM-dd'T'HH:mm:ss'Z'").mayOverlap(LenientDateFormat.compile("yyyy-MM-dd'T'HH:mm:ssXXX")));
+        assertFalse(LenientDateFormat.compile(DateNormalizer.ISO_8601_FORMAT_STRING).mayOverlap(LenientDateFormat.compile("yyyy-MM-dd")));
+    }
+    
+    @Test
+    public void testShapeCandidates() {
+        assertEquals(Collections.singletonList(DateNormalizer.ISO_8601_FORMAT_STRING), candidates("2014-10-20T17:20:20.001Z"));
+        assertEquals(Collections.singletonList("yyyyMMddHHmmss"), candidates("1413825620000"));
+        assertEquals(Arrays.asList("yyyy-MM-dd HH:mm:ssz", "yyyy-MM-dd HH:mm:ss"), candidates("2014-10-20 17:20:20"));
+        assertEquals(Collections.singletonList("yyyy-MM-dd'T'HH:mm:ss.SSSSSSS"), candidates("2014-10-20T17:20:20.345007"));
+        assertEquals(Collections.emptyList(), candidates("not a date"));
+    }
+    
+    @Test
+    public void testDigitsOfOtherScripts() {
+        // full width and Arabic-Indic digits, and zero padded or overflowing numbers
+        String[][] cases = {{"yyyy-MM-dd", "\uff12\uff10\uff11\uff14-10-20"},
+                {"yyyy-MM-dd HH:mm:ss", "\u0662\u0660\u0661\u0664-\u0661\u0660-\u0662\u0660 17:20:20"}, {"yyyy-MM-dd", "0000000000000000000000002014-10-20"},
+                {"yyyy-MM-dd", "99999999999999999999-10-20"}, {"yyyy-MM-dd", "2014-10--9223372036854775808"}, {"yyyy-MM-dd", "2014-10-9223372036854775808"},
+                {"yyyy-MM-dd", "2014-10-20\uff3a"}};
+        for (String timeZone : TIME_ZONES) {
+            TimeZone.setDefault(TimeZone.getTimeZone(timeZone));
+            for (String[] test : cases) {
+                LenientDateFormat format = LenientDateFormat.compile(test[0]);
+                assertEquals(parse(test[0], test[1]), format.parse(test[1]), test[0] + " " + test[1] + " " + timeZone);
+                if (format.parse(test[1]) != LenientDateFormat.INVALID) {
+                    assertTrue(format.mayMatch(new LenientDateFormat.Shape(test[1])), test[0] + " " + test[1]);
+                }
+            }
+        }
+        assertEquals(parse("yyyy-MM-dd", "2014-10-20"), LenientDateFormat.compile("yyyy-MM-dd").parse("\uff12\uff10\uff11\uff14-10-20"));
+    }
+    
+    @Test
+    public void testUnsupportedPatterns() {
+        assertNull(LenientDateFormat.compile("yy-MM-dd"));
+        assertNull(LenientDateFormat.compile("yyyy-MM-dd hh:mm a"));
+        assertNull(LenientDateFormat.compile("yyyy-MM-dd'T"));
+        assertNotNull(LenientDateFormat.compile("yyyy-MM-dd 'o''clock' HH"));
+        
+        // patterns which cannot be compiled still parse through a SimpleDateFormat
+        assertEquals(parse("yy-MM-dd", "14-10-20"), DateNormalizer.parseDate("14-10-20", "yy-MM-dd").getTime());
+    }
+    
+    private static long parse(String pattern, String input) {
+        ParsePosition pos = new ParsePosition(0);
+        Date date = DateNormalizer.getParser(pattern).parse(input, pos);
+        return date != null && pos.getIndex() == input.length() ? date.getTime() : LenientDateFormat.INVALID;
+    }
+    
+    private static List<String> candidates(String input) {
+        LenientDateFormat.Shape shape = new LenientDateFormat.Shape(input);
+        List<String> candidates = new ArrayList<>();
+        for (String pattern : DateNormalizer.FORMAT_STRINGS) {
+            if (LenientDateFormat.compile(pattern).mayMatch(shape)) {
+                candidates.add(pattern);
+            }
+        }
+        return candidates;
+    }
+}
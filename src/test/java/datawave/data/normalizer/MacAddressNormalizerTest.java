@@ -0,0 +1,26 @@
+package datawave.data.normalizer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+public class MacAddressNormalizerTest {
+    
+    private final MacAddressNormalizer normalizer = new MacAddressNormalizer();
+    
+    @Test
+    public void testNormalize() {
+        // separated groups are kept as given
+        assertEquals("00-1A-2B-3C-4D-5E", normalizer.normalize("00:1A:2B:3C:4D:5E"));
+        assertEquals("00-1a-2b-3c-4d-5e", normalizer.normalize("0:1a:2b:3c:4d:5e"));
+        assertEquals("00-1A-2B-3C-4D-5E", normalizer.normalize("00-1A-2B-3C-4D-5E"));
+        // a single number is written in lower case
+        assertEquals("00-1a-2b-3c-4d-5e", normalizer.normalize("1A2B3C4D5E"));
+        assertEquals("00-00-00-00-00-00", normalizer.normalize("-0"));
+        for (String mac : new String[] {"", "host.example.com", "00:1a:2b:3c:4d", "1000000000000", "0:1a:2b:3c:4d:5e:6f", "1.2.3.4", "001a.2b3c.4d5e",
+                "001a-2b3c-4d5e", "-1"}) {
+            assertThrows(IllegalArgumentException.class, () -> normalizer.normalize(mac), mac);
+        }
+    }
+}
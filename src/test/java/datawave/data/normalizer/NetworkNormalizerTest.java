@@ -0,0 +1,41 @@
+package datawave.data.normalizer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+public class NetworkNormalizerTest {
+    
+    private final NetworkNormalizer normalizer = new NetworkNormalizer();
+    
+    @Test
+    public void testNormalize() {
+        assertEquals("001.002.003.004", normalizer.normalize("1.2.3.4"));
+        assertEquals("001.002.003.004", normalizer.normalize(" 1.2. 3.4"));
+        assertEquals("001.002.*", normalizer.normalize("1.2.*"));
+        assertEquals("2001:0db8:0000:0000:0000:0000:0000:0001", normalizer.normalize("2001:DB8::1"));
+        assertEquals("00-1A-2B-3C-4D-5E", normalizer.normalize("00:1A:2B:3C:4D:5E"));
+        assertEquals("web-01-0a-0b-0c-0d", normalizer.normalize("web:1:a:b:c:d"));
+        assertEquals("001a.2b3c.4d5e", normalizer.normalize("001a.2b3c.4d5e"));
+        assertEquals("1234-5678-9012", normalizer.normalize("1234-5678-9012"));
+        assertEquals("mail.example.com", normalizer.normalize("Mail.Example.COM"));
+        assertEquals("cafe.babe", normalizer.normalize("Cafe.Babe"));
+        // a number is an IpV4 address before it is a MAC address
+        assertEquals("001.002.003.004", normalizer.normalize("16909060"));
+        assertEquals("", normalizer.normalize(""));
+    }
+    
+    @Test
+    public void testClassify() {
+        int both = NetworkNormalizer.IP_ADDRESS | NetworkNormalizer.MAC_ADDRESS;
+        assertEquals(both, NetworkNormalizer.classify("16909060"));
+        assertEquals(NetworkNormalizer.IP_ADDRESS, NetworkNormalizer.classify("1.2.3.4"));
+        assertEquals(both, NetworkNormalizer.classify("00:1a:2b:3c:4d:5e"));
+        assertEquals(NetworkNormalizer.IP_ADDRESS, NetworkNormalizer.classify("::ffff:1.2.3.4"));
+        assertEquals(NetworkNormalizer.IP_ADDRESS, NetworkNormalizer.classify("0x01.2.3.4"));
+        assertEquals(NetworkNormalizer.MAC_ADDRESS, NetworkNormalizer.classify("web:1:a:b:c:d"));
+        assertEquals(0, NetworkNormalizer.classify("001a/2b3c/4d5e"));
+        assertEquals(0, NetworkNormalizer.classify("mail.example.com"));
+        assertEquals(0, NetworkNormalizer.classify("web-03.example"));
+    }
+}
@@ -0,0 +1,109 @@
+package datawave.data.normalizer;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import datawave.data.type.NumberType;
+
+public class NormalizationEngineTest {
+    
+    private static final int PARALLELISM = 4;
+    private static final int CHUNK_SIZE = 10;
+    
+    private final NumberNormalizer normalizer = new NumberNormalizer();
+    
+    private static String[] values(int count) {
+        Random random = new Random(42);
+        String[] values = new String[count];
+        for (int i = 0; i < count; i++) {
+            values[i] = (random.nextInt(10) == 0 ? "not a number " + i : Integer.toString(random.nextInt(1000) - 500));
+        }
+        return values;
+    }
+    
+    @Test
+    public void testNormalizeAllKeepsOrder() {
+        String[] in = values(1005);
+        String[] expected = new String[in.length];
+        int expectedFailures = normalizer.normalizeAll(in, expected);
+        
+        try (NormalizationEngine engine = new NormalizationEngine(PARALLELISM, CHUNK_SIZE)) {
+            String[] out = new String[in.length];
+            assertEquals(expectedFailures, engine.normalizeAll(normalizer, in, out));
+            assertArrayEquals(expected, out);
+            
+            assertEquals(Arrays.asList(expected), engine.normalizeAll(normalizer, Arrays.asList(in)));
+            
+            out = new String[in.length];
+            assertEquals(expectedFailures, engine.normalizeAll(new NumberType(), in, out));
+            assertArrayEquals(expected, out);
+        }
+    }
+    
+    @Test
+    public void testStreamIsBounded() {
+        String[] in = values(10_000);
+        int[] read = new int[1];
+        Iterator<String> values = new Iterator<String>() {
+            @Override
+            public boolean hasNext() {
+                return read[0] < in.length;
+            }
+            
+            @Override
+            public String next() {
+                return in[read[0]++];
+            }
+        };
+        
+        List<String> out = new ArrayList<>();
+        int[] maxAhead = new int[1];
+        try (NormalizationEngine engine = new NormalizationEngine(PARALLELISM, CHUNK_SIZE)) {
+            long failures = engine.normalize(normalizer, values, (value, normalized) -> {
+                assertEquals(in[out.size()], value);
+                out.add(normalized);
+                maxAhead[0] = Math.max(maxAhead[0], read[0] - out.size());
+            });
+            
+            String[] expected = new String[in.length];
+            assertEquals(normalizer.normalizeAll(in, expected), failures);
+            assertEquals(Arrays.asList(expected), out);
+        }
+        // the pending chunks plus the one being read
+        assertTrue(maxAhead[0] <= (2 * PARALLELISM + 1) * CHUNK_SIZE, "read " + maxAhead[0] + " values ahead");
+    }
+    
+    @Test
+    public void testUnexpectedExceptionIsRethrown() {
+        Normalizer<String> failing = new NoOpNormalizer() {
+            @Override
+            public NormalizationResult tryNormalize(String in) {
+                if (in.equals("boom")) {
+                    throw new IllegalStateException("boom");
+                }
+                return super.tryNormalize(in);
+            }
+        };
+        String[] in = values(100);
+        in[57] = "boom";
+        try (NormalizationEngine engine = new NormalizationEngine(PARALLELISM, CHUNK_SIZE)) {
+            assertThrows(IllegalStateException.class, () -> engine.normalizeAll(failing, in, new String[in.length]));
+        }
+    }
+    
+    @Test
+    public void testInvalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new NormalizationEngine(0));
+        assertThrows(IllegalArgumentException.class, () -> new NormalizationEngine(1, 0));
+    }
+}
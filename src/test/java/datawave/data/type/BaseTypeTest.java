@@ -0,0 +1,184 @@
+package datawave.data.type;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import datawave.data.normalizer.NoOpNormalizer;
+
+public class BaseTypeTest {
+    
+    /**
+     * Upper cases its values and counts how often it does, failing on the value "bad"
+     */
+    private static class CountingNormalizer extends NoOpNormalizer {
+        private static final long serialVersionUID = 1L;
+        
+        private final AtomicInteger count = new AtomicInteger();
+        
+        @Override
+        public String normalizeDelegateType(String delegateIn) {
+            count.incrementAndGet();
+            if (delegateIn.equals("bad")) {
+                throw new IllegalArgumentException("bad value");
+            }
+            return delegateIn.toUpperCase();
+        }
+    }
+    
+    private static BaseType<?> lazy(BaseType<?> type) {
+        type.setLazyNormalization(true);
+        return type;
+    }
+    
+    /**
+     * A lazy type must be indistinguishable from an eager type given the same value
+     */
+    private static void assertSameAsEager(BaseType<?> eager, BaseType<?> lazy, String value) {
+        eager.setDelegateFromString(value);
+        lazy.setDelegateFromString(value);
+        if (eager instanceof OneToManyNormalizerType) {
+            assertEquals(((OneToManyNormalizerType<?>) eager).getNormalizedValues(), ((OneToManyNormalizerType<?>) lazy).getNormalizedValues());
+        }
+        assertEquals(eager, lazy);
+        assertEquals(eager.hashCode(), lazy.hashCode());
+        assertEquals(eager.getDelegateAsString(), lazy.getDelegateAsString());
+        assertEquals(eager.sizeInBytes(), lazy.sizeInBytes());
+        lazy.validate();
+        
+        lazy.setDelegateFromString(value);
+        assertEquals(eager.getNormalizedValue(), lazy.getNormalizedValue());
+        assertEquals(eager.sizeInBytes(), lazy.sizeInBytes());
+    }
+    
+    @Test
+    public void testLazyMatchesEager() {
+        assertSameAsEager(new NumberType(), lazy(new NumberType()), "12.5");
+        assertSameAsEager(new DateType(), lazy(new DateType()), "2014-10-20T17:20:20.001Z");
+        assertSameAsEager(new EpochMillisDateType(), lazy(new EpochMillisDateType()), "2014-10-20T17:20:20.001Z");
+        assertSameAsEager(new LcNoDiacriticsType(), lazy(new LcNoDiacriticsType()), "\u00c9cole");
+        assertSameAsEager(new IpAddressType(), lazy(new IpAddressType()), "192.168.1.1");
+        
+        // a second value must replace everything normalized from the first
+        GeometryType eager = new GeometryType();
+        BaseType<?> lazy = lazy(new GeometryType());
+        assertSameAsEager(eager, lazy, "POINT(10 20)");
+        assertSameAsEager(eager, lazy, "POLYGON((-10 -10, 10 -10, 10 10, -10 10, -10 -10))");
+    }
+    
+    @Test
+    public void testNormalizedOnlyWhenRead() {
+        CountingNormalizer normalizer = new CountingNormalizer();
+        BaseType<String> type = new BaseType<>(normalizer);
+        type.setLazyNormalization(true);
+        
+        type.setDelegate("one");
+        type.setDelegate("two");
+        assertEquals("two", type.getDelegate());
+        assertEquals(0, normalizer.count.get());
+        
+        assertEquals("TWO", type.getNormalizedValue());
+        assertEquals("TWO", type.getNormalizedValue());
+        assertEquals(1, normalizer.count.get());
+        
+        type.reset();
+        assertNull(type.getNormalizedValue());
+        assertTrue(type.isLazyNormalization());
+        assertEquals(1, normalizer.count.get());
+    }
+    
+    @Test
+    public void testInvalidValueFailsWhenRead() {
+        BaseType<String> type = new BaseType<>(new CountingNormalizer());
+        type.setLazyNormalization(true);
+        type.setDelegate("bad");
+        assertThrows(IllegalArgumentException.class, type::getNormalizedValue);
+        assertThrows(IllegalArgumentException.class, type::validate);
+        
+        type.setDelegate("good");
+        type.validate();
+        type.setLazyNormalization(false);
+        assertEquals("GOOD", type.getNormalizedValue());
+        assertThrows(IllegalArgumentException.class, () -> type.setDelegate("bad"));
+    }
+    
+    @Test
+    public void testEagerSetNormalizesPendingValue() {
+        CountingNormalizer normalizer = new CountingNormalizer();
+        BaseType<String> type = new BaseType<>(normalizer);
+        type.setLazyNormalization(true);
+        type.setDelegate("pending");
+        type.setLazyNormalization(false);
+        assertFalse(type.isLazyNormalization());
+        assertEquals(1, normalizer.count.get());
+        assertEquals("PENDING", type.getNormalizedValue());
+    }
+    
+    @Test
+    public void testSerializedNormalized() throws Exception {
+        DateType type = new DateType();
+        type.setLazyNormalization(true);
+        type.setDelegateFromString("2014-10-20T17:20:20.001Z");
+        
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(type);
+        }
+        DateType copy;
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            copy = (DateType) in.readObject();
+        }
+        assertFalse(copy.isLazyNormalization());
+        assertEquals(new DateType("2014-10-20T17:20:20.001Z").getNormalizedValue(), copy.getNormalizedValue());
+    }
+    
+    @Test
+    public void testRacingReadersAgree() throws Exception {
+        for (int round = 0; round < 100; round++) {
+            NumberType type = new NumberType();
+            type.setLazyNormalization(true);
+            type.setDelegateFromString(Integer.toString(round));
+            String expected = new NumberType(Integer.toString(round)).getNormalizedValue();
+            
+            CountDownLatch start = new CountDownLatch(1);
+            List<String> seen = new ArrayList<>();
+            List<Thread> threads = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                Thread thread = new Thread(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    String value = type.getNormalizedValue();
+                    synchronized (seen) {
+                        seen.add(value);
+                    }
+                });
+                thread.start();
+                threads.add(thread);
+            }
+            start.countDown();
+            for (Thread thread : threads) {
+                thread.join();
+            }
+            assertEquals(4, seen.size());
+            for (String value : seen) {
+                assertEquals(expected, value);
+            }
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package datawave.data.type;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Date;
+
+import org.junit.jupiter.api.Test;
+
+public class EpochMillisDateTypeTest {
+    
+    @Test
+    public void testMatchesDateType() {
+        DateType dateType = new DateType("2014-10-20T17:20:20.001Z");
+        EpochMillisDateType fromString = new EpochMillisDateType("2014-10-20T17:20:20.001Z");
+        EpochMillisDateType fromLong = new EpochMillisDateType(dateType.getDelegate().getTime());
+        
+        assertEquals(dateType.getNormalizedValue(), fromString.getNormalizedValue());
+        assertEquals(dateType.getNormalizedValue(), fromLong.getNormalizedValue());
+        assertEquals(dateType.getDelegateAsString(), fromLong.getDelegateAsString());
+        assertEquals(dateType.normalize(), fromLong.normalize());
+        assertEquals(dateType.getDelegate(), fromLong.getDelegate());
+        assertEquals(dateType.hashCode(), fromLong.hashCode());
+        assertEquals(dateType.expand(), fromLong.expand());
+        assertEquals(fromString, fromLong);
+    }
+    
+    @Test
+    public void testSetters() {
+        EpochMillisDateType type = new EpochMillisDateType();
+        assertEquals(new EpochMillisDateType(), type);
+        
+        type.setEpochMillis(1413825620001L);
+        assertEquals(1413825620001L, type.getEpochMillis());
+        assertEquals(new EpochMillisDateType(1413825620001L), type);
+        
+        type.setDelegate(new Date(1413825620002L));
+        assertEquals(1413825620002L, type.getEpochMillis());
+        assertNotEquals(new EpochMillisDateType(1413825620001L), type);
+        assertTrue(type.compareTo(new EpochMillisDateType(1413825620001L)) > 0);
+        
+        type.setDelegateFromString("1413825620003");
+        assertEquals(1413825620003L, type.getEpochMillis());
+        assertEquals(new Date(1413825620003L), type.getDelegate());
+        type.validate();
+        
+        // a date which was not set is never cached, so changing one does not change the value
+        long size = type.sizeInBytes();
+        type.getDelegate().setTime(0L);
+        assertNotSame(type.getDelegate(), type.getDelegate());
+        assertEquals(new Date(1413825620003L), type.getDelegate());
+        assertEquals(size, type.sizeInBytes());
+    }
+}
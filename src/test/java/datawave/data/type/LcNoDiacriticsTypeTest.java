@@ -1,9 +1,14 @@
 package datawave.data.type;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 
 import org.junit.jupiter.api.Test;
 
+import datawave.data.normalizer.CachingNormalizer;
+
 /**
  *
  * 
@@ -18,4 +23,28 @@ public class LcNoDiacriticsTypeTest {
         assertNull(n1);
         
     }
+    
+    @Test
+    public void testNormalizerCache() {
+        NormalizerCacheRegistry.enable(LcNoDiacriticsType.class, 1024, 16, false);
+        try {
+            LcNoDiacriticsType one = new LcNoDiacriticsType();
+            LcNoDiacriticsType two = new LcNoDiacriticsType();
+            one.setDelegateFromString("FRANCE");
+            two.setDelegateFromString("FRANCE");
+            assertEquals("france", one.getNormalizedValue());
+            assertEquals("france", two.getNormalizedValue());
+            
+            CachingNormalizer<?> cache = NormalizerCacheRegistry.getCache(LcNoDiacriticsType.class);
+            assertNotNull(cache);
+            assertEquals(1, cache.getStats().hitCount());
+            
+            // other types are not affected
+            assertNull(NormalizerCacheRegistry.getCache(LcType.class));
+            assertSame(cache, NormalizerCacheRegistry.getCache(LcNoDiacriticsType.class));
+        } finally {
+            NormalizerCacheRegistry.disable(LcNoDiacriticsType.class);
+        }
+        assertNull(NormalizerCacheRegistry.getCache(LcNoDiacriticsType.class));
+    }
 }
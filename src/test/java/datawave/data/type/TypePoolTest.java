@@ -0,0 +1,71 @@
+package datawave.data.type;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+public class TypePoolTest {
+    
+    private final TypePool pool = new TypePool();
+    
+    /**
+     * A pooled type given a value must be indistinguishable from a new type given the same value, whatever the pooled type held before
+     */
+    private void assertNoLeak(Class<? extends BaseType<?>> typeClass, String previous, String value) throws Exception {
+        pool.get(typeClass).setDelegateFromString(previous);
+        BaseType<?> pooled = pool.get(typeClass);
+        BaseType<?> fresh = typeClass.getDeclaredConstructor().newInstance();
+        assertEquals(fresh, pooled);
+        assertEquals(fresh.hashCode(), pooled.hashCode());
+        assertNull(pooled.getNormalizedValue());
+        assertNull(pooled.getDelegate());
+        
+        pooled.setDelegateFromString(value);
+        fresh.setDelegateFromString(value);
+        assertEquals(fresh.getNormalizedValue(), pooled.getNormalizedValue());
+        assertEquals(fresh.getDelegate(), pooled.getDelegate());
+        assertEquals(fresh.getDelegateAsString(), pooled.getDelegateAsString());
+        assertEquals(fresh, pooled);
+        assertEquals(fresh.hashCode(), pooled.hashCode());
+        assertEquals(fresh.sizeInBytes(), pooled.sizeInBytes());
+        if (fresh instanceof OneToManyNormalizerType) {
+            assertEquals(((OneToManyNormalizerType<?>) fresh).getNormalizedValues(), ((OneToManyNormalizerType<?>) pooled).getNormalizedValues());
+        }
+    }
+    
+    @Test
+    public void testNoStateLeaksBetweenValues() throws Exception {
+        assertNoLeak(NumberType.class, "12.5", "-3");
+        assertNoLeak(DateType.class, "2014-10-20T17:20:20.001Z", "2001-01-01T00:00:00.000Z");
+        assertNoLeak(EpochMillisDateType.class, "2014-10-20T17:20:20.001Z", "1970-01-01T00:00:00.000Z");
+        assertNoLeak(LcNoDiacriticsType.class, "\u00c9cole", "abc");
+        assertNoLeak(IpAddressType.class, "192.168.1.1", "::1");
+        assertNoLeak(MacAddressType.class, "00:1a:2b:3c:4d:5e", "00-00-00-00-00-01");
+        assertNoLeak(LcNoDiacriticsListType.class, "A,B;C", "d");
+    }
+    
+    @Test
+    public void testFailedValueDoesNotLeak() {
+        NumberType type = pool.get(NumberType.class);
+        type.setDelegateFromString("1");
+        assertThrows(IllegalArgumentException.class, () -> pool.get(NumberType.class).setDelegateFromString("not a number"));
+        assertNull(pool.get(NumberType.class).getNormalizedValue());
+    }
+    
+    @Test
+    public void testOneInstancePerClass() {
+        NumberType type = pool.get(NumberType.class);
+        assertSame(type, pool.get(NumberType.class));
+        assertSame(type, pool.get(NumberType.class.getName()));
+        assertSame(pool.get(DateType.class.getName()), pool.get(DateType.class));
+        assertEquals(2, pool.size());
+        
+        pool.clear();
+        assertEquals(0, pool.size());
+        
+        assertThrows(IllegalArgumentException.class, () -> pool.get("datawave.data.type.NoSuchType"));
+    }
+}
@@ -0,0 +1,139 @@
+package datawave.data.type;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.lang.reflect.Modifier;
+import java.net.URL;
+import java.util.Arrays;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+
+public class TypeRegistryTest {
+    
+    public static class CustomType extends LcType {}
+    
+    public static class HiddenConstructorType extends LcType {
+        HiddenConstructorType() {}
+    }
+    
+    @Test
+    public void testNewInstanceEveryCall() {
+        Supplier<NumberType> constructor = TypeRegistry.constructorOf(NumberType.class);
+        NumberType first = constructor.get();
+        NumberType second = constructor.get();
+        assertNotSame(first, second);
+        first.setDelegateFromString("1");
+        assertEquals(null, second.getNormalizedValue());
+        
+        assertNotSame(Type.Factory.createType(NumberType.class.getName()), Type.Factory.createType(NumberType.class.getName()));
+        assertEquals(DateType.class, TypeRegistry.newInstance(DateType.class.getName()).getClass());
+    }
+    
+    @Test
+    public void testOneConstructorPerClass() {
+        assertSame(TypeRegistry.constructorOf(LcNoDiacriticsType.class), TypeRegistry.constructorOf(LcNoDiacriticsType.class.getName()));
+        assertSame(TypeRegistry.constructorOf(LcNoDiacriticsType.class.getName()), TypeRegistry.constructorOf(LcNoDiacriticsType.class.getName()));
+    }
+    
+    @Test
+    public void testInvalidTypes() {
+        assertThrows(IllegalArgumentException.class, () -> TypeRegistry.newInstance(BaseType.class.getName()));
+        assertThrows(IllegalArgumentException.class, () -> TypeRegistry.newInstance(String.class.getName()));
+        assertThrows(IllegalArgumentException.class, () -> TypeRegistry.newInstance("datawave.data.type.NoSuchType"));
+        assertThrows(IllegalArgumentException.class, () -> Type.Factory.createType("datawave.data.type.NoSuchType"));
+    }
+    
+    @Test
+    public void testStats() {
+        TypeRegistry.Stats before = TypeRegistry.getStats();
+        TypeRegistry.newInstance(IpAddressType.class.getName());
+        TypeRegistry.newInstance(IpAddressType.class.getName());
+        TypeRegistry.Stats after = TypeRegistry.getStats();
+        assertEquals(before.getNameLookupCount() + 2, after.getNameLookupCount());
+        assertTrue(after.getKnownCount() >= 1);
+        assertTrue(after.getReflectiveCount() <= after.getLinkedCount());
+        assertTrue(after.toString().startsWith("TypeRegistry.Stats["));
+    }
+    
+    @Test
+    public void testTypesOfOtherModulesAreLinked() {
+        TypeRegistry.Stats before = TypeRegistry.getStats();
+        assertEquals(CustomType.class, TypeRegistry.newInstance(CustomType.class.getName()).getClass());
+        assertEquals(HiddenConstructorType.class, TypeRegistry.newInstance(HiddenConstructorType.class.getName()).getClass());
+        assertSame(TypeRegistry.constructorOf(CustomType.class), TypeRegistry.constructorOf(CustomType.class.getName()));
+        TypeRegistry.Stats after = TypeRegistry.getStats();
+        assertEquals(before.getLinkedCount() + 2, after.getLinkedCount());
+        assertEquals(before.getReflectiveCount() + 1, after.getReflectiveCount());
+        assertEquals(before.getKnownCount(), after.getKnownCount());
+        // the classes of other modules are held by name once linked, so they are only loaded by name once
+        assertEquals(before.getNameMissCount() + 2, after.getNameMissCount());
+        assertEquals(CustomType.class, TypeRegistry.newInstance(CustomType.class.getName()).getClass());
+        assertEquals(HiddenConstructorType.class, TypeRegistry.newInstance(HiddenConstructorType.class.getName()).getClass());
+        assertEquals(before.getNameMissCount() + 2, TypeRegistry.getStats().getNameMissCount());
+        assertEquals(before.getLinkedCount() + 2, TypeRegistry.getStats().getLinkedCount());
+        
+        // a name which is not a type is loaded again on every lookup
+        TypeRegistry.Stats invalid = TypeRegistry.getStats();
+        assertThrows(IllegalArgumentException.class, () -> TypeRegistry.newInstance(String.class.getName()));
+        assertThrows(IllegalArgumentException.class, () -> TypeRegistry.newInstance(String.class.getName()));
+        assertEquals(invalid.getNameMissCount() + 2, TypeRegistry.getStats().getNameMissCount());
+    }
+    
+    /**
+     * Every concrete type compiled into this package must be created directly rather than linked
+     */
+    @Test
+    public void testEveryTypeOfThisModuleIsKnown() throws Exception {
+        assertTrue(KnownTypes.isKnown(NumberType.class));
+        assertFalse(KnownTypes.isKnown(CustomType.class));
+        assertEquals(null, KnownTypes.constructorOf(CustomType.class.getName()));
+        
+        URL url = NumberType.class.getResource("NumberType.class");
+        if (!"file".equals(url.getProtocol())) {
+            return;
+        }
+        for (String file : new File(url.toURI()).getParentFile().list()) {
+            if (file.endsWith(".class") && !file.contains("$")) {
+                Class<?> typeClass = Class.forName(NumberType.class.getPackage().getName() + '.' + file.substring(0, file.length() - ".class".length()));
+                if (Type.class.isAssignableFrom(typeClass) && !Modifier.isAbstract(typeClass.getModifiers()) && hasPublicConstructor(typeClass)) {
+                    assertTrue(KnownTypes.isKnown(typeClass), typeClass.getName() + " is missing from KnownTypes");
+                }
+            }
+        }
+    }
+    
+    private static boolean hasPublicConstructor(Class<?> typeClass) {
+        try {
+            return Modifier.isPublic(typeClass.getConstructor().getModifiers());
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+    
+    @Test
+    public void testWarmUpNow() {
+        TypeRegistry.WarmUpReport report = TypeRegistry.warmUpNow(Arrays.asList(NumberType.class.getName(), "datawave.data.type.NoSuchType",
+                        DateType.class.getName()));
+        assertEquals(Arrays.asList(NumberType.class.getName(), "datawave.data.type.NoSuchType", DateType.class.getName()),
+                        Arrays.asList(report.getNanos().keySet().toArray()));
+        assertFalse(report.isSuccess());
+        assertEquals(1, report.getFailures().size());
+        assertTrue(report.getFailures().get("datawave.data.type.NoSuchType") instanceof IllegalArgumentException);
+        assertTrue(report.getTotalNanos() > 0);
+        assertTrue(report.toString().contains("NoSuchType"));
+    }
+    
+    @Test
+    public void testWarmUpConfiguredList() {
+        TypeRegistry.WarmUpReport report = TypeRegistry.warmUp(" " + LcType.class.getName() + ",\n" + NumberType.class.getName() + " ,, ").join();
+        assertTrue(report.isSuccess(), report.toString());
+        assertEquals(Arrays.asList(LcType.class.getName(), NumberType.class.getName()), Arrays.asList(report.getNanos().keySet().toArray()));
+    }
+}
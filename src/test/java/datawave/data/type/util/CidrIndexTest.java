@@ -0,0 +1,74 @@
+package datawave.data.type.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+public class CidrIndexTest {
+    
+    @Test
+    public void testParseCidr() {
+        assertEquals("10.1.0.0/16", Cidr.parse("10.1.2.3/16").toString());
+        assertEquals("10.1.2.3/32", Cidr.parse("10.1.2.3").toString());
+        assertEquals("2001:db8::/32", Cidr.parse("2001:db8:1::/32").toString());
+        assertEquals("10.1.255.255", Cidr.parse("10.1.0.0/16").getEndIp().toString());
+        assertEquals(Cidr.parse("10.1.0.0/16"), Cidr.of(IpAddress.parse("10.1.2.3"), 16));
+        for (String invalid : new String[] {"10.1.0.0/", "10.1.0.0/33", "::/129", "10.1.0.0/-1", "10.1.0.0/1x", "10.1/16"}) {
+            assertThrows(IllegalArgumentException.class, () -> Cidr.parse(invalid), invalid);
+        }
+    }
+    
+    @Test
+    public void testLongestMatch() {
+        CidrIndex index = new CidrIndex(Arrays.asList("10.0.0.0/8", "10.1.0.0/16", "10.1.2.0/24", "10.3.0.0/16", "10.1.0.0/16", "192.168.1.1", "2001:db8::/32",
+                        "2001:db8:1::/48", "::/0"));
+        assertEquals(8, index.size());
+        assertEquals("10.1.2.0/24", index.longestMatch(IpAddress.parse("10.1.2.3")).toString());
+        assertEquals("10.1.0.0/16", index.longestMatch(IpAddress.parse("10.1.3.3")).toString());
+        assertEquals("10.0.0.0/8", index.longestMatch(IpAddress.parse("10.2.0.0")).toString());
+        assertEquals("10.0.0.0/8", index.longestMatch(IpAddress.parse("10.255.255.255")).toString());
+        assertNull(index.longestMatch(IpAddress.parse("11.0.0.0")));
+        assertTrue(index.contains("192.168.001.001"));
+        assertFalse(index.contains("192.168.1.2"));
+        assertFalse(index.contains("not an address"));
+        
+        assertEquals("2001:db8:1::/48", index.longestMatch(IpAddress.parse("2001:db8:1::5")).toString());
+        assertEquals("2001:db8::/32", index.longestMatch(IpAddress.parse("2001:db8:2::5")).toString());
+        assertEquals("::/0", index.longestMatch(IpAddress.parse("ffff::")).toString());
+        // the families are kept apart
+        assertNull(new CidrIndex(Arrays.asList("0.0.0.0/0")).longestMatch(IpAddress.parse("::1")));
+    }
+    
+    @Test
+    public void testMatchesEveryBlock() {
+        Random random = new Random(42);
+        List<String> cidrs = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            cidrs.add(random.nextInt(16) + "." + random.nextInt(16) + ".0.0/" + (4 + random.nextInt(29)));
+            cidrs.add(Integer.toHexString(random.nextInt(4)) + ":" + Integer.toHexString(random.nextInt(65536)) + "::/" + (1 + random.nextInt(128)));
+        }
+        CidrIndex index = new CidrIndex(cidrs);
+        List<Cidr> blocks = new ArrayList<>();
+        cidrs.forEach(cidr -> blocks.add(Cidr.parse(cidr)));
+        for (int i = 0; i < 5000; i++) {
+            IpAddress address = (i % 2 == 0) ? new IpV4Address(random.nextInt() & 0x0F0FFFFFL) : new IpV6Address(((long) random.nextInt(4) << 48)
+                            | ((long) random.nextInt(65536) << 32) | (random.nextInt() & 0xFFFFFFFFL), random.nextLong());
+            Cidr expected = null;
+            for (Cidr block : blocks) {
+                if (block.contains(address) && (expected == null || block.getPrefixLength() > expected.getPrefixLength())) {
+                    expected = block;
+                }
+            }
+            assertEquals(expected, index.longestMatch(address), address.toString());
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package datawave.data.type.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import org.junit.jupiter.api.Test;
+
+public class IpAddressTest {
+    
+    @Test
+    public void testClassification() {
+        assertTrue(IpAddress.parse("1.2.3.4") instanceof IpV4Address);
+        assertTrue(IpAddress.parse("16909060") instanceof IpV4Address);
+        assertTrue(IpAddress.parse("::1") instanceof IpV6Address);
+        assertTrue(IpAddress.parse("::ffff:1.2.3.4") instanceof IpV6Address);
+        // a wildcard ignores the parts after the fourth
+        assertTrue(IpAddress.parse("1.2.3.4.*:5") instanceof IpV4Address);
+    }
+    
+    @Test
+    public void testIpV4Forms() {
+        assertEquals("1.2.3.4", IpAddress.parse("16909060").toString());
+        assertEquals("1.2.3.4", IpAddress.parse("0x01020304").toString());
+        assertEquals("10.1.1.1", IpAddress.parse("010.1.1.1").toString());
+        assertEquals("1.2.171.205", IpAddress.parse("1.2.ab.cd").toString());
+        assertEquals("1.2.10.4", IpV4Address.parse("1.2.012.4", 8).toString());
+        assertEquals("1.0.3.4", IpAddress.parse("1..3.4").toString());
+        assertEquals("0.0.1.2", IpAddress.parse("-0.+0.1.2").toString());
+        assertEquals("1.2.*", IpAddress.parse("1.2.*").toString());
+        assertThrows(IllegalArgumentException.class, () -> IpV4Address.parse("1.2.3.4", 7));
+    }
+    
+    @Test
+    public void testIpV6Forms() {
+        assertEquals("0000:0000:0000:0000:0000:0000:0000:0001", IpAddress.parse("::1").toZeroPaddedString());
+        assertEquals("0001:0000:0000:0000:0000:0000:0000:0000", IpAddress.parse("1::").toZeroPaddedString());
+        assertEquals("0000:0000:0000:0000:0000:ffff:0102:0304", IpAddress.parse("::ffff:1.2.3.4").toZeroPaddedString());
+        assertEquals("2001:0db8:0000:0000:0000:0000:0000:0001", IpAddress.parse("2001:DB8::1").toZeroPaddedString());
+    }
+    
+    @Test
+    public void testTryParse() {
+        String[] invalid = {"", "1.2.3", "1.2.3.999", "1.2.3.4.5", "4294967296", "-1", "1.2.3.4x", "1:2:3", "1:2:3:4:5:6:7:8:9", "1:2:3:4:5:6:7:10000", "::g",
+                "1:2:3:4:5:6:1.2.3", "1*.2.3.4"};
+        for (String address : invalid) {
+            assertNull(IpAddress.tryParse(address), address);
+            assertThrows(IllegalArgumentException.class, () -> IpAddress.parse(address), address);
+        }
+        assertNull(IpAddress.tryParse(null));
+    }
+    
+    @Test
+    public void testZeroPaddedForms() {
+        IpAddress ipV4 = IpAddress.parse("192.8.0.255");
+        assertEquals("192.008.000.255", ipV4.toZeroPaddedString());
+        assertEquals("255.000.008.192", ipV4.toReverseZeroPaddedString());
+        assertEquals("001.002.*", IpAddress.parse("1.2.*").toZeroPaddedString());
+        assertEquals("*.002.013.004", IpAddress.parse("*.2.13.4").toZeroPaddedString());
+        
+        IpAddress ipV6 = IpAddress.parse("2001:db8::ff00:42:8329");
+        assertEquals("2001:0db8:0000:0000:0000:ff00:0042:8329", ipV6.toZeroPaddedString());
+        assertEquals("8329:0042:ff00:0000:0000:0000:0db8:2001", ipV6.toReverseZeroPaddedString());
+    }
+    
+    @Test
+    public void testMasking() {
+        IpAddress ipV4 = IpAddress.parse("192.168.171.205");
+        assertEquals("192.168.160.0", ipV4.getStartIp(19).toString());
+        assertEquals("192.168.191.255", ipV4.getEndIp(19).toString());
+        assertEquals("0.0.0.0", ipV4.getStartIp(0).toString());
+        assertEquals("192.168.171.205", ipV4.getEndIp(32).toString());
+        
+        IpAddress ipV6 = IpAddress.parse("2001:db8:ffff:ffff:ffff:ffff:ffff:ffff");
+        assertEquals("2001:0db8:fff0:0000:0000:0000:0000:0000", ipV6.getStartIp(44).toZeroPaddedString());
+        assertEquals("2001:0db8:ffff:ffff:ff80:0000:0000:0000", ipV6.getStartIp(73).toZeroPaddedString());
+        assertEquals("2001:0db8:0000:ffff:ffff:ffff:ffff:ffff", IpAddress.parse("2001:db8::").getEndIp(48).toZeroPaddedString());
+    }
+    
+    @Test
+    public void testAdjacentAddresses() {
+        assertEquals("10.0.1.0", IpAddress.parse("10.0.0.255").getNextIp().toString());
+        assertEquals("10.0.0.255", IpAddress.parse("10.0.1.0").getPreviousIp().toString());
+        assertEquals("128.0.0.0", IpAddress.parse("127.255.255.255").getNextIp().toString());
+        assertNull(IpAddress.parse("255.255.255.255").getNextIp());
+        assertNull(IpAddress.parse("0.0.0.0").getPreviousIp());
+        assertThrows(IllegalArgumentException.class, () -> IpAddress.parse("1.2.*").getNextIp());
+        
+        assertEquals("0000:0000:0000:0001:0000:0000:0000:0000", IpAddress.parse("::ffff:ffff:ffff:ffff").getNextIp().toZeroPaddedString());
+        assertEquals("0000:0000:0000:0000:ffff:ffff:ffff:ffff", IpAddress.parse("0:0:0:1::").getPreviousIp().toZeroPaddedString());
+        assertEquals("8000:0000:0000:0000:0000:0000:0000:0000", IpAddress.parse("7fff:ffff:ffff:ffff:ffff:ffff:ffff:ffff").getNextIp().toZeroPaddedString());
+        assertNull(IpAddress.parse("ffff:ffff:ffff:ffff:ffff:ffff:ffff:ffff").getNextIp());
+        assertNull(IpAddress.parse("::").getPreviousIp());
+    }
+    
+    @Test
+    public void testOrderingAndEquality() {
+        assertTrue(IpAddress.parse("128.0.0.1").compareTo(IpAddress.parse("127.255.255.255")) > 0);
+        assertTrue(IpAddress.parse("8000::").compareTo(IpAddress.parse("7fff::ffff")) > 0);
+        assertEquals(IpAddress.parse("1.2.3.4"), IpAddress.parse("::102:304"));
+        assertEquals(0, IpAddress.parse("::102:304").compareTo(IpAddress.parse("1.2.3.4")));
+    }
+    
+    @Test
+    public void testSerialization() throws Exception {
+        for (String address : new String[] {"1.2.*", "255.0.0.1", "ffff::1:2"}) {
+            IpAddress ipaddress = IpAddress.parse(address);
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+                out.writeObject(ipaddress);
+            }
+            try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+                IpAddress copy = (IpAddress) in.readObject();
+                assertEquals(ipaddress, copy);
+                assertEquals(ipaddress.toString(), copy.toString());
+            }
+        }
+    }
+}
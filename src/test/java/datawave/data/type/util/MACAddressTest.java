@@ -0,0 +1,59 @@
+package datawave.data.type.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+
+import org.junit.jupiter.api.Test;
+
+public class MACAddressTest {
+    
+    @Test
+    public void testGuessedForms() {
+        for (String address : new String[] {"00:1a:2b:3c:4d:5e", "00-1A-2B-3C-4D-5E", "001a.2b3c.4d5e", "001a:2b3c:4d5e", "001a2b3c4d5e", "001a2b 3c4d5e",
+                "001:a2b:3c4:d5e"}) {
+            MACAddress mac = MACAddress.parse(address);
+            assertEquals(0x001A2B3C4D5EL, mac.toNumber(), address);
+            assertEquals("00:1A:2B:3C:4D:5E", mac.toNormalizedString(":"), address);
+            assertEquals("001A.2B3C.4D5E", mac.toNormalizedString(".", 4), address);
+            assertEquals("00-1a-2b-3c-4d-5e", mac.toCanonicalString(), address);
+            assertEquals(address, mac.toString());
+        }
+        assertEquals(MACAddress.parse("00:1a:2b:3c:4d:5e"), MACAddress.parse("001A2B3C4D5E"));
+        assertEquals(MACAddress.parse("00:1a:2b:3c:4d:5e").hashCode(), MACAddress.parse("001A2B3C4D5E").hashCode());
+    }
+    
+    @Test
+    public void testStrictForms() {
+        // numbers without a letter are only taken as groups of two or four digits divided by ':' or '-'
+        assertEquals(0x112233445566L, MACAddress.parse("11-22-33-44-55-66").toNumber());
+        assertEquals(0x112233445566L, MACAddress.parse("1122:3344:5566").toNumber());
+        for (String address : new String[] {"112233445566", "11.22.33.44.55.66", "112.233.445.566", "1122.3344.5566", "0:1a:2b:3c:4d:5e", "001a2b3c4d5",
+                "001a2b3c4d5e0", "00:1a:2b:3c:4d-5e", "00:1a:2b:3c:4d:5e:", "00:1g:2b:3c:4d:5e", ""}) {
+            assertThrows(IllegalArgumentException.class, () -> MACAddress.parse(address), address);
+        }
+        assertEquals(0x112233445566L, MACAddress.parse("112233-445566", "-", 6, false).toNumber());
+        assertThrows(IllegalArgumentException.class, () -> MACAddress.parse("112233-445566", "-", 6, true));
+        assertThrows(IllegalArgumentException.class, () -> MACAddress.parse("001a2-b3c4d", "-", 5, true));
+        assertThrows(IllegalArgumentException.class, () -> new MACAddress("00:1a:2b:3c:4d", ":", 2));
+    }
+    
+    @Test
+    public void testSerialization() throws Exception {
+        MACAddress mac = MACAddress.parse("001a.2b3c.4d5e");
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(mac);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            MACAddress copy = (MACAddress) in.readObject();
+            assertEquals(mac, copy);
+            assertEquals(mac.toNumber(), copy.toNumber());
+            assertEquals("001a.2b3c.4d5e", copy.toString());
+        }
+    }
+}
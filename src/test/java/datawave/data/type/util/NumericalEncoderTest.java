@@ -2,9 +2,18 @@ package datawave.data.type.util;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.junit.jupiter.api.Test;
 
@@ -84,4 +93,59 @@ public class NumericalEncoderTest {
         }
         
     }
+    
+    @Test
+    public void testTryEncode() {
+        for (String input : new String[] {"0", "1", "-1", "+5", ".5", "5.", "-0.0005", "1e5", "1E-5", "100000001", "1e0000000000000000005"}) {
+            assertEquals(NumericalEncoder.encode(input), NumericalEncoder.tryEncode(input), input);
+        }
+        for (String input : new String[] {null, "", "-", ".", "-.", "e5", "1e", "1e+", "1.2.3", "12abc", "NaN", "Infinity", "1e999", "1e9999999999"}) {
+            assertNull(NumericalEncoder.tryEncode(input), input);
+            if (input != null) {
+                assertThrows(IllegalArgumentException.class, () -> NumericalEncoder.encode(input), input);
+            }
+        }
+    }
+    
+    @Test
+    public void testIsEncoded() {
+        assertTrue(NumericalEncoder.isEncoded("+aE5.4"));
+        assertTrue(NumericalEncoder.isEncoded("+AE0"));
+        assertTrue(NumericalEncoder.isEncoded(NumericalEncoder.encode("-12.5")));
+        assertTrue(NumericalEncoder.isEncoded("!AE1e5"));
+        assertFalse(NumericalEncoder.isEncoded("+aE5x4"));
+        assertFalse(NumericalEncoder.isEncoded("+aE1e5"));
+        assertFalse(NumericalEncoder.isEncoded("1"));
+        assertFalse(NumericalEncoder.isEncoded(null));
+    }
+    
+    @Test
+    public void testConcurrentEncode() throws Exception {
+        String[] values = new String[2000];
+        String[] expected = new String[values.length];
+        Random random = new Random(7);
+        for (int i = 0; i < values.length; i++) {
+            values[i] = new BigDecimal(random.nextGaussian() * 1e6).setScale(random.nextInt(12), RoundingMode.HALF_UP).toString();
+            expected[i] = NumericalEncoder.encode(values[i]);
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                results.add(executor.submit(() -> {
+                    for (int i = 0; i < values.length; i++) {
+                        if (!expected[i].equals(NumericalEncoder.encode(values[i]))) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
 }